@@ -0,0 +1,26 @@
+package benchmark;
+
+/**
+ * Entry point that runs the model, persistence and bot benchmarks.
+ * Usage: Benchmarks [name filter], e.g. "Benchmarks json" runs only the JSON round trips.
+ * Run from the project root so the fixtures in ./data can be found
+ */
+public class Benchmarks {
+    private static final String CHILD_FLAG = "--child";
+
+    // EFFECTS: runs every benchmark whose name contains the first argument (or all benchmarks),
+    //          each in its own JVM
+    public static void main(String[] args) throws Exception {
+        boolean child = args.length == 2 && CHILD_FLAG.equals(args[0]);
+        Harness harness = new Harness(args.length > 0 && !child ? args[0] : "");
+        ModelBenchmarks.register(harness);
+        PersistenceBenchmarks.register(harness);
+        BotBenchmarks.register(harness);
+
+        if (child) {
+            harness.runOne(args[1]);
+        } else {
+            harness.runAll(Benchmarks.class, CHILD_FLAG);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package benchmark;
+
+import bot.Bot;
+import bot.Heuristic;
+import bot.PlacementSearch;
+import bot.TranspositionTable;
+import model.Game;
+import model.GeneratorType;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.LongSupplier;
+
+/**
+ * Benchmarks for the bot's placement search, with and without lookahead, from a game part way through.
+ * The ".table" variants share a transposition table across calls, so after the first call they measure
+ * a search of a position that has been seen before
+ */
+public class BotBenchmarks {
+    private static final int WARM_UP_PIECES = 20;
+    private static final int TABLE_CAPACITY = 1 << 20;
+
+    // MODIFIES: harness
+    // EFFECTS: registers every bot benchmark with harness
+    public static void register(Harness harness) {
+        for (int lookahead = 0; lookahead <= 3; lookahead++) {
+            harness.add("bot.search.lookahead" + lookahead, search(lookahead, null));
+        }
+        for (int lookahead = 2; lookahead <= 3; lookahead++) {
+            harness.add("bot.search.lookahead" + lookahead + ".table",
+                    search(lookahead, new TranspositionTable(TABLE_CAPACITY)));
+        }
+    }
+
+    private static LongSupplier search(int lookahead, TranspositionTable table) {
+        Game game = midGame();
+        PlacementSearch search = new PlacementSearch(Heuristic.DEFAULT, lookahead,
+                PlacementSearch.DEFAULT_BEAM_WIDTH, ForkJoinPool.commonPool(), table);
+        return () -> search.search(game).getX();
+    }
+
+    // EFFECTS: returns a seeded game in which the bot has already placed WARM_UP_PIECES pieces
+    private static Game midGame() {
+        Game game = new Game(ModelBenchmarks.SEED, GeneratorType.Bag);
+        Bot bot = new Bot(game, new PlacementSearch());
+        while (game.getPiecesLocked() < WARM_UP_PIECES) {
+            bot.act();
+            game.tick();
+        }
+        return game;
+    }
+}
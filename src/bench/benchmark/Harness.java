@@ -0,0 +1,133 @@
+package benchmark;
+
+import model.EventLog;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * Represents a minimal microbenchmark harness: each benchmark is warmed up, then timed over
+ * several fixed-length iterations, and the average time per operation is reported.
+ * Every result of an operation is folded into a sink so the JIT cannot remove the work, and each
+ * benchmark runs in its own JVM so that the profile of one cannot slow down the code of another
+ */
+public class Harness {
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int MEASURE_ITERATIONS = 10;
+    private static final long ITERATION_NANOS = 200_000_000L;
+    private static final long MIN_BATCH_NANOS = 20_000L;
+
+    private final List<String> names = new ArrayList<>();
+    private final List<LongSupplier> operations = new ArrayList<>();
+    private final String filter;
+    private long sink;
+
+    // EFFECTS: initializes a harness that only runs benchmarks whose name contains filter
+    public Harness(String filter) {
+        this.filter = filter;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: registers operation to be benchmarked under the given name
+    public void add(String name, LongSupplier operation) {
+        names.add(name);
+        operations.add(operation);
+    }
+
+    // EFFECTS: runs every registered benchmark matching the filter in a new JVM that calls
+    //          mainClass with arguments (childFlag, name), and prints the results
+    public void runAll(Class<?> mainClass, String childFlag) throws IOException, InterruptedException {
+        System.out.printf("%-36s %14s %10s %16s%n", "Benchmark", "ns/op", "error", "ops/s");
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+
+        for (String name : names) {
+            if (name.contains(filter)) {
+                new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                        mainClass.getName(), childFlag, name).inheritIO().start().waitFor();
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: runs the benchmark with exactly the given name in this JVM and prints its result
+    public void runOne(String name) {
+        int i = names.indexOf(name);
+        if (i < 0) {
+            throw new IllegalArgumentException("No benchmark named " + name);
+        }
+
+        run(name, operations.get(i));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: warms up and measures operation, then prints the mean and standard deviation of ns/op
+    private void run(String name, LongSupplier operation) {
+        int batch = calibrate(operation);
+
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            iteration(operation, batch);
+        }
+
+        double[] samples = new double[MEASURE_ITERATIONS];
+        double mean = 0;
+        for (int i = 0; i < MEASURE_ITERATIONS; i++) {
+            samples[i] = iteration(operation, batch);
+            mean += samples[i] / MEASURE_ITERATIONS;
+        }
+
+        double variance = 0;
+        for (double sample : samples) {
+            variance += (sample - mean) * (sample - mean) / (MEASURE_ITERATIONS - 1);
+        }
+
+        System.out.printf("%-36s %14.1f %10.1f %16.0f%n", name, mean, Math.sqrt(variance), 1e9 / mean);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the number of operations to run between clock reads, so that reading the
+    //          clock is negligible compared to the time spent in the batch
+    private int calibrate(LongSupplier operation) {
+        int batch = 1;
+        while (batch < (1 << 24)) {
+            long start = System.nanoTime();
+            runBatch(operation, batch);
+            if (System.nanoTime() - start >= MIN_BATCH_NANOS) {
+                break;
+            }
+            batch *= 2;
+        }
+
+        return batch;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: runs operation in batches for ITERATION_NANOS and returns the average ns/op;
+    //          the event log is emptied first so that it does not keep growing across iterations
+    private double iteration(LongSupplier operation, int batch) {
+        EventLog.getInstance().clear();
+        long ops = 0;
+        long start = System.nanoTime();
+        long elapsed;
+
+        do {
+            runBatch(operation, batch);
+            ops += batch;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < ITERATION_NANOS);
+
+        return (double) elapsed / ops;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: runs operation batch times, folding each result into the sink
+    private void runBatch(LongSupplier operation, int batch) {
+        long acc = 0;
+        for (int i = 0; i < batch; i++) {
+            acc += operation.getAsLong();
+        }
+        sink ^= acc;
+    }
+}
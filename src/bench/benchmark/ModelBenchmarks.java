@@ -0,0 +1,148 @@
+package benchmark;
+
+import model.Block;
+import model.Board;
+import model.Game;
+import model.Moves;
+import model.Position;
+import model.Tetromino;
+
+import java.util.function.LongSupplier;
+
+import static model.Game.BOARD_HEIGHT;
+import static model.Game.BOARD_WIDTH;
+
+/**
+ * Benchmarks for the hot paths of the model: ticking, dropping, clearing lines and moving blocks.
+ * Every game is created with a fixed seed so that runs are reproducible
+ */
+public class ModelBenchmarks {
+    public static final long SEED = 210;
+    private static final Moves[] MOVE_CYCLE = {Moves.Left, Moves.CW, Moves.Right, Moves.CCW};
+
+    // MODIFIES: harness
+    // EFFECTS: registers every model benchmark with harness
+    public static void register(Harness harness) {
+        harness.add("game.tick.idle", idleTick());
+        harness.add("game.tick.move", moveTick());
+        harness.add("game.tick.drop", dropTick());
+        harness.add("game.tick.lockAndClear4", lockAndClearTick());
+        for (int full = 0; full <= 4; full++) {
+            harness.add("board.clearFullRows." + full, clearFullRows(full));
+        }
+        harness.add("block.getAllPosOnBoard", allPosOnBoard());
+        harness.add("block.getTileXY", tilePos());
+        harness.add("block.rotate", rotate());
+    }
+
+    // EFFECTS: returns a board whose bottom four rows are nearly full, the lowest numFull of them completely
+    public static Board fullRowsFixture(int numFull) {
+        Board board = new Board();
+        for (int j = 0; j < 4; j++) {
+            int y = BOARD_HEIGHT - 1 - j;
+            for (int i = 0; i < BOARD_WIDTH; i++) {
+                if (j < numFull || i != j) {
+                    board.set(i, y, Tetromino.LineShape);
+                }
+            }
+        }
+
+        return board;
+    }
+
+    private static LongSupplier idleTick() {
+        Session session = new Session();
+        return () -> {
+            Game game = session.current();
+            game.tick();
+            return game.getTicks();
+        };
+    }
+
+    private static LongSupplier moveTick() {
+        Session session = new Session();
+        return () -> {
+            Game game = session.current();
+            game.input(MOVE_CYCLE[(int) game.getTicks() & 3]);
+            game.tick();
+            return game.getTicks();
+        };
+    }
+
+    private static LongSupplier dropTick() {
+        Session session = new Session();
+        return () -> {
+            Game game = session.current();
+            game.getBoard().clear();
+            game.input(Moves.Drop);
+            game.tick();
+            return game.getPiecesLocked();
+        };
+    }
+
+    private static LongSupplier lockAndClearTick() {
+        Session session = new Session();
+        Board fixture = fullRowsFixture(4);
+        return () -> {
+            Game game = session.current();
+            game.getBoard().copyFrom(fixture);
+            game.input(Moves.Drop);
+            game.tick();
+            return game.getScore();
+        };
+    }
+
+    // includes copying the fixture into the working board, which is a pair of array copies
+    private static LongSupplier clearFullRows(int numFull) {
+        Board fixture = fullRowsFixture(numFull);
+        Board board = new Board();
+        return () -> {
+            board.copyFrom(fixture);
+            return board.clearFullRows();
+        };
+    }
+
+    private static LongSupplier allPosOnBoard() {
+        Block block = new Block(Tetromino.TShape);
+        return () -> {
+            Position[] positions = block.getAllPosOnBoard();
+            return positions[3].getX() + positions[3].getY();
+        };
+    }
+
+    private static LongSupplier tilePos() {
+        Block block = new Block(Tetromino.TShape);
+        return () -> {
+            long sum = 0;
+            for (int i = 0; i < 4; i++) {
+                sum += block.getTileX(i) + block.getTileY(i);
+            }
+            return sum;
+        };
+    }
+
+    private static LongSupplier rotate() {
+        Block block = new Block(Tetromino.LShape);
+        return () -> {
+            block.setNextMove(Moves.CW);
+            block.move();
+            return block.getRelativePos()[0].getX();
+        };
+    }
+
+    /**
+     * Represents a seeded game that is restarted whenever it ends
+     */
+    private static class Session {
+        private Game game = new Game(SEED);
+
+        // MODIFIES: this
+        // EFFECTS: returns the game, first replacing it with a new seeded game if it has ended
+        Game current() {
+            if (game.isEnded()) {
+                game = new Game(SEED);
+            }
+            return game;
+        }
+    }
+}
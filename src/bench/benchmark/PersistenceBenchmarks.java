@@ -0,0 +1,84 @@
+package benchmark;
+
+import model.Game;
+import persistence.BinaryReader;
+import persistence.BinaryWriter;
+import persistence.JsonReader;
+import persistence.JsonWriter;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.LongSupplier;
+
+/**
+ * Benchmarks for saving and loading games as JSON and in the binary format, using the canned games in ./data
+ */
+public class PersistenceBenchmarks {
+    private static final String FIXTURE = "./data/testReaderGeneralGame.json";
+
+    // MODIFIES: harness
+    // EFFECTS: registers every persistence benchmark with harness
+    public static void register(Harness harness) throws IOException {
+        File scratch = File.createTempFile("bench", ".json");
+        scratch.deleteOnExit();
+        File binaryScratch = File.createTempFile("bench", ".sav");
+        binaryScratch.deleteOnExit();
+        Game game = new JsonReader(FIXTURE).read();
+
+        harness.add("json.write", () -> write(new JsonWriter(scratch.getPath()), game));
+        harness.add("json.write.compact", () -> write(new JsonWriter(scratch.getPath(), true), game));
+        harness.add("json.read", () -> read(FIXTURE).getScore());
+        harness.add("json.roundTrip", () -> {
+            write(new JsonWriter(scratch.getPath()), game);
+            return read(scratch.getPath()).getScore();
+        });
+        harness.add("binary.roundTrip", () -> {
+            writeBinary(game, binaryScratch.getPath());
+            return readBinary(binaryScratch.getPath()).getScore();
+        });
+    }
+
+    // EFFECTS: writes game to destination in the binary format and returns the size of the file
+    private static long writeBinary(Game game, String destination) {
+        try {
+            BinaryWriter writer = new BinaryWriter(destination);
+            writer.open();
+            writer.write(game);
+            writer.close();
+            return new File(destination).length();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // EFFECTS: reads the game stored in source in the binary format
+    private static Game readBinary(String source) {
+        try {
+            return new BinaryReader(source).read();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // EFFECTS: writes game with writer and returns the number of saves made with writer
+    private static long write(JsonWriter writer, Game game) {
+        try {
+            writer.open();
+            writer.write(game);
+            writer.close();
+            return 1;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // EFFECTS: reads the game stored in source
+    private static Game read(String source) {
+        try {
+            return new JsonReader(source).read();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package bot;
+
+import model.Board;
+import model.Zobrist;
+
+import static model.Game.BOARD_HEIGHT;
+import static model.Game.BOARD_WIDTH;
+
+/**
+ * Represents an immutable board as seen by the bot: one occupancy mask per row, without colours.
+ * Placing a piece never changes a state; it returns a new one that shares nothing but is only one
+ * small array, so a search can keep thousands of states alive across threads without copying grids.
+ * Each state carries the same Zobrist hash as a Board with the same tiles filled
+ */
+public final class BoardState {
+    public static final int FULL_ROW = Board.FULL_ROW;
+
+    private final int[] rows;
+    private final long hash;
+    private final int linesCleared;
+
+    // EFFECTS: initializes a state with the given rows and hash, reached by clearing linesCleared lines
+    private BoardState(int[] rows, long hash, int linesCleared) {
+        this.rows = rows;
+        this.hash = hash;
+        this.linesCleared = linesCleared;
+    }
+
+    // EFFECTS: returns the state of board
+    public static BoardState of(Board board) {
+        int[] rows = new int[BOARD_HEIGHT];
+        for (int y = 0; y < BOARD_HEIGHT; y++) {
+            rows[y] = board.getRow(y);
+        }
+        return new BoardState(rows, board.getHash(), 0);
+    }
+
+    // REQUIRES: rows.length == BOARD_HEIGHT
+    // EFFECTS: returns the state with a copy of the given row masks
+    public static BoardState of(int[] rows) {
+        return new BoardState(rows.clone(), Zobrist.rows(rows, 0, BOARD_HEIGHT - 1), 0);
+    }
+
+    // EFFECTS: returns true if (x, y) is outside the walls of the board or is already occupied
+    public boolean isBlocked(int x, int y) {
+        return isBlocked(rows, x, y);
+    }
+
+    // REQUIRES: offsets holds the (x, y) offsets of four tiles from the centre tile
+    // EFFECTS: returns true if every tile fits when the centre tile is at (x, y)
+    public boolean fits(int[] offsets, int x, int y) {
+        return fits(rows, offsets, x, y);
+    }
+
+    // REQUIRES: fits(offsets, x, y)
+    // EFFECTS: returns the lowest row the centre tile reaches when the piece is dropped from (x, y)
+    public int dropRow(int[] offsets, int x, int y) {
+        return dropRow(rows, offsets, x, y);
+    }
+
+    // REQUIRES: fits(offsets, x, y)
+    // EFFECTS: returns the state after locking the piece with its centre tile at (x, y) and clearing
+    //          the lines it completes; only the hashes of the rows that moved are recomputed
+    public BoardState place(int[] offsets, int x, int y) {
+        int[] placed = rows.clone();
+        long placedHash = hash;
+        int bottom = -1;
+        for (int i = 0; i < 8; i += 2) {
+            int tx = x + offsets[i];
+            int ty = y + offsets[i + 1];
+            placed[ty] |= 1 << tx;
+            placedHash ^= Zobrist.tile(tx, ty);
+            if (placed[ty] == FULL_ROW) {
+                bottom = Math.max(bottom, ty);
+            }
+        }
+        if (bottom < 0) {
+            return new BoardState(placed, placedHash, 0);
+        }
+
+        placedHash ^= Zobrist.rows(placed, 0, bottom);
+        int cleared = compact(placed, bottom);
+        placedHash ^= Zobrist.rows(placed, 0, bottom);
+
+        return new BoardState(placed, placedHash, cleared);
+    }
+
+    // EFFECTS: returns the occupancy mask of row y
+    public int getRow(int y) {
+        return rows[y];
+    }
+
+    // EFFECTS: returns the row masks themselves, which must not be changed
+    int[] rows() {
+        return rows;
+    }
+
+    // EFFECTS: returns the Zobrist hash of which tiles are filled
+    public long getHash() {
+        return hash;
+    }
+
+    // EFFECTS: returns the number of lines cleared by the placement that produced this state
+    public int getLinesCleared() {
+        return linesCleared;
+    }
+
+    // MODIFIES: heights
+    // EFFECTS: fills heights with the height of each column, 0 for an empty column
+    public void columnHeights(int[] heights) {
+        columnHeights(rows, heights);
+    }
+
+    // EFFECTS: returns the number of empty tiles that have a filled tile somewhere above them
+    public int countHoles() {
+        return countHoles(rows);
+    }
+
+    // The methods below work on bare row masks, so that a caller can reuse its own arrays instead of
+    // allocating a state for every placement
+
+    // EFFECTS: returns true if (x, y) is outside the walls of the board or is filled in rows
+    static boolean isBlocked(int[] rows, int x, int y) {
+        if (x < 0 || x >= BOARD_WIDTH || y < 0 || y >= BOARD_HEIGHT) {
+            return true;
+        }
+        return (rows[y] & (1 << x)) != 0;
+    }
+
+    // EFFECTS: returns true if every tile with the given offsets fits in rows when the centre tile is at (x, y)
+    static boolean fits(int[] rows, int[] offsets, int x, int y) {
+        for (int i = 0; i < 8; i += 2) {
+            if (isBlocked(rows, x + offsets[i], y + offsets[i + 1])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // REQUIRES: fits(rows, offsets, x, y)
+    // EFFECTS: returns the lowest row the centre tile reaches when the piece is dropped from (x, y)
+    static int dropRow(int[] rows, int[] offsets, int x, int y) {
+        while (fits(rows, offsets, x, y + 1)) {
+            y++;
+        }
+        return y;
+    }
+
+    // REQUIRES: fits(rows, offsets, x, y); out.length == BOARD_HEIGHT, and out may be rows itself
+    // MODIFIES: out
+    // EFFECTS: fills out with rows after locking the piece with its centre tile at (x, y) and clearing the
+    //          lines it completes; returns the number of lines cleared
+    static int placeInto(int[] rows, int[] offsets, int x, int y, int[] out) {
+        if (out != rows) {
+            System.arraycopy(rows, 0, out, 0, BOARD_HEIGHT);
+        }
+        int bottom = -1;
+        for (int i = 0; i < 8; i += 2) {
+            int ty = y + offsets[i + 1];
+            out[ty] |= 1 << (x + offsets[i]);
+            if (out[ty] == FULL_ROW) {
+                bottom = Math.max(bottom, ty);
+            }
+        }
+        return bottom < 0 ? 0 : compact(out, bottom);
+    }
+
+    // MODIFIES: rows
+    // EFFECTS: removes the full rows at or above bottom, moving the rows above down; returns how many
+    private static int compact(int[] rows, int bottom) {
+        int cleared = 0;
+        int to = bottom;
+        for (int from = bottom; from >= 0; from--) {
+            if (rows[from] == FULL_ROW) {
+                cleared++;
+            } else {
+                rows[to--] = rows[from];
+            }
+        }
+        while (to >= 0) {
+            rows[to--] = 0;
+        }
+        return cleared;
+    }
+
+    // MODIFIES: heights
+    // EFFECTS: fills heights with the height of each column of rows, 0 for an empty column
+    static void columnHeights(int[] rows, int[] heights) {
+        int seen = 0;
+        for (int y = 0; y < BOARD_HEIGHT && seen != FULL_ROW; y++) {
+            int top = rows[y] & ~seen;
+            while (top != 0) {
+                heights[Integer.numberOfTrailingZeros(top)] = BOARD_HEIGHT - y;
+                top &= top - 1;
+            }
+            seen |= rows[y];
+        }
+        for (int x = 0; x < BOARD_WIDTH; x++) {
+            if ((seen & (1 << x)) == 0) {
+                heights[x] = 0;
+            }
+        }
+    }
+
+    // EFFECTS: returns the number of empty tiles in rows that have a filled tile somewhere above them
+    static int countHoles(int[] rows) {
+        int covered = 0;
+        int holes = 0;
+        for (int y = 0; y < BOARD_HEIGHT; y++) {
+            holes += Integer.bitCount(covered & ~rows[y]);
+            covered |= rows[y];
+        }
+        return holes;
+    }
+}
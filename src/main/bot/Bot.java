@@ -0,0 +1,42 @@
+package bot;
+
+import model.Block;
+import model.Game;
+import model.Moves;
+
+/**
+ * Represents a bot that plays one game, for load generation and attract mode. Each time a new block
+ * spawns, it searches for the best placement and queues the moves that get the block there; the game
+ * applies them over the next ticks as if a player had pressed the keys
+ */
+public class Bot {
+    private final Game game;
+    private final PlacementSearch search;
+    private Block planned;
+
+    // EFFECTS: initializes a bot that plays game, choosing placements with search
+    public Bot(Game game, PlacementSearch search) {
+        this.game = game;
+        this.search = search;
+    }
+
+    // MODIFIES: this, game
+    // EFFECTS: if the current block has not been planned for yet, queues the moves to its best placement;
+    //          returns the placement, or null if nothing was planned. Must be called from the thread that
+    //          ticks the game, before the tick
+    public Placement act() {
+        Block block = game.getCurBlock();
+        if (game.isEnded() || block == planned) {
+            return null;
+        }
+
+        planned = block;
+        Placement placement = search.search(game);
+        if (placement != null) {
+            for (Moves move : placement.getMoves()) {
+                game.input(move);
+            }
+        }
+        return placement;
+    }
+}
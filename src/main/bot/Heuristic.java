@@ -0,0 +1,91 @@
+package bot;
+
+import static model.Game.BOARD_WIDTH;
+
+/**
+ * Represents the weights the bot scores a board with: the sum of the column heights, the number of holes,
+ * the bumpiness (the sum of the height differences between neighbouring columns) and the number of lines
+ * cleared on the way. Higher scores are better, so the first three weights are normally negative
+ */
+public final class Heuristic {
+    public static final Heuristic DEFAULT = new Heuristic(-0.510066, 0.760666, -0.35663, -0.184483);
+    public static final int NUM_WEIGHTS = 4;
+
+    private final double height;
+    private final double lines;
+    private final double holes;
+    private final double bumpiness;
+
+    // EFFECTS: initializes a heuristic with the given weights
+    public Heuristic(double height, double lines, double holes, double bumpiness) {
+        this.height = height;
+        this.lines = lines;
+        this.holes = holes;
+        this.bumpiness = bumpiness;
+    }
+
+    // REQUIRES: weights.length == NUM_WEIGHTS
+    // EFFECTS: initializes a heuristic with the weights in the order returned by toArray
+    public Heuristic(double[] weights) {
+        this(weights[0], weights[1], weights[2], weights[3]);
+    }
+
+    // EFFECTS: returns the weights as an array: height, lines, holes, bumpiness
+    public double[] toArray() {
+        return new double[]{height, lines, holes, bumpiness};
+    }
+
+    // EFFECTS: returns the score of the board in state, not counting any lines cleared
+    public double evaluate(BoardState state) {
+        int[] heights = new int[BOARD_WIDTH];
+        state.columnHeights(heights);
+        return score(heights, state.countHoles());
+    }
+
+    // REQUIRES: heights.length == BOARD_WIDTH
+    // MODIFIES: heights
+    // EFFECTS: returns the score of a board with the given row masks, not counting any lines cleared,
+    //          using heights as scratch space
+    double evaluate(int[] rows, int[] heights) {
+        BoardState.columnHeights(rows, heights);
+        return score(heights, BoardState.countHoles(rows));
+    }
+
+    // EFFECTS: returns the score of a board with the given column heights and number of holes
+    private double score(int[] heights, int numHoles) {
+        int total = heights[0];
+        int bumps = 0;
+        for (int x = 1; x < BOARD_WIDTH; x++) {
+            total += heights[x];
+            bumps += Math.abs(heights[x] - heights[x - 1]);
+        }
+
+        return height * total + holes * numHoles + bumpiness * bumps;
+    }
+
+    // EFFECTS: returns the score for clearing the given number of lines
+    public double scoreLines(int cleared) {
+        return lines * cleared;
+    }
+
+    public double getHeightWeight() {
+        return height;
+    }
+
+    public double getLinesWeight() {
+        return lines;
+    }
+
+    public double getHolesWeight() {
+        return holes;
+    }
+
+    public double getBumpinessWeight() {
+        return bumpiness;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("height=%.4f lines=%.4f holes=%.4f bumpiness=%.4f", height, lines, holes, bumpiness);
+    }
+}
@@ -0,0 +1,66 @@
+package bot;
+
+import model.Moves;
+
+/**
+ * Represents where the bot will lock a piece: how many times it is turned clockwise from where it
+ * starts, the column and row its centre tile ends on, and the score of the best line of play through it.
+ * The piece gets there by turning in place, sliding sideways and then dropping
+ */
+public final class Placement {
+    private final int rotation;
+    private final int fromX;
+    private final int column;
+    private final int row;
+    private final double score;
+
+    // REQUIRES: 0 <= rotation < 4
+    // EFFECTS: initializes a placement of a piece turned rotation times clockwise and slid from column
+    //          fromX to column x, landing on row y
+    public Placement(int rotation, int fromX, int x, int y, double score) {
+        this.rotation = rotation;
+        this.fromX = fromX;
+        this.column = x;
+        this.row = y;
+        this.score = score;
+    }
+
+    // EFFECTS: returns the moves that take the piece to this placement and lock it there; three turns
+    //          clockwise are made as one turn counter-clockwise
+    public Moves[] getMoves() {
+        int turns = rotation == 3 ? 1 : rotation;
+        int slides = Math.abs(column - fromX);
+        Moves[] moves = new Moves[turns + slides + 1];
+
+        int i = 0;
+        for (int r = 0; r < turns; r++) {
+            moves[i++] = rotation == 3 ? Moves.CCW : Moves.CW;
+        }
+        for (int s = 0; s < slides; s++) {
+            moves[i++] = column < fromX ? Moves.Left : Moves.Right;
+        }
+        moves[i] = Moves.Drop;
+        return moves;
+    }
+
+    public int getRotation() {
+        return rotation;
+    }
+
+    public int getX() {
+        return column;
+    }
+
+    public int getY() {
+        return row;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    // EFFECTS: returns this placement with the given score
+    Placement withScore(double score) {
+        return new Placement(rotation, fromX, column, row, score);
+    }
+}
@@ -0,0 +1,330 @@
+package bot;
+
+import model.Block;
+import model.Game;
+import model.Position;
+import model.Tetromino;
+import model.Zobrist;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Represents a search for the best placement of the current piece. Every placement the piece can reach
+ * by turning, sliding and dropping is scored with a heuristic; with lookahead, the pieces in the preview
+ * are placed after it and a placement is scored by the best line of play that follows it. Below the
+ * first piece only the beamWidth most promising placements are followed. The placements of the first
+ * piece are searched in parallel on a fork/join pool, and deeper levels fork again while enough of the
+ * tree remains below them. With a transposition table, the result of each level is cached under the hash
+ * of its board and the pieces still to place, so positions reached by more than one line of play, or
+ * seen again by a later search, are only searched once
+ */
+public class PlacementSearch {
+    public static final int MAX_LOOKAHEAD = Game.PREVIEW_SIZE;
+    public static final int DEFAULT_BEAM_WIDTH = 8;
+
+    private static final Tetromino[] TETROMINOS = Tetromino.values();
+    // tile offsets of each tetromino as it spawns, indexed by ordinal
+    private static final int[][] SPAWN_OFFSETS = new int[TETROMINOS.length][];
+    // where the centre tile of every new block starts
+    static final int SPAWN_X = new Block(Tetromino.LineShape).getCentrePosOnBoard().getX();
+    static final int SPAWN_Y = new Block(Tetromino.LineShape).getCentrePosOnBoard().getY();
+
+    static {
+        for (Tetromino t : TETROMINOS) {
+            SPAWN_OFFSETS[t.ordinal()] = offsetsOf(new Block(t).getRelativePos());
+        }
+    }
+
+    private final Heuristic heuristic;
+    private final int lookahead;
+    private final int beamWidth;
+    private final ForkJoinPool pool;
+    private final TranspositionTable table;
+
+    // EFFECTS: initializes a search with the default heuristic and no lookahead, on the common pool
+    public PlacementSearch() {
+        this(Heuristic.DEFAULT, 0, DEFAULT_BEAM_WIDTH, ForkJoinPool.commonPool());
+    }
+
+    // REQUIRES: 0 <= lookahead <= MAX_LOOKAHEAD, beamWidth > 0
+    // EFFECTS: initializes a search that scores boards with heuristic and places lookahead pieces from
+    //          the preview after the current one, following beamWidth placements of each, on pool
+    public PlacementSearch(Heuristic heuristic, int lookahead, int beamWidth, ForkJoinPool pool) {
+        this(heuristic, lookahead, beamWidth, pool, null);
+    }
+
+    // REQUIRES: 0 <= lookahead <= MAX_LOOKAHEAD, beamWidth > 0; table is null or only used by searches
+    //           with the same heuristic and beamWidth, since its results depend on both
+    // EFFECTS: initializes a search as above that caches the results of each level in table, if not null
+    public PlacementSearch(Heuristic heuristic, int lookahead, int beamWidth, ForkJoinPool pool,
+                           TranspositionTable table) {
+        this.heuristic = heuristic;
+        this.lookahead = lookahead;
+        this.beamWidth = beamWidth;
+        this.pool = pool;
+        this.table = table;
+    }
+
+    // EFFECTS: returns the best placement of game's current block from where it is now, or null if it
+    //          cannot be placed anywhere
+    public Placement search(Game game) {
+        Block block = game.getCurBlock();
+        Tetromino[] next = new Tetromino[lookahead];
+        for (int i = 0; i < lookahead; i++) {
+            next[i] = game.getPreview(i);
+        }
+
+        Position centre = block.getCentrePosOnBoard();
+        return search(BoardState.of(game.getBoard()), block.getShape(), offsetsOf(block.getRelativePos()),
+                centre.getX(), centre.getY(), next);
+    }
+
+    // REQUIRES: next.length <= MAX_LOOKAHEAD
+    // EFFECTS: returns the best placement of a piece of the given shape whose tiles have the given offsets
+    //          from its centre tile at (x, y), followed by the pieces in next, or null if it cannot be
+    //          placed anywhere
+    public Placement search(BoardState state, Tetromino shape, int[] offsets, int x, int y, Tetromino[] next) {
+        List<Candidate> candidates = enumerate(state, shape, offsets, x, y);
+        if (candidates.isEmpty()) {
+            return null;
+        }
+
+        List<Level> children = new ArrayList<>(candidates.size());
+        if (next.length > 0) {
+            for (Candidate c : candidates) {
+                children.add(new Level(c.state, next, 0));
+            }
+            pool.invoke(new Fan(children));
+        }
+
+        Placement best = null;
+        for (int i = 0; i < candidates.size(); i++) {
+            Candidate c = candidates.get(i);
+            double score = heuristic.scoreLines(c.state.getLinesCleared())
+                    + (next.length > 0 ? children.get(i).join() : heuristic.evaluate(c.state));
+            if (best == null || score > best.getScore()) {
+                best = c.placement.withScore(score);
+            }
+        }
+        return best;
+    }
+
+    // EFFECTS: returns every distinct placement of a piece of the given shape whose tiles have the given
+    //          offsets from its centre tile at (x, y), reached by turning in place, then sliding, then dropping
+    static List<Candidate> enumerate(BoardState state, Tetromino shape, int[] offsets, int x, int y) {
+        List<Candidate> candidates = new ArrayList<>(40);
+        long[] landed = new long[48];
+        int rotations = shape == Tetromino.SquareShape ? 1 : 4;
+
+        int[][] turned = turns(offsets);
+        for (int r = 0; r < rotations; r++) {
+            if (!state.fits(turned[r], x, y) || r == 2 && !state.fits(turned[1], x, y)) {
+                continue;
+            }
+            for (int dir = -1; dir <= 1; dir += 2) {
+                for (int tx = dir < 0 ? x : x + 1; state.fits(turned[r], tx, y); tx += dir) {
+                    int ty = state.dropRow(turned[r], tx, y);
+                    long key = keyOf(turned[r], tx, ty);
+                    if (!contains(landed, candidates.size(), key)) {
+                        landed[candidates.size()] = key;
+                        candidates.add(new Candidate(new Placement(r, x, tx, ty, 0),
+                                state.place(turned[r], tx, ty)));
+                    }
+                }
+            }
+        }
+        return candidates;
+    }
+
+    // EFFECTS: returns offsets turned clockwise 0, 1, 2 and 3 times, the last made as one counter-clockwise turn
+    static int[][] turns(int[] offsets) {
+        int[][] turned = new int[4][];
+        turned[0] = offsets;
+        turned[1] = rotateCW(offsets);
+        turned[2] = rotateCW(turned[1]);
+        turned[3] = rotateCCW(offsets);
+        return turned;
+    }
+
+    // EFFECTS: returns the offsets of positions as (x, y) pairs
+    static int[] offsetsOf(Position[] positions) {
+        int[] offsets = new int[8];
+        for (int i = 0; i < 4; i++) {
+            offsets[2 * i] = positions[i].getX();
+            offsets[2 * i + 1] = positions[i].getY();
+        }
+        return offsets;
+    }
+
+    // EFFECTS: returns the tile offsets of a piece of shape t as it spawns
+    static int[] spawnOffsets(Tetromino t) {
+        return SPAWN_OFFSETS[t.ordinal()];
+    }
+
+    // EFFECTS: returns offsets turned clockwise about the centre tile, as Block does
+    private static int[] rotateCW(int[] offsets) {
+        int[] turned = new int[8];
+        for (int i = 0; i < 8; i += 2) {
+            turned[i] = -offsets[i + 1];
+            turned[i + 1] = offsets[i];
+        }
+        return turned;
+    }
+
+    // EFFECTS: returns offsets turned counter-clockwise about the centre tile, as Block does
+    private static int[] rotateCCW(int[] offsets) {
+        int[] turned = new int[8];
+        for (int i = 0; i < 8; i += 2) {
+            turned[i] = offsets[i + 1];
+            turned[i + 1] = -offsets[i];
+        }
+        return turned;
+    }
+
+    // EFFECTS: returns a key that is the same for two placements exactly when they fill the same tiles
+    private static long keyOf(int[] offsets, int x, int y) {
+        int[] tiles = new int[4];
+        for (int i = 0; i < 4; i++) {
+            tiles[i] = (y + offsets[2 * i + 1]) * Game.BOARD_WIDTH + x + offsets[2 * i];
+        }
+        Arrays.sort(tiles);
+        return (long) tiles[0] << 48 | (long) tiles[1] << 32 | (long) tiles[2] << 16 | tiles[3];
+    }
+
+    // EFFECTS: returns true if key is among the first n keys
+    private static boolean contains(long[] keys, int n, long key) {
+        for (int i = 0; i < n; i++) {
+            if (keys[i] == key) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Represents a placement together with the state it leads to
+     */
+    static final class Candidate {
+        final Placement placement;
+        final BoardState state;
+        double score;
+
+        Candidate(Placement placement, BoardState state) {
+            this.placement = placement;
+            this.state = state;
+        }
+    }
+
+    /**
+     * Represents the task of finding the best line of play for the pieces from next[depth] on, starting
+     * from state; its result is the score of that line, or a very low score if the pieces cannot be placed
+     */
+    private final class Level extends RecursiveTask<Double> {
+        private static final long serialVersionUID = 1L;
+
+        private final BoardState state;
+        private final Tetromino[] next;
+        private final int depth;
+
+        Level(BoardState state, Tetromino[] next, int depth) {
+            this.state = state;
+            this.next = next;
+            this.depth = depth;
+        }
+
+        @Override
+        protected Double compute() {
+            if (table == null) {
+                return search();
+            }
+
+            long key = state.getHash();
+            for (int i = depth; i < next.length; i++) {
+                key ^= Zobrist.piece(i - depth, next[i]);
+            }
+            double cached = table.get(key, next.length - depth);
+            if (!Double.isNaN(cached)) {
+                return cached;
+            }
+
+            double result = search();
+            table.put(key, next.length - depth, result);
+            return result;
+        }
+
+        // EFFECTS: returns the score of the best line of play for the pieces from next[depth] on
+        private double search() {
+            Tetromino shape = next[depth];
+            List<Candidate> candidates = enumerate(state, shape, spawnOffsets(shape), SPAWN_X, SPAWN_Y);
+            if (candidates.isEmpty()) {
+                return -Double.MAX_VALUE;
+            }
+
+            for (Candidate c : candidates) {
+                c.score = heuristic.scoreLines(c.state.getLinesCleared()) + heuristic.evaluate(c.state);
+            }
+            if (depth == next.length - 1) {
+                return best(candidates);
+            }
+            return searchBeam(candidates);
+        }
+
+        // EFFECTS: returns the score of the best line of play that starts with one of the beamWidth best
+        //          candidates, searching the rest of the pieces from each of them as a child task
+        private double searchBeam(List<Candidate> candidates) {
+            candidates.sort((a, b) -> Double.compare(b.score, a.score));
+            int width = Math.min(beamWidth, candidates.size());
+            List<Level> children = new ArrayList<>(width);
+            for (int i = 0; i < width; i++) {
+                children.add(new Level(candidates.get(i).state, next, depth + 1));
+            }
+
+            if (next.length - depth > 2) {
+                invokeAll(children);
+            } else {
+                for (Level child : children) {
+                    child.invoke();
+                }
+            }
+
+            double best = -Double.MAX_VALUE;
+            for (int i = 0; i < width; i++) {
+                Candidate c = candidates.get(i);
+                best = Math.max(best, heuristic.scoreLines(c.state.getLinesCleared()) + children.get(i).join());
+            }
+            return best;
+        }
+
+        // EFFECTS: returns the highest score among candidates
+        private double best(List<Candidate> candidates) {
+            double best = -Double.MAX_VALUE;
+            for (Candidate c : candidates) {
+                best = Math.max(best, c.score);
+            }
+            return best;
+        }
+    }
+
+    /**
+     * Represents the task of running a list of tasks in parallel
+     */
+    private static final class Fan extends RecursiveTask<Void> {
+        private static final long serialVersionUID = 1L;
+
+        private final List<? extends RecursiveTask<?>> tasks;
+
+        Fan(List<? extends RecursiveTask<?>> tasks) {
+            this.tasks = tasks;
+        }
+
+        @Override
+        protected Void compute() {
+            invokeAll(tasks);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,320 @@
+package bot;
+
+import model.Block;
+import model.Game;
+import model.Position;
+import model.SplitMixRandom;
+import model.Tetromino;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static model.Game.BOARD_HEIGHT;
+import static model.Game.BOARD_WIDTH;
+
+/**
+ * Represents a Monte Carlo evaluator for the placements of the current block, for positions where the
+ * heuristic alone plays badly. Each placement is scored by many short rollouts from the board it leaves:
+ * the pieces in the preview and then random pieces are placed greedily by the heuristic, and the rollout
+ * is worth the lines it clears plus the heuristic score of where it ends. Rollouts run in rounds of one
+ * batch per placement on a work-stealing pool; each batch draws pieces from its own seeded PRNG and plays
+ * on its thread's reused buffers, so a rollout allocates nothing and a round's results do not depend on
+ * which thread ran what. The evaluator is anytime: a search can be run for any length of time, and its
+ * best placement so far can be taken at any point. A round cut short by the deadline is thrown away, so
+ * every placement is always compared over the same number of rollouts
+ */
+public class RolloutEvaluator {
+    public static final int DEFAULT_ROLLOUT_PIECES = 8;
+    public static final int DEFAULT_BATCH_SIZE = 16;
+    public static final double TOP_OUT_SCORE = -1000;
+
+    private static final Tetromino[] SHAPES = {Tetromino.LineShape, Tetromino.SquareShape, Tetromino.TShape,
+        Tetromino.LShape, Tetromino.MirroredLShape, Tetromino.ZShape, Tetromino.SShape};
+    // the four turns of each tetromino as it spawns, indexed by ordinal
+    private static final int[][][] TURNS = new int[Tetromino.values().length][][];
+
+    static {
+        for (Tetromino t : Tetromino.values()) {
+            TURNS[t.ordinal()] = PlacementSearch.turns(PlacementSearch.spawnOffsets(t));
+        }
+    }
+
+    private final Heuristic heuristic;
+    private final int rolloutPieces;
+    private final int batchSize;
+    private final ForkJoinPool pool;
+    private final long seed;
+    private final AtomicLong searches = new AtomicLong();
+    private final ThreadLocal<Buffers> buffers = ThreadLocal.withInitial(Buffers::new);
+
+    // EFFECTS: initializes an evaluator with the default heuristic, rollout length and batch size, on the
+    //          common pool
+    public RolloutEvaluator() {
+        this(Heuristic.DEFAULT, DEFAULT_ROLLOUT_PIECES, DEFAULT_BATCH_SIZE, ForkJoinPool.commonPool());
+    }
+
+    // REQUIRES: rolloutPieces > 0, batchSize > 0
+    // EFFECTS: initializes an evaluator whose rollouts place rolloutPieces pieces chosen by heuristic,
+    //          run batchSize at a time on pool, with random pieces seeded from the clock
+    public RolloutEvaluator(Heuristic heuristic, int rolloutPieces, int batchSize, ForkJoinPool pool) {
+        this(heuristic, rolloutPieces, batchSize, pool, System.nanoTime());
+    }
+
+    // REQUIRES: rolloutPieces > 0, batchSize > 0
+    // EFFECTS: initializes an evaluator whose rollouts place rolloutPieces pieces chosen by heuristic,
+    //          run batchSize at a time on pool; the random pieces of its searches are determined by seed
+    public RolloutEvaluator(Heuristic heuristic, int rolloutPieces, int batchSize, ForkJoinPool pool, long seed) {
+        this.heuristic = heuristic;
+        this.rolloutPieces = rolloutPieces;
+        this.batchSize = batchSize;
+        this.pool = pool;
+        this.seed = seed;
+    }
+
+    // EFFECTS: returns the best placement of game's current block found by rollouts in about budgetNanos,
+    //          or null if the block cannot be placed anywhere
+    public Placement evaluate(Game game, long budgetNanos) {
+        Search search = begin(game);
+        search.runFor(budgetNanos);
+        return search.best();
+    }
+
+    // EFFECTS: returns a search of the placements of game's current block, from a copy of the game's board
+    //          and preview; the game may carry on while the search runs
+    public Search begin(Game game) {
+        Block block = game.getCurBlock();
+        Position centre = block.getCentrePosOnBoard();
+        Tetromino[] preview = new Tetromino[Math.min(Game.PREVIEW_SIZE, rolloutPieces)];
+        for (int i = 0; i < preview.length; i++) {
+            preview[i] = game.getPreview(i);
+        }
+
+        return begin(BoardState.of(game.getBoard()), block.getShape(),
+                PlacementSearch.offsetsOf(block.getRelativePos()), centre.getX(), centre.getY(), preview);
+    }
+
+    // EFFECTS: returns a search of the placements of a piece of shape with the given tile offsets and centre
+    //          tile at (x, y) on state, where the first pieces of every rollout are those in preview
+    Search begin(BoardState state, Tetromino shape, int[] offsets, int x, int y, Tetromino[] preview) {
+        return new Search(PlacementSearch.enumerate(state, shape, offsets, x, y),
+                preview.length > rolloutPieces ? Arrays.copyOf(preview, rolloutPieces) : preview,
+                new SplitMixRandom(seed + searches.getAndIncrement()).nextLong());
+    }
+
+    /**
+     * Represents the rollouts run so far for the placements of one block. A search is run and read from
+     * one thread; the rollouts themselves run on the pool
+     */
+    public final class Search {
+        private final List<PlacementSearch.Candidate> candidates;
+        private final Tetromino[] preview;
+        private final double[] sums;
+        private final SplitMixRandom seeds;
+        private long rounds;
+        private long rollouts;
+
+        // EFFECTS: initializes a search of candidates with no rollouts, where the first pieces of every
+        //          rollout are those in preview and the rest are determined by seed
+        private Search(List<PlacementSearch.Candidate> candidates, Tetromino[] preview, long seed) {
+            this.candidates = candidates;
+            this.preview = preview;
+            this.sums = new double[candidates.size()];
+            this.seeds = new SplitMixRandom(seed);
+        }
+
+        // MODIFIES: this
+        // EFFECTS: runs rounds of rollouts, one batch per placement each round, until budgetNanos have passed;
+        //          a batch stops early at the deadline, so this returns soon after it, and the round it was in
+        //          is thrown away. Returns the number of rollouts kept
+        public long runFor(long budgetNanos) {
+            long deadline = System.nanoTime() + budgetNanos;
+            long before = rollouts;
+            while (!candidates.isEmpty() && System.nanoTime() - deadline < 0) {
+                runRound(deadline);
+            }
+            return rollouts - before;
+        }
+
+        // MODIFIES: this
+        // EFFECTS: runs exactly n whole rounds of rollouts, however long they take
+        void runRounds(int n) {
+            for (int i = 0; i < n && !candidates.isEmpty(); i++) {
+                runRound(System.nanoTime() + Long.MAX_VALUE / 2);
+            }
+        }
+
+        // MODIFIES: this
+        // EFFECTS: runs one batch of rollouts from every placement in parallel and adds their results,
+        //          unless a batch was stopped at the deadline
+        private void runRound(long deadline) {
+            List<Batch> batches = new ArrayList<>(candidates.size());
+            for (PlacementSearch.Candidate c : candidates) {
+                batches.add(new Batch(c.state.rows(), preview, seeds.nextLong(), deadline));
+            }
+            pool.invoke(new Round(batches));
+
+            for (Batch batch : batches) {
+                if (batch.count < batchSize) {
+                    return;
+                }
+            }
+            for (int i = 0; i < batches.size(); i++) {
+                sums[i] += batches.get(i).sum;
+            }
+            rounds++;
+            rollouts += (long) batchSize * batches.size();
+        }
+
+        // EFFECTS: returns the placement with the best mean rollout so far, plus the lines it clears itself;
+        //          before any whole round, the placement the heuristic scores best. Returns null if the block
+        //          cannot be placed anywhere
+        public Placement best() {
+            Placement best = null;
+            for (int i = 0; i < candidates.size(); i++) {
+                PlacementSearch.Candidate c = candidates.get(i);
+                double score = heuristic.scoreLines(c.state.getLinesCleared())
+                        + (rounds > 0 ? sums[i] / (rounds * batchSize) : heuristic.evaluate(c.state));
+                if (best == null || score > best.getScore()) {
+                    best = c.placement.withScore(score);
+                }
+            }
+            return best;
+        }
+
+        // EFFECTS: returns the number of rollouts run so far
+        public long getRollouts() {
+            return rollouts;
+        }
+
+        // EFFECTS: returns the number of placements being compared
+        public int getCandidateCount() {
+            return candidates.size();
+        }
+    }
+
+    // MODIFIES: b
+    // EFFECTS: plays one rollout from rows: the pieces in preview, then random ones, each placed where the
+    //          heuristic scores it best; returns the lines cleared plus the score of the final board, or
+    //          TOP_OUT_SCORE plus the lines cleared if a piece cannot spawn
+    private double rollout(int[] rows, Tetromino[] preview, Buffers b, SplitMixRandom random) {
+        System.arraycopy(rows, 0, b.rows, 0, BOARD_HEIGHT);
+        double total = 0;
+        for (int k = 0; k < rolloutPieces; k++) {
+            Tetromino shape = k < preview.length ? preview[k] : SHAPES[random.nextInt(SHAPES.length)];
+            int cleared = placeGreedily(b, shape);
+            if (cleared < 0) {
+                return total + TOP_OUT_SCORE;
+            }
+            total += heuristic.scoreLines(cleared);
+        }
+        return total + heuristic.evaluate(b.rows, b.heights);
+    }
+
+    // MODIFIES: b
+    // EFFECTS: places a new piece of shape on b.rows where the heuristic scores it best, and returns the
+    //          lines it clears, or -1 if it cannot spawn
+    private int placeGreedily(Buffers b, Tetromino shape) {
+        int[][] turned = TURNS[shape.ordinal()];
+        int x = PlacementSearch.SPAWN_X;
+        int y = PlacementSearch.SPAWN_Y;
+        if (!BoardState.fits(b.rows, turned[0], x, y)) {
+            return -1;
+        }
+
+        int rotations = shape == Tetromino.SquareShape ? 1 : 4;
+        b.bestScore = Double.NEGATIVE_INFINITY;
+        for (int r = 0; r < rotations; r++) {
+            if (BoardState.fits(b.rows, turned[r], x, y) && (r != 2 || BoardState.fits(b.rows, turned[1], x, y))) {
+                scanColumns(b, turned[r], r);
+            }
+        }
+        return BoardState.placeInto(b.rows, turned[b.bestRotation], b.bestX, b.bestY, b.rows);
+    }
+
+    // MODIFIES: b
+    // EFFECTS: scores dropping a piece with the given offsets, turned rotation times, in every column it can
+    //          slide to from where it spawns, and records the best in b if it beats what b holds
+    private void scanColumns(Buffers b, int[] offsets, int rotation) {
+        int x = PlacementSearch.SPAWN_X;
+        int y = PlacementSearch.SPAWN_Y;
+        for (int dir = -1; dir <= 1; dir += 2) {
+            for (int tx = dir < 0 ? x : x + 1; BoardState.fits(b.rows, offsets, tx, y); tx += dir) {
+                int ty = BoardState.dropRow(b.rows, offsets, tx, y);
+                int cleared = BoardState.placeInto(b.rows, offsets, tx, ty, b.scratch);
+                double score = heuristic.scoreLines(cleared) + heuristic.evaluate(b.scratch, b.heights);
+                if (score > b.bestScore) {
+                    b.bestScore = score;
+                    b.bestRotation = rotation;
+                    b.bestX = tx;
+                    b.bestY = ty;
+                }
+            }
+        }
+    }
+
+    /**
+     * Represents the arrays one thread plays its rollouts on, and the best placement of the piece being placed
+     */
+    private static final class Buffers {
+        private final int[] rows = new int[BOARD_HEIGHT];
+        private final int[] scratch = new int[BOARD_HEIGHT];
+        private final int[] heights = new int[BOARD_WIDTH];
+        private double bestScore;
+        private int bestRotation;
+        private int bestX;
+        private int bestY;
+    }
+
+    /**
+     * Represents a batch of rollouts from one placement, stopped early at the deadline
+     */
+    private final class Batch extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] rows;
+        private final Tetromino[] preview;
+        private final long seed;
+        private final long deadline;
+        private double sum;
+        private int count;
+
+        Batch(int[] rows, Tetromino[] preview, long seed, long deadline) {
+            this.rows = rows;
+            this.preview = preview;
+            this.seed = seed;
+            this.deadline = deadline;
+        }
+
+        @Override
+        protected void compute() {
+            Buffers b = buffers.get();
+            SplitMixRandom random = new SplitMixRandom(seed);
+            while (count < batchSize && System.nanoTime() - deadline < 0) {
+                sum += rollout(rows, preview, b, random);
+                count++;
+            }
+        }
+    }
+
+    /**
+     * Represents one round of batches, run in parallel
+     */
+    private static final class Round extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Batch> batches;
+
+        Round(List<Batch> batches) {
+            this.batches = batches;
+        }
+
+        @Override
+        protected void compute() {
+            invokeAll(batches);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package bot;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Represents a fixed-size cache of search results keyed by Zobrist hash, shared by every thread of a
+ * search without locks. Each entry is two longs in one array: the result's bits, and the key and depth
+ * XORed with those bits. A reader recomputes the key from both words, so an entry torn by two threads
+ * writing at once reads as a miss rather than a wrong result. Each key maps to a bucket of two entries:
+ * the first is only replaced by a result searched at least as deep, so the most expensive results stay
+ * longest, and the second always takes what the first turned away, so new positions still get cached
+ */
+public class TranspositionTable {
+    public static final int MIN_CAPACITY = 256;
+    public static final int MAX_DEPTH = 0xFF;
+
+    private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final long DEPTH_MASK = MAX_DEPTH;
+
+    private final long[] slots;
+    private final int mask;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    // REQUIRES: capacity is a power of 2 and at least MIN_CAPACITY
+    // EFFECTS: initializes an empty table of capacity entries; throws IllegalArgumentException otherwise
+    public TranspositionTable(int capacity) {
+        if (capacity < MIN_CAPACITY || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of 2 of at least " + MIN_CAPACITY);
+        }
+
+        slots = new long[2 * capacity];
+        mask = capacity / 2 - 1;
+    }
+
+    // REQUIRES: 0 <= depth <= MAX_DEPTH
+    // EFFECTS: returns the result stored for key at exactly the given depth, or NaN if there is none
+    public double get(long key, int depth) {
+        int bucket = index(key);
+        long tag = tag(key, depth);
+        for (int i = bucket; i < bucket + 4; i += 2) {
+            long value = (long) SLOTS.getOpaque(slots, i + 1);
+            if (((long) SLOTS.getOpaque(slots, i) ^ value) == tag) {
+                hits.increment();
+                return Double.longBitsToDouble(value);
+            }
+        }
+
+        misses.increment();
+        return Double.NaN;
+    }
+
+    // REQUIRES: 0 <= depth <= MAX_DEPTH
+    // MODIFIES: this
+    // EFFECTS: stores result for key at the given depth, in the first entry of its bucket unless that holds
+    //          a result searched deeper, otherwise in the second
+    public void put(long key, int depth, double result) {
+        int i = index(key);
+        long deepest = (long) SLOTS.getOpaque(slots, i) ^ (long) SLOTS.getOpaque(slots, i + 1);
+        if ((deepest & DEPTH_MASK) > depth) {
+            i += 2;
+        }
+
+        long value = Double.doubleToRawLongBits(result);
+        SLOTS.setOpaque(slots, i, tag(key, depth) ^ value);
+        SLOTS.setOpaque(slots, i + 1, value);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes every entry and resets the hit and miss counts; must not run during a search
+    public void clear() {
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = 0;
+        }
+        VarHandle.releaseFence();
+        hits.reset();
+        misses.reset();
+    }
+
+    // EFFECTS: returns the number of entries the table can hold
+    public int capacity() {
+        return slots.length / 2;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    // EFFECTS: returns the index of the first word of key's bucket
+    private int index(long key) {
+        return ((int) (key ^ key >>> 32) & mask) << 2;
+    }
+
+    // EFFECTS: returns key with its lowest bits replaced by depth, leaving 56 bits of the key to check
+    private static long tag(long key, int depth) {
+        return key & ~DEPTH_MASK | depth;
+    }
+}
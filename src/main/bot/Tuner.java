@@ -0,0 +1,406 @@
+package bot;
+
+import model.Game;
+import model.GeneratorType;
+import model.SplitMixRandom;
+import persistence.JsonPullParser;
+import persistence.JsonStreamWriter;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Represents a genetic algorithm that tunes the bot's heuristic weights. Each generation, every candidate
+ * plays the same set of seeded headless games (common random numbers), so candidates are compared on
+ * identical piece sequences rather than on their luck; the games of a generation are played in parallel
+ * across every core. The fittest candidates are kept and the rest are bred from them by tournament
+ * selection, fitness-weighted crossover and mutation. After each generation the population is written
+ * to a checkpoint, and a tuner started with an existing checkpoint carries on from it
+ */
+public class Tuner {
+    public static final String DEFAULT_CHECKPOINT = "./data/tuner.json";
+    private static final int DEFAULT_GENERATIONS = 20;
+    private static final int DEFAULT_POPULATION = 50;
+    private static final int DEFAULT_GAMES = 20;
+    private static final int DEFAULT_MAX_PIECES = 500;
+    private static final long DEFAULT_SEED = 210;
+    private static final double ELITE_FRACTION = 0.1;
+    private static final int TOURNAMENT_SIZE = 4;
+    private static final double MUTATION_RATE = 0.2;
+    private static final double MUTATION_STEP = 0.2;
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final int populationSize;
+    private final int gamesPerCandidate;
+    private final int maxPieces;
+    private final long seed;
+    private final String checkpoint;
+    private final ForkJoinPool pool;
+
+    private int generation;
+    private double[][] population;
+    private double[] bestWeights;
+    private double bestFitness = Double.NEGATIVE_INFINITY;
+    private long gamesPlayed;
+
+    // REQUIRES: populationSize >= 2, gamesPerCandidate > 0, maxPieces > 0
+    // EFFECTS: initializes a tuner of populationSize candidates that each play gamesPerCandidate games of at
+    //          most maxPieces pieces per generation, drawing everything random from seed, checkpointing to
+    //          checkpoint and playing on pool; if checkpoint exists, carries on from it
+    public Tuner(int populationSize, int gamesPerCandidate, int maxPieces, long seed, String checkpoint,
+                 ForkJoinPool pool) throws IOException {
+        this.populationSize = populationSize;
+        this.gamesPerCandidate = gamesPerCandidate;
+        this.maxPieces = maxPieces;
+        this.seed = seed;
+        this.checkpoint = checkpoint;
+        this.pool = pool;
+
+        if (!load()) {
+            population = new double[populationSize][];
+            SplitMixRandom random = new SplitMixRandom(seed);
+            for (int i = 0; i < populationSize; i++) {
+                population[i] = randomWeights(random);
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: runs the given number of generations, writing a checkpoint after each
+    public void run(int generations) throws IOException {
+        run(generations, null);
+    }
+
+    // MODIFIES: this, progress
+    // EFFECTS: runs the given number of generations, reporting each to progress unless it is null and
+    //          writing a checkpoint after it
+    public void run(int generations, PrintStream progress) throws IOException {
+        for (int i = 0; i < generations; i++) {
+            long start = System.nanoTime();
+            double[] fitness = evaluate(population, gameSeeds(generation));
+            Integer[] ranked = rank(fitness);
+
+            if (fitness[ranked[0]] > bestFitness) {
+                bestFitness = fitness[ranked[0]];
+                bestWeights = population[ranked[0]].clone();
+            }
+            if (progress != null) {
+                report(progress, fitness, ranked, System.nanoTime() - start);
+            }
+
+            population = breed(fitness, ranked, new SplitMixRandom(seed ^ (generation + 1) * 0x9E3779B97F4A7C15L));
+            generation++;
+            save();
+        }
+    }
+
+    // EFFECTS: returns the number of lines cleared by a bot using heuristic in the game seeded with gameSeed,
+    //          which ends when the bot tops out or has placed maxPieces pieces
+    public static int play(Heuristic heuristic, long gameSeed, int maxPieces) {
+        Game game = new Game(gameSeed, GeneratorType.Bag);
+        game.setInputsPerTick(Game.INPUT_CAPACITY);
+        Bot bot = new Bot(game, new PlacementSearch(heuristic, 0, PlacementSearch.DEFAULT_BEAM_WIDTH,
+                ForkJoinPool.commonPool()));
+
+        while (!game.isEnded() && game.getPiecesLocked() < maxPieces) {
+            bot.act();
+            game.tick();
+        }
+        return game.getScore();
+    }
+
+    // EFFECTS: returns the mean lines cleared by each candidate over the games with the given seeds,
+    //          playing every game of every candidate in parallel on the pool
+    private double[] evaluate(double[][] candidates, long[] seeds) {
+        int[] lines = new int[candidates.length * seeds.length];
+        Heuristic[] heuristics = new Heuristic[candidates.length];
+        for (int i = 0; i < candidates.length; i++) {
+            heuristics[i] = new Heuristic(candidates[i]);
+        }
+
+        try {
+            pool.submit(() -> IntStream.range(0, lines.length).parallel().forEach(game ->
+                    lines[game] = play(heuristics[game / seeds.length], seeds[game % seeds.length], maxPieces)))
+                    .get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Tuning interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A tuning game failed", e.getCause());
+        }
+        gamesPlayed += lines.length;
+
+        double[] fitness = new double[candidates.length];
+        for (int game = 0; game < lines.length; game++) {
+            fitness[game / seeds.length] += (double) lines[game] / seeds.length;
+        }
+        return fitness;
+    }
+
+    // EFFECTS: returns the seeds of the games played by every candidate in generation g
+    private long[] gameSeeds(int g) {
+        SplitMixRandom random = new SplitMixRandom(seed + g);
+        long[] seeds = new long[gamesPerCandidate];
+        for (int i = 0; i < seeds.length; i++) {
+            seeds[i] = random.nextLong();
+        }
+        return seeds;
+    }
+
+    // EFFECTS: returns the indices of the candidates from fittest to least fit
+    private Integer[] rank(double[] fitness) {
+        Integer[] ranked = new Integer[fitness.length];
+        for (int i = 0; i < ranked.length; i++) {
+            ranked[i] = i;
+        }
+        Arrays.sort(ranked, (a, b) -> Double.compare(fitness[b], fitness[a]));
+        return ranked;
+    }
+
+    // EFFECTS: returns the next population: the elite unchanged, then children of tournament winners
+    private double[][] breed(double[] fitness, Integer[] ranked, SplitMixRandom random) {
+        double[][] next = new double[populationSize][];
+        int elite = Math.max(1, (int) (populationSize * ELITE_FRACTION));
+        for (int i = 0; i < elite; i++) {
+            next[i] = population[ranked[i]];
+        }
+
+        for (int i = elite; i < populationSize; i++) {
+            int a = tournament(fitness, random);
+            int b = tournament(fitness, random);
+            double[] child = crossover(population[a], fitness[a], population[b], fitness[b]);
+            if (nextDouble(random) < MUTATION_RATE) {
+                child[random.nextInt(child.length)] += (nextDouble(random) * 2 - 1) * MUTATION_STEP;
+            }
+            next[i] = normalize(child);
+        }
+        return next;
+    }
+
+    // EFFECTS: returns the fittest of TOURNAMENT_SIZE candidates drawn at random
+    private int tournament(double[] fitness, SplitMixRandom random) {
+        int best = random.nextInt(populationSize);
+        for (int i = 1; i < TOURNAMENT_SIZE; i++) {
+            int other = random.nextInt(populationSize);
+            if (fitness[other] > fitness[best]) {
+                best = other;
+            }
+        }
+        return best;
+    }
+
+    // EFFECTS: returns the average of a and b, each weighted by its fitness
+    private static double[] crossover(double[] a, double fitnessA, double[] b, double fitnessB) {
+        double total = fitnessA + fitnessB;
+        double share = total > 0 ? fitnessA / total : 0.5;
+        double[] child = new double[a.length];
+        for (int i = 0; i < child.length; i++) {
+            child[i] = a[i] * share + b[i] * (1 - share);
+        }
+        return child;
+    }
+
+    // EFFECTS: returns weights with each drawn uniformly from [-1, 1], scaled to unit length
+    private static double[] randomWeights(SplitMixRandom random) {
+        double[] weights = new double[Heuristic.NUM_WEIGHTS];
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = nextDouble(random) * 2 - 1;
+        }
+        return normalize(weights);
+    }
+
+    // MODIFIES: weights
+    // EFFECTS: scales weights to unit length, since only their direction changes which placement is best
+    private static double[] normalize(double[] weights) {
+        double length = 0;
+        for (double w : weights) {
+            length += w * w;
+        }
+        length = Math.sqrt(length);
+        for (int i = 0; i < weights.length && length > 0; i++) {
+            weights[i] /= length;
+        }
+        return weights;
+    }
+
+    // EFFECTS: returns a number drawn uniformly from [0, 1)
+    private static double nextDouble(SplitMixRandom random) {
+        return (random.nextLong() >>> 11) * 0x1.0p-53;
+    }
+
+    // MODIFIES: progress
+    // EFFECTS: prints how the generation did and the best weights so far to progress
+    private void report(PrintStream progress, double[] fitness, Integer[] ranked, long nanos) {
+        double mean = Arrays.stream(fitness).average().orElse(0);
+        double gamesPerMinute = (double) populationSize * gamesPerCandidate / (nanos / 6e10);
+        progress.printf("generation %d: best %.2f, mean %.2f lines/game (%.0f games/min)%n",
+                generation, fitness[ranked[0]], mean, gamesPerMinute);
+        progress.printf("  best so far %.2f: %s%n", bestFitness, new Heuristic(bestWeights));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the generation, the best weights so far and the population to the checkpoint,
+    //          replacing the old checkpoint only once the new one is complete and forced to the disk
+    private void save() throws IOException {
+        Path temp = Paths.get(checkpoint + TEMP_SUFFIX);
+        try (FileOutputStream file = new FileOutputStream(temp.toFile());
+             Writer out = new BufferedWriter(new OutputStreamWriter(file, StandardCharsets.UTF_8))) {
+            JsonStreamWriter json = new JsonStreamWriter(out, false);
+            writeCheckpoint(json);
+            json.flush();
+            file.getChannel().force(true);
+        }
+
+        try {
+            Files.move(temp, Paths.get(checkpoint), StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, Paths.get(checkpoint), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    // MODIFIES: json
+    // EFFECTS: writes the generation, the seed, the best weights so far and the population as an object
+    private void writeCheckpoint(JsonStreamWriter json) throws IOException {
+        json.beginObject();
+        json.name("generation").value(generation);
+        json.name("seed").value(seed);
+        json.name("bestFitness").value(bestFitness);
+        json.name("bestWeights");
+        writeWeights(json, bestWeights);
+        json.name("population").beginArray();
+        for (double[] weights : population) {
+            writeWeights(json, weights);
+        }
+        json.endArray();
+        json.endObject();
+    }
+
+    // MODIFIES: json
+    // EFFECTS: writes weights as an array of numbers
+    private static void writeWeights(JsonStreamWriter json, double[] weights) throws IOException {
+        json.beginArray();
+        for (double w : weights) {
+            json.value(w);
+        }
+        json.endArray();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: restores the tuner from the checkpoint and returns true, or returns false if there is none;
+    //          throws IOException if it cannot be read or was written for a different seed or population size
+    private boolean load() throws IOException {
+        Path path = Paths.get(checkpoint);
+        if (!Files.exists(path)) {
+            return false;
+        }
+
+        List<double[]> loaded = new ArrayList<>();
+        try (Reader in = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            JsonPullParser json = new JsonPullParser(in);
+            json.beginObject();
+            while (json.hasNext()) {
+                readMember(json, json.nextName(), loaded);
+            }
+            json.endObject();
+        }
+
+        if (loaded.size() != populationSize || bestWeights == null) {
+            throw new IOException("Checkpoint " + checkpoint + " does not hold a population of " + populationSize);
+        }
+        population = loaded.toArray(new double[0][]);
+        return true;
+    }
+
+    // MODIFIES: this, json, loaded
+    // EFFECTS: reads the value of the checkpoint member called name, adding the population to loaded and
+    //          skipping unknown members; throws IOException if it cannot be read or holds a different seed
+    private void readMember(JsonPullParser json, String name, List<double[]> loaded) throws IOException {
+        if (name.equals("seed")) {
+            long saved = json.nextLong();
+            if (saved != seed) {
+                throw new IOException("Checkpoint " + checkpoint + " was written for seed " + saved + ", not " + seed);
+            }
+        } else if (name.equals("generation")) {
+            generation = json.nextInt();
+        } else if (name.equals("bestFitness")) {
+            bestFitness = json.nextDouble();
+        } else if (name.equals("bestWeights")) {
+            bestWeights = readWeights(json);
+        } else if (name.equals("population")) {
+            json.beginArray();
+            while (json.hasNext()) {
+                loaded.add(readWeights(json));
+            }
+            json.endArray();
+        } else {
+            json.skipValue();
+        }
+    }
+
+    // MODIFIES: json
+    // EFFECTS: reads an array of NUM_WEIGHTS numbers
+    private static double[] readWeights(JsonPullParser json) throws IOException {
+        double[] weights = new double[Heuristic.NUM_WEIGHTS];
+        json.beginArray();
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = json.nextDouble();
+        }
+        json.endArray();
+        return weights;
+    }
+
+    public int getGeneration() {
+        return generation;
+    }
+
+    // EFFECTS: returns the best heuristic found so far, or null if no generation has been run
+    public Heuristic getBest() {
+        return bestWeights == null ? null : new Heuristic(bestWeights);
+    }
+
+    public double getBestFitness() {
+        return bestFitness;
+    }
+
+    public long getGamesPlayed() {
+        return gamesPlayed;
+    }
+
+    // EFFECTS: tunes the weights; usage: Tuner [generations] [population] [games] [seed] [checkpoint]
+    public static void main(String[] args) throws IOException {
+        int generations = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_GENERATIONS;
+        int population = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_POPULATION;
+        int games = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_GAMES;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : DEFAULT_SEED;
+        String path = args.length > 4 ? args[4] : DEFAULT_CHECKPOINT;
+
+        if (generations <= 0 || population < 2 || games <= 0) {
+            System.out.println("Usage: Tuner [generations > 0] [population > 1] [games > 0] [seed] [checkpoint]");
+            return;
+        }
+
+        Tuner tuner = new Tuner(population, games, DEFAULT_MAX_PIECES, seed, path, ForkJoinPool.commonPool());
+        if (tuner.getGeneration() > 0) {
+            System.out.println("Resuming from generation " + tuner.getGeneration() + " of " + path);
+        }
+        tuner.run(generations, System.out);
+        System.out.println("best weights: " + tuner.getBest());
+    }
+}
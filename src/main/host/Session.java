@@ -0,0 +1,140 @@
+package host;
+
+import model.Game;
+import model.GameSnapshot;
+import model.Moves;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Represents one game run by a SessionHost. The game belongs to the shard thread that ticks it;
+ * other threads send it inputs and read the snapshots it publishes. The game is only ticked when
+ * something happens to it, an input or a fall, and the idle ticks in between are skipped in one step
+ */
+public class Session extends TimerWheel.Entry {
+    private final long id;
+    private final Game game;
+    private final Shard shard;
+    private final AtomicBoolean woken = new AtomicBoolean();
+    private volatile boolean paused;
+    private volatile boolean closed;
+    private volatile GameSnapshot snapshot;
+    private volatile RuntimeException failure;
+    private long lastTick;
+    private boolean attached;
+
+    // EFFECTS: initializes session id of game, run on the given shard
+    Session(long id, Game game, Shard shard) {
+        this.id = id;
+        this.game = game;
+        this.shard = shard;
+        this.snapshot = new GameSnapshot(game, null);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: queues move to be applied on the next tick of the host; returns false if the move was
+    //          dropped because the game's input queue is full. Must only be called from one thread
+    //          at a time, since a game has a single input queue
+    public boolean input(Moves move) {
+        boolean queued = game.input(move, System.nanoTime());
+        wake();
+        return queued;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops ticking the game until it is resumed; the game does not fall while paused
+    public void pause() {
+        paused = true;
+        wake();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: resumes ticking the game, with its fall countdown where it was when paused
+    public void resume() {
+        paused = false;
+        wake();
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public boolean isPaused() {
+        return paused;
+    }
+
+    // EFFECTS: returns true if the game has ended, failed or the session was removed from its host
+    public boolean isClosed() {
+        return closed;
+    }
+
+    // EFFECTS: returns the exception that stopped the game, or null if it has not failed
+    public RuntimeException getFailure() {
+        return failure;
+    }
+
+    // EFFECTS: returns the snapshot published after the game was last ticked
+    public GameSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    // EFFECTS: returns the game; it must not be read or changed while the host is running
+    public Game getGame() {
+        return game;
+    }
+
+    long getLastTick() {
+        return lastTick;
+    }
+
+    void setLastTick(long tick) {
+        lastTick = tick;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: asks the shard to stop running the game
+    void close() {
+        closed = true;
+        wake();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: marks the session closed without waking it, for a game that ended on its own shard
+    void end() {
+        closed = true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: marks the session closed because ticking its game threw e
+    void fail(RuntimeException e) {
+        failure = e;
+        closed = true;
+    }
+
+    boolean isAttached() {
+        return attached;
+    }
+
+    void setAttached(boolean attached) {
+        this.attached = attached;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: publishes a snapshot of the game as it is now
+    void publish() {
+        snapshot = new GameSnapshot(game, snapshot);
+    }
+
+    // EFFECTS: returns true if the session was woken since this was last called, and clears it
+    boolean clearWoken() {
+        return woken.getAndSet(false);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: asks the shard to look at this session on its next tick, unless it already will
+    void wake() {
+        if (!woken.getAndSet(true)) {
+            shard.wake(this);
+        }
+    }
+}
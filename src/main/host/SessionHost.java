@@ -0,0 +1,106 @@
+package host;
+
+import metrics.Histogram;
+import model.Game;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Represents a host that runs many independent games in one process, for bots and remote players.
+ * Sessions are spread across a fixed number of shards, each a thread with its own timer wheel, so a
+ * game never needs a timer or thread of its own. A game is only ticked on the ticks where its block
+ * falls or an input arrives; the idle ticks in between are skipped in one step, and paused or ended
+ * games cost nothing at all
+ */
+public class SessionHost {
+    public static final int DEFAULT_TICK_MILLIS = 20;
+
+    private final Shard[] shards;
+    private final Histogram tickLag = new Histogram();
+    private final AtomicLong nextId = new AtomicLong();
+
+    // EFFECTS: initializes a host with one shard per available processor, ticking every DEFAULT_TICK_MILLIS
+    public SessionHost() {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_TICK_MILLIS);
+    }
+
+    // REQUIRES: numShards > 0, tickMillis > 0
+    // EFFECTS: initializes a host with numShards shards that tick every tickMillis milliseconds once started
+    public SessionHost(int numShards, int tickMillis) {
+        shards = new Shard[numShards];
+        for (int i = 0; i < numShards; i++) {
+            shards[i] = new Shard(TimeUnit.MILLISECONDS.toNanos(tickMillis), tickLag);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts a thread for every shard
+    public void start() {
+        for (int i = 0; i < shards.length; i++) {
+            shards[i].start("session-shard-" + i);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops every shard and waits for their current ticks to finish; sessions keep their state
+    //          and carry on if the host is started again
+    public void stop() {
+        for (Shard shard : shards) {
+            shard.stop();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds game to the host, on the next shard in turn, and returns its session; the game is
+    //          run from the next tick of its shard and must not be touched by other threads after this
+    public Session register(Game game) {
+        long id = nextId.getAndIncrement();
+        Session session = new Session(id, game, shards[(int) (id % shards.length)]);
+        session.wake();
+        return session;
+    }
+
+    // MODIFIES: this, session
+    // EFFECTS: stops running session's game from the next tick of its shard
+    public void remove(Session session) {
+        session.close();
+    }
+
+    // EFFECTS: returns the number of sessions being run, including paused ones; sessions registered or
+    //          removed since the last tick of their shard may not be counted yet
+    public int getSessionCount() {
+        int count = 0;
+        for (Shard shard : shards) {
+            count += shard.getSessionCount();
+        }
+        return count;
+    }
+
+    // EFFECTS: returns the number of sessions dropped because their games threw; see Session.getFailure
+    public int getFailureCount() {
+        int count = 0;
+        for (Shard shard : shards) {
+            count += shard.getFailureCount();
+        }
+        return count;
+    }
+
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    // EFFECTS: returns the distribution of how late each shard tick started, in nanoseconds
+    public Histogram getTickLag() {
+        return tickLag;
+    }
+
+    // REQUIRES: the host is stopped
+    // MODIFIES: this
+    // EFFECTS: runs one tick of every shard on the calling thread
+    void step() {
+        for (Shard shard : shards) {
+            shard.step();
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package host;
+
+import metrics.Histogram;
+import model.Game;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Represents one thread of a SessionHost and the sessions it runs. Each session waits on the shard's
+ * timer wheel for its next event, the tick its block falls or the tick after an input arrives, so a tick
+ * only costs as much as the sessions that have something to do on it. Paused and ended sessions are
+ * not on the wheel at all. Other threads never touch the wheel; they hand sessions to the shard through
+ * a queue that is drained at the start of each tick. A session whose game throws is closed with the
+ * failure and dropped, and the shard carries on with the rest
+ */
+class Shard implements Runnable {
+    private static final int MAX_CATCH_UP_TICKS = 25;
+
+    private final TimerWheel wheel = new TimerWheel(0);
+    private final Queue<Session> woken = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger sessions = new AtomicInteger();
+    private final AtomicInteger failures = new AtomicInteger();
+    private final long tickNanos;
+    private final Histogram tickLag;
+    private volatile boolean running;
+    private Thread thread;
+    private long tick;
+
+    // EFFECTS: initializes a shard that ticks every tickNanos once started, recording how late each
+    //          tick starts in tickLag
+    Shard(long tickNanos, Histogram tickLag) {
+        this.tickNanos = tickNanos;
+        this.tickLag = tickLag;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts running the shard on a new thread with the given name, unless it is already running
+    void start(String name) {
+        if (running) {
+            return;
+        }
+
+        running = true;
+        thread = new Thread(this, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops the shard and waits for the current tick to finish
+    void stop() {
+        running = false;
+        if (thread != null && thread != Thread.currentThread()) {
+            boolean interrupted = false;
+            while (thread.isAlive()) {
+                try {
+                    thread.join();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        thread = null;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: runs a tick on every deadline until stopped; if the thread falls more than
+    //          MAX_CATCH_UP_TICKS behind, the missed ticks are dropped and the schedule restarts.
+    //          The shard can be started again however the thread ends
+    @Override
+    public void run() {
+        try {
+            runTicks();
+        } finally {
+            running = false;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: runs a tick on every deadline until stopped, as run does
+    private void runTicks() {
+        long deadline = System.nanoTime() + tickNanos;
+
+        while (running) {
+            long now = System.nanoTime();
+            if (deadline - now > 0) {
+                LockSupport.parkNanos(deadline - now);
+                continue;
+            }
+
+            int ticks = 0;
+            while (running && deadline - now <= 0 && ticks < MAX_CATCH_UP_TICKS) {
+                tickLag.record(now - deadline);
+                step();
+                deadline += tickNanos;
+                ticks++;
+                now = System.nanoTime();
+            }
+            if (ticks == MAX_CATCH_UP_TICKS) {
+                deadline = System.nanoTime() + tickNanos;
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: runs one tick: takes in the sessions woken since the last tick, then ticks every session
+    //          whose next event is due
+    void step() {
+        tick = wheel.getNow();
+        Session session;
+        while ((session = woken.poll()) != null) {
+            session.clearWoken();
+            try {
+                update(session);
+            } catch (RuntimeException e) {
+                fail(session, e);
+            }
+        }
+
+        wheel.advance(entry -> fire((Session) entry));
+    }
+
+    // MODIFIES: session
+    // EFFECTS: asks the shard to look at session on its next tick; may be called from any thread
+    void wake(Session session) {
+        woken.add(session);
+    }
+
+    // EFFECTS: returns the number of sessions the shard is running, including paused ones
+    int getSessionCount() {
+        return sessions.get();
+    }
+
+    // EFFECTS: returns the number of sessions the shard has dropped because their games threw
+    int getFailureCount() {
+        return failures.get();
+    }
+
+    // MODIFIES: this, session
+    // EFFECTS: takes in a session that is new, closed, paused, resumed or has new input, and moves it on
+    //          or off the wheel to match
+    private void update(Session session) {
+        if (session.isClosed()) {
+            detach(session);
+            return;
+        }
+
+        if (!session.isAttached()) {
+            session.setAttached(true);
+            session.setLastTick(tick - 1);
+            sessions.incrementAndGet();
+        } else if (!session.isScheduled() && !session.isPaused()) {
+            session.setLastTick(tick - 1);
+        }
+
+        if (session.isPaused()) {
+            if (session.isScheduled()) {
+                wheel.cancel(session);
+                park(session);
+            }
+        } else {
+            wheel.schedule(session, nextEvent(session));
+        }
+    }
+
+    // MODIFIES: this, session
+    // EFFECTS: ticks the session's game, as tickGame does, unless the session is closed or paused;
+    //          a session that is closed or whose game throws is dropped
+    private void fire(Session session) {
+        try {
+            if (session.isClosed()) {
+                detach(session);
+            } else if (session.isPaused()) {
+                park(session);
+            } else {
+                tickGame(session);
+            }
+        } catch (RuntimeException e) {
+            fail(session, e);
+        }
+    }
+
+    // MODIFIES: this, session
+    // EFFECTS: skips the session's game to the tick its next event is due and ticks it, then schedules
+    //          its next event; a session that has ended is dropped
+    private void tickGame(Session session) {
+        Game game = session.getGame();
+        game.skipIdleTicks((int) (tick - session.getLastTick() - 1));
+        game.tick();
+        session.setLastTick(tick);
+        session.publish();
+
+        if (game.isEnded()) {
+            session.end();
+            detach(session);
+        } else {
+            wheel.schedule(session, nextEvent(session));
+        }
+    }
+
+    // MODIFIES: session
+    // EFFECTS: skips the game of a session taken off the wheel for a pause over the idle ticks it has
+    //          already waited, so that it resumes with the rest of its fall countdown
+    private void park(Session session) {
+        session.getGame().skipIdleTicks((int) (tick - session.getLastTick() - 1));
+        session.setLastTick(tick - 1);
+    }
+
+    // MODIFIES: this, session
+    // EFFECTS: closes session with the failure e thrown by its game and stops running it
+    private void fail(Session session, RuntimeException e) {
+        session.fail(e);
+        failures.incrementAndGet();
+        detach(session);
+    }
+
+    // MODIFIES: this, session
+    // EFFECTS: stops running session
+    private void detach(Session session) {
+        wheel.cancel(session);
+        if (session.isAttached()) {
+            session.setAttached(false);
+            sessions.decrementAndGet();
+        }
+    }
+
+    // EFFECTS: returns the tick the session's next event is due on: this tick if it has input waiting,
+    //          otherwise the tick its block falls
+    private long nextEvent(Session session) {
+        Game game = session.getGame();
+        if (game.hasPendingInput()) {
+            return tick;
+        }
+        return session.getLastTick() + game.getTicksUntilFall() + 1;
+    }
+}
@@ -0,0 +1,158 @@
+package host;
+
+import java.util.function.Consumer;
+
+/**
+ * Represents a hierarchical timer wheel that fires entries on the tick they are due. Each level has
+ * SLOTS slots of doubly-linked entries; level 0 covers the next SLOTS ticks one tick per slot, and each
+ * level above covers SLOTS times the span of the level below. When the wheel turns past the end of a
+ * span, the slot of the level above is cascaded down, so scheduling, cancelling and firing each take
+ * constant time however many entries are waiting. A wheel belongs to one thread and is not thread-safe
+ */
+public class TimerWheel {
+    public static final int SLOT_BITS = 6;
+    public static final int SLOTS = 1 << SLOT_BITS;
+    public static final int LEVELS = 4;
+    public static final long MAX_DELAY = (1L << (SLOT_BITS * LEVELS)) - 1;
+
+    private static final int SLOT_MASK = SLOTS - 1;
+
+    private final Entry[][] slots = new Entry[LEVELS][SLOTS];
+    private long now;
+    private int size;
+
+    /**
+     * Represents something that can be scheduled on a wheel. The links are kept in the entry itself,
+     * so scheduling an entry never allocates
+     */
+    public static class Entry {
+        private long deadline;
+        private int level = -1;
+        private int slot;
+        private Entry prev;
+        private Entry next;
+
+        // EFFECTS: returns true if the entry is waiting on a wheel
+        public boolean isScheduled() {
+            return level >= 0;
+        }
+
+        // EFFECTS: returns the tick the entry is due on, if it is scheduled
+        public long getDeadline() {
+            return deadline;
+        }
+    }
+
+    // EFFECTS: initializes an empty wheel whose next tick is start
+    public TimerWheel(long start) {
+        now = start;
+    }
+
+    // MODIFIES: this, entry
+    // EFFECTS: schedules entry to fire on the given tick, or on the next tick if that has already passed;
+    //          an entry that is already scheduled is moved
+    public void schedule(Entry entry, long deadline) {
+        cancel(entry);
+        entry.deadline = Math.max(deadline, now);
+        place(entry);
+        size++;
+    }
+
+    // MODIFIES: this, entry
+    // EFFECTS: removes entry from the wheel if it is scheduled
+    public void cancel(Entry entry) {
+        if (!entry.isScheduled()) {
+            return;
+        }
+
+        if (entry.prev == null) {
+            slots[entry.level][entry.slot] = entry.next;
+        } else {
+            entry.prev.next = entry.next;
+        }
+        if (entry.next != null) {
+            entry.next.prev = entry.prev;
+        }
+        unlink(entry);
+        size--;
+    }
+
+    // REQUIRES: expired does not cancel any entry other than the one it is given
+    // MODIFIES: this
+    // EFFECTS: turns the wheel by one tick and gives each entry due on that tick to expired, which may
+    //          schedule it again
+    public void advance(Consumer<Entry> expired) {
+        for (int level = LEVELS - 1; level > 0; level--) {
+            if ((now & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                cascade(level, (int) (now >>> (SLOT_BITS * level)) & SLOT_MASK);
+            }
+        }
+
+        int slot = (int) now & SLOT_MASK;
+        Entry entry = slots[0][slot];
+        slots[0][slot] = null;
+        now++;
+
+        while (entry != null) {
+            Entry next = entry.next;
+            unlink(entry);
+            size--;
+            expired.accept(entry);
+            entry = next;
+        }
+    }
+
+    // EFFECTS: returns the next tick the wheel will fire
+    public long getNow() {
+        return now;
+    }
+
+    // EFFECTS: returns the number of entries waiting on the wheel
+    public int size() {
+        return size;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: moves every entry in the given slot down to the level its deadline now falls in
+    private void cascade(int level, int slot) {
+        Entry entry = slots[level][slot];
+        slots[level][slot] = null;
+
+        while (entry != null) {
+            Entry next = entry.next;
+            unlink(entry);
+            place(entry);
+            entry = next;
+        }
+    }
+
+    // MODIFIES: this, entry
+    // EFFECTS: links entry into the slot for its deadline; deadlines beyond MAX_DELAY wait in the top
+    //          level and are placed again each time they are cascaded
+    private void place(Entry entry) {
+        long due = Math.min(entry.deadline, now + MAX_DELAY);
+        long delay = due - now;
+        int level = 0;
+        while (delay >= (1L << (SLOT_BITS * (level + 1)))) {
+            level++;
+        }
+
+        int slot = (int) (due >>> (SLOT_BITS * level)) & SLOT_MASK;
+        Entry head = slots[level][slot];
+        entry.level = level;
+        entry.slot = slot;
+        entry.next = head;
+        if (head != null) {
+            head.prev = entry;
+        }
+        slots[level][slot] = entry;
+    }
+
+    // MODIFIES: entry
+    // EFFECTS: marks entry as not scheduled
+    private static void unlink(Entry entry) {
+        entry.level = -1;
+        entry.prev = null;
+        entry.next = null;
+    }
+}
@@ -0,0 +1,34 @@
+package metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Represents a count that many threads can increase at once. Updates are striped across cells so
+ * that threads do not contend on one field, and summed only when the count is read
+ */
+public class Counter {
+    private final LongAdder count = new LongAdder();
+
+    // MODIFIES: this
+    // EFFECTS: adds one to the count
+    public void increment() {
+        count.increment();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds n to the count
+    public void add(long n) {
+        count.add(n);
+    }
+
+    // EFFECTS: returns the current count
+    public long get() {
+        return count.sum();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets the count back to zero
+    public void reset() {
+        count.reset();
+    }
+}
@@ -0,0 +1,115 @@
+package metrics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Represents the performance metrics of the game engine, persistence and rendering.
+ * There is only one set of metrics in the system (Singleton Design Pattern); hot paths should keep
+ * a reference to the counter or histogram they update. The metrics can also be published as an
+ * MXBean so that they can be watched from jconsole or any other JMX client
+ */
+public final class GameMetrics {
+    public static final String OBJECT_NAME = "tetris:type=GameMetrics";
+    public static final int MAX_LINES_PER_LOCK = 4;
+
+    private final Histogram tickNanos = new Histogram();
+    private final Counter piecesLocked = new Counter();
+    private final Counter[] linesCleared = new Counter[MAX_LINES_PER_LOCK + 1];
+    private final Histogram jsonWriteNanos = new Histogram();
+    private final Histogram jsonReadNanos = new Histogram();
+    private final Histogram paintNanos = new Histogram();
+    private final Counter droppedFrames = new Counter();
+    private final Counter unpaintedTicks = new Counter();
+
+    /**
+     * Holds the only GameMetrics in the system, created on first use (Singleton Design Pattern)
+     */
+    private static class Holder {
+        private static final GameMetrics THE_METRICS = new GameMetrics();
+    }
+
+    // EFFECTS: initializes every metric to zero
+    private GameMetrics() {
+        for (int i = 0; i < linesCleared.length; i++) {
+            linesCleared[i] = new Counter();
+        }
+    }
+
+    // EFFECTS: returns the only instance of the metrics
+    public static GameMetrics getInstance() {
+        return Holder.THE_METRICS;
+    }
+
+    // EFFECTS: registers the metrics with the platform MBean server under OBJECT_NAME, unless they
+    //          already are; returns false if they could not be registered
+    public synchronized boolean register() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(new GameMetricsBean(this), name);
+            }
+            return true;
+        } catch (JMException e) {
+            return false;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets every metric back to zero
+    public void reset() {
+        tickNanos.reset();
+        piecesLocked.reset();
+        for (Counter counter : linesCleared) {
+            counter.reset();
+        }
+        jsonWriteNanos.reset();
+        jsonReadNanos.reset();
+        paintNanos.reset();
+        droppedFrames.reset();
+        unpaintedTicks.reset();
+    }
+
+    // EFFECTS: returns the histogram of the time taken by each game tick
+    public Histogram getTickNanos() {
+        return tickNanos;
+    }
+
+    public Counter getPiecesLocked() {
+        return piecesLocked;
+    }
+
+    // REQUIRES: 1 <= lines <= MAX_LINES_PER_LOCK
+    // EFFECTS: returns the number of locks that cleared exactly the given number of lines
+    public Counter getLinesCleared(int lines) {
+        return linesCleared[lines];
+    }
+
+    // EFFECTS: returns the histogram of the time taken to write a game to JSON
+    public Histogram getJsonWriteNanos() {
+        return jsonWriteNanos;
+    }
+
+    // EFFECTS: returns the histogram of the time taken to read a game from JSON
+    public Histogram getJsonReadNanos() {
+        return jsonReadNanos;
+    }
+
+    // EFFECTS: returns the histogram of the time taken to paint a frame of the board
+    public Histogram getPaintNanos() {
+        return paintNanos;
+    }
+
+    // EFFECTS: returns the number of frame deadlines the active render loop missed
+    public Counter getDroppedFrames() {
+        return droppedFrames;
+    }
+
+    // EFFECTS: returns the number of simulation ticks that passive rendering never painted
+    public Counter getUnpaintedTicks() {
+        return unpaintedTicks;
+    }
+}
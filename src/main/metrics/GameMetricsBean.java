@@ -0,0 +1,128 @@
+package metrics;
+
+/**
+ * Represents the MXBean that publishes a GameMetrics over JMX.
+ * The tick rate is measured over the time since it was last read, so a client that polls it
+ * periodically sees the current rate rather than the average over the whole session
+ */
+public class GameMetricsBean implements GameMetricsMXBean {
+    private final GameMetrics metrics;
+    private long lastTicks;
+    private long lastNanos = System.nanoTime();
+
+    // EFFECTS: initializes a bean that publishes metrics
+    public GameMetricsBean(GameMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public long getTicks() {
+        return metrics.getTickNanos().getCount();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the number of ticks per second since this was last called
+    @Override
+    public synchronized double getTicksPerSecond() {
+        long ticks = getTicks();
+        long now = System.nanoTime();
+        double rate = (ticks - lastTicks) * 1e9 / Math.max(1, now - lastNanos);
+        lastTicks = ticks;
+        lastNanos = now;
+        return rate;
+    }
+
+    @Override
+    public double getTickMeanNanos() {
+        return metrics.getTickNanos().getMean();
+    }
+
+    @Override
+    public long getTickP50Nanos() {
+        return metrics.getTickNanos().getPercentile(0.5);
+    }
+
+    @Override
+    public long getTickP99Nanos() {
+        return metrics.getTickNanos().getPercentile(0.99);
+    }
+
+    @Override
+    public long getTickMaxNanos() {
+        return metrics.getTickNanos().getMax();
+    }
+
+    @Override
+    public long getPiecesLocked() {
+        return metrics.getPiecesLocked().get();
+    }
+
+    @Override
+    public long[] getLinesClearedBySize() {
+        long[] counts = new long[GameMetrics.MAX_LINES_PER_LOCK];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = metrics.getLinesCleared(i + 1).get();
+        }
+        return counts;
+    }
+
+    @Override
+    public long getJsonWrites() {
+        return metrics.getJsonWriteNanos().getCount();
+    }
+
+    @Override
+    public double getJsonWriteMeanNanos() {
+        return metrics.getJsonWriteNanos().getMean();
+    }
+
+    @Override
+    public long getJsonWriteP99Nanos() {
+        return metrics.getJsonWriteNanos().getPercentile(0.99);
+    }
+
+    @Override
+    public long getJsonReads() {
+        return metrics.getJsonReadNanos().getCount();
+    }
+
+    @Override
+    public double getJsonReadMeanNanos() {
+        return metrics.getJsonReadNanos().getMean();
+    }
+
+    @Override
+    public long getJsonReadP99Nanos() {
+        return metrics.getJsonReadNanos().getPercentile(0.99);
+    }
+
+    @Override
+    public long getPaints() {
+        return metrics.getPaintNanos().getCount();
+    }
+
+    @Override
+    public double getPaintMeanNanos() {
+        return metrics.getPaintNanos().getMean();
+    }
+
+    @Override
+    public long getPaintP99Nanos() {
+        return metrics.getPaintNanos().getPercentile(0.99);
+    }
+
+    @Override
+    public long getDroppedFrames() {
+        return metrics.getDroppedFrames().get();
+    }
+
+    @Override
+    public long getUnpaintedTicks() {
+        return metrics.getUnpaintedTicks().get();
+    }
+
+    @Override
+    public void reset() {
+        metrics.reset();
+    }
+}
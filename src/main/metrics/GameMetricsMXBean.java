@@ -0,0 +1,48 @@
+package metrics;
+
+/**
+ * The management interface through which GameMetrics are published over JMX.
+ * Durations are in nanoseconds; percentiles are upper bounds of histogram buckets
+ */
+public interface GameMetricsMXBean {
+    long getTicks();
+
+    double getTicksPerSecond();
+
+    double getTickMeanNanos();
+
+    long getTickP50Nanos();
+
+    long getTickP99Nanos();
+
+    long getTickMaxNanos();
+
+    long getPiecesLocked();
+
+    // returns the number of locks that cleared 1, 2, 3 and 4 lines, in that order
+    long[] getLinesClearedBySize();
+
+    long getJsonWrites();
+
+    double getJsonWriteMeanNanos();
+
+    long getJsonWriteP99Nanos();
+
+    long getJsonReads();
+
+    double getJsonReadMeanNanos();
+
+    long getJsonReadP99Nanos();
+
+    long getPaints();
+
+    double getPaintMeanNanos();
+
+    long getPaintP99Nanos();
+
+    long getDroppedFrames();
+
+    long getUnpaintedTicks();
+
+    void reset();
+}
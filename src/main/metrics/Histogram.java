@@ -0,0 +1,100 @@
+package metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Represents a distribution of durations in nanoseconds, recorded into fixed power-of-two buckets:
+ * bucket 0 counts values of 0, and bucket i > 0 counts values in [2^(i-1), 2^i). Recording a value is
+ * a bit scan plus one striped add, so it is safe to do from many threads on hot paths.
+ * Percentiles are estimated as the upper bound of the bucket they fall in
+ */
+public class Histogram {
+    public static final int BUCKETS = 64;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    // EFFECTS: initializes an empty histogram
+    public Histogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records one value of nanos; negative values are recorded as 0
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        buckets[bucketOf(value)].increment();
+        count.increment();
+        total.add(value);
+        max.accumulate(value);
+    }
+
+    // EFFECTS: returns the bucket that value falls in
+    static int bucketOf(long value) {
+        return Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(value));
+    }
+
+    // EFFECTS: returns the number of values recorded
+    public long getCount() {
+        return count.sum();
+    }
+
+    // EFFECTS: returns the mean of the values recorded, or 0 if there are none
+    public double getMean() {
+        long n = count.sum();
+        return n == 0 ? 0 : (double) total.sum() / n;
+    }
+
+    // EFFECTS: returns the largest value recorded, or 0 if there are none
+    public long getMax() {
+        return max.get();
+    }
+
+    // REQUIRES: 0 < fraction <= 1
+    // EFFECTS: returns an upper bound on the value below which the given fraction of values fall,
+    //          or 0 if there are none
+    public long getPercentile(double fraction) {
+        long[] counts = new long[BUCKETS];
+        long n = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets[i].sum();
+            n += counts[i];
+        }
+
+        long rank = (long) Math.ceil(fraction * n);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank && seen > 0) {
+                return Math.min(upperBound(i), getMax());
+            }
+        }
+        return 0;
+    }
+
+    // EFFECTS: returns the number of values recorded in bucket i
+    public long getBucketCount(int i) {
+        return buckets[i].sum();
+    }
+
+    // EFFECTS: returns the largest value that falls in bucket i
+    public static long upperBound(int i) {
+        return i == 0 ? 0 : i >= 63 ? Long.MAX_VALUE : (1L << i) - 1;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: discards every value recorded
+    public void reset() {
+        for (LongAdder bucket : buckets) {
+            bucket.reset();
+        }
+        count.reset();
+        total.reset();
+        max.reset();
+    }
+}
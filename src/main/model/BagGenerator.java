@@ -0,0 +1,43 @@
+package model;
+
+/**
+ * Represents a 7-bag piece generator: the seven shapes are shuffled into a bag and dealt out
+ * one at a time, and a new bag is shuffled once the current one is empty.
+ * Every shape therefore appears exactly once in each group of seven consecutive blocks
+ */
+public class BagGenerator implements PieceGenerator {
+    private static final Tetromino[] TETROMINOS = Tetromino.values();
+
+    private final SplitMixRandom random;
+    private final Tetromino[] bag = new Tetromino[TETROMINOS.length - 1];
+    private int next = bag.length;
+
+    // EFFECTS: initializes a generator whose sequence of shapes is determined by seed
+    public BagGenerator(long seed) {
+        random = new SplitMixRandom(seed);
+        System.arraycopy(TETROMINOS, 1, bag, 0, bag.length);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the next shape in the bag, refilling the bag when it is empty
+    @Override
+    public Tetromino next() {
+        if (next == bag.length) {
+            shuffle();
+            next = 0;
+        }
+
+        return bag[next++];
+    }
+
+    // MODIFIES: this
+    // EFFECTS: shuffles the bag in place (Fisher-Yates)
+    private void shuffle() {
+        for (int i = bag.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            Tetromino t = bag[i];
+            bag[i] = bag[j];
+            bag[j] = t;
+        }
+    }
+}
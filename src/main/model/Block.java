@@ -2,16 +2,33 @@ package model;
 
 import org.json.JSONArray;
 import org.json.JSONObject;
+import persistence.BinaryWritable;
+import persistence.JsonStreamWriter;
 import persistence.Writable;
 
-import java.util.Arrays;
-import java.util.List;
-import java.util.Random;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Represents the current falling block that the user controls
  */
-public class Block implements Writable {
+public class Block implements Writable, BinaryWritable {
+    private static final Tetromino[] TETROMINOS = Tetromino.values();
+    private static final Moves[] MOVES = Moves.values();
+
+    // relative (x, y) offsets of each tile from the centre tile, indexed by tetromino ordinal
+    private static final int[][] SHAPE_TABLE = {
+        {0, 0, 0, 0, 0, 0, 0, 0},
+        {-1, 0, 0, 0, 1, 0, 2, 0},
+        {0, 0, 1, 0, 0, -1, 1, -1},
+        {-1, 0, 0, 0, 1, 0, 0, -1},
+        {-1, 0, 0, 0, 1, 0, 1, -1},
+        {-1, -1, -1, 0, 0, 0, 1, 0},
+        {-1, 0, 0, 0, 0, -1, 1, -1},
+        {-1, -1, 0, -1, 0, 0, 1, 0}
+    };
+
     private Tetromino shape;
     private Position centrePosOnBoard;
     private Position[] relativePos = new Position[4];
@@ -20,7 +37,16 @@ public class Block implements Writable {
     // MODIFIES: this
     // EFFECT: creates a new block with a random shape, sets the centre tile to (4,1), sets nextMove to None
     public Block() {
-        setShape(randomTetromino());
+        this(randomTetromino());
+    }
+
+    // MODIFIES: this
+    // EFFECT: creates a new block with the given shape, sets the centre tile to (4,1), sets nextMove to None
+    public Block(Tetromino shape) {
+        for (int i = 0; i < 4; i++) {
+            relativePos[i] = new Position(0, 0);
+        }
+        setShape(shape);
         centrePosOnBoard = new Position(4,1);
         nextMove = Moves.None;
     }
@@ -59,36 +85,37 @@ public class Block implements Writable {
     public void setShape(Tetromino t) {
         this.shape = t;
 
-        Position[][] relPosTable = new Position[][]{
-            {new Position(0, 0), new Position(0, 0), new Position(0, 0), new Position(0, 0)},
-            {new Position(-1, 0), new Position(0, 0), new Position(1, 0), new Position(2, 0)},
-            {new Position(0, 0), new Position(1, 0), new Position(0, -1), new Position(1, -1)},
-            {new Position(-1, 0), new Position(0, 0), new Position(1, 0), new Position(0, -1)},
-            {new Position(-1, 0), new Position(0, 0), new Position(1, 0), new Position(1, -1)},
-            {new Position(-1, -1), new Position(-1, 0), new Position(0, 0), new Position(1, 0)},
-            {new Position(-1, 0), new Position(0, 0), new Position(0, -1), new Position(1, -1)},
-            {new Position(-1, -1), new Position(0, -1), new Position(0, 0), new Position(1, 0)}
-        };
-
+        int[] offsets = SHAPE_TABLE[shape.ordinal()];
         for (int i = 0; i < 4; i++) {
-            System.arraycopy(relPosTable[shape.ordinal()], 0, relativePos, 0, 4);
+            relativePos[i].setX(offsets[2 * i]);
+            relativePos[i].setY(offsets[2 * i + 1]);
         }
     }
 
     // EFFECTS: adds the coordinates of the centre tile to the coordinates of each
-    //          relative tile to get the actual coordinates of each tile on the board
+    //          relative tile to get the actual coordinates of each tile on the board;
+    //          allocates new positions, so the game loop uses getTileX and getTileY instead
     public Position[] getAllPosOnBoard() {
         Position[] allPosOnBoard = new Position[4];
         for (int i = 0; i < 4; i++) {
-            int newX = centrePosOnBoard.getX() + relativePos[i].getX();
-            int newY = centrePosOnBoard.getY() + relativePos[i].getY();
-            Position posOnBoard = new Position(newX, newY);
-            allPosOnBoard[i] = posOnBoard;
+            allPosOnBoard[i] = new Position(getTileX(i), getTileY(i));
         }
 
         return allPosOnBoard;
     }
 
+    // REQUIRES: 0 <= i < 4
+    // EFFECTS: returns the x coordinate of tile i on the board
+    public int getTileX(int i) {
+        return centrePosOnBoard.getX() + relativePos[i].getX();
+    }
+
+    // REQUIRES: 0 <= i < 4
+    // EFFECTS: returns the y coordinate of tile i on the board
+    public int getTileY(int i) {
+        return centrePosOnBoard.getY() + relativePos[i].getY();
+    }
+
     public Tetromino getShape() {
         return shape;
     }
@@ -117,13 +144,9 @@ public class Block implements Writable {
         this.nextMove = move;
     }
 
-    // EFFECTS: chooses a random tetromino excluding the Empty and Background
-    private Tetromino randomTetromino() {
-        List<Tetromino> tetrominoList = Arrays.asList(Tetromino.values());
-        int size = tetrominoList.size();
-        Random random = new Random();
-
-        return tetrominoList.get(random.nextInt(size - 2) + 1);
+    // EFFECTS: chooses a random tetromino excluding Empty
+    private static Tetromino randomTetromino() {
+        return TETROMINOS[ThreadLocalRandom.current().nextInt(1, TETROMINOS.length)];
     }
 
     // MODIFIES: this
@@ -170,6 +193,33 @@ public class Block implements Writable {
         }
     }
 
+    // EFFECTS: returns the shape, centre, relative positions and next move packed into one long, in the
+    //          layout of writeBinary
+    long pack() {
+        long packed = (long) shape.ordinal() << 56
+                | (long) (centrePosOnBoard.getX() & 0xFF) << 48
+                | (long) (centrePosOnBoard.getY() & 0xFF) << 40;
+        for (int i = 0; i < 4; i++) {
+            Position p = relativePos[i];
+            packed |= (long) ((p.getX() & 0xF) << 4 | (p.getY() & 0xF)) << (32 - 8 * i);
+        }
+        return packed | nextMove.ordinal();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets every field of this from a long returned by pack, reusing the existing positions
+    void unpack(long packed) {
+        shape = TETROMINOS[(int) (packed >>> 56)];
+        centrePosOnBoard.setX((byte) (packed >>> 48));
+        centrePosOnBoard.setY((byte) (packed >>> 40));
+        for (int i = 0; i < 4; i++) {
+            int tile = (int) (packed >>> (32 - 8 * i));
+            relativePos[i].setX(tile << 24 >> 28);
+            relativePos[i].setY(tile << 28 >> 28);
+        }
+        nextMove = MOVES[(int) (packed & 0xFF)];
+    }
+
     //EFFECTS: returns all the fields of this as a JSONObject
     @Override
     public JSONObject toJson() {
@@ -181,6 +231,36 @@ public class Block implements Writable {
         return json;
     }
 
+    // MODIFIES: buffer
+    // EFFECTS: writes the shape, centre, relative positions and next move to buffer in 8 bytes;
+    //          each relative position is packed into one byte as two 4-bit signed coordinates
+    @Override
+    public void writeBinary(ByteBuffer buffer) {
+        buffer.put((byte) shape.ordinal());
+        buffer.put((byte) centrePosOnBoard.getX());
+        buffer.put((byte) centrePosOnBoard.getY());
+        for (Position p : relativePos) {
+            buffer.put((byte) ((p.getX() & 0xF) << 4 | (p.getY() & 0xF)));
+        }
+        buffer.put((byte) nextMove.ordinal());
+    }
+
+    //EFFECTS: writes all the fields of this to out as a JSON object
+    @Override
+    public void writeJson(JsonStreamWriter out) throws IOException {
+        out.beginObject();
+        out.name("shape").value(shape.toString());
+        out.name("centrePosOnBoard");
+        centrePosOnBoard.writeJson(out);
+        out.name("relativePos").beginArray();
+        for (Position p : relativePos) {
+            p.writeJson(out);
+        }
+        out.endArray();
+        out.name("nextMove").value(nextMove.toString());
+        out.endObject();
+    }
+
     //EFFECTS: returns relativePos as a JSONArray
     private JSONArray posArrayToJson() {
         JSONArray jsonArray = new JSONArray();
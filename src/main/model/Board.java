@@ -0,0 +1,201 @@
+package model;
+
+import persistence.BinaryWritable;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Represents the grid of tiles that have been dropped onto the board.
+ * Occupancy is stored as a bitboard with one mask per row (bit x set means column x is filled),
+ * and the shape of each tile is kept in a separate row-major colour plane used for rendering.
+ * A Zobrist hash of the occupancy is kept up to date as tiles are filled and rows are cleared
+ */
+public class Board implements BinaryWritable {
+    public static final int WIDTH = Game.BOARD_WIDTH;
+    public static final int HEIGHT = Game.BOARD_HEIGHT;
+    public static final int FULL_ROW = (1 << WIDTH) - 1;
+    // number of longs the tiles are packed into by pack, sixteen 4-bit tiles to a long
+    public static final int PACKED_WORDS = (WIDTH * HEIGHT + 15) / 16;
+
+    private static final Tetromino[] TETROMINOS = Tetromino.values();
+
+    private final int[] rows;
+    private final byte[] cells;
+    private int dirtyRows;
+    private int version;
+    private long hash;
+
+    // EFFECTS: initializes an empty board of size WIDTH by HEIGHT
+    public Board() {
+        rows = new int[HEIGHT];
+        cells = new byte[WIDTH * HEIGHT];
+    }
+
+    // EFFECTS: returns the tetromino in the tile at (x, y)
+    public Tetromino get(int x, int y) {
+        return TETROMINOS[cells[y * WIDTH + x]];
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets the tile at (x, y) to t and marks row y to be checked for a full line
+    public void set(int x, int y, Tetromino t) {
+        int bit = 1 << x;
+        int row = rows[y];
+        if (t == Tetromino.Empty) {
+            rows[y] &= ~bit;
+        } else {
+            rows[y] |= bit;
+        }
+        if (rows[y] != row) {
+            hash ^= Zobrist.tile(x, y);
+        }
+
+        cells[y * WIDTH + x] = (byte) t.ordinal();
+        dirtyRows |= 1 << y;
+        version++;
+    }
+
+    // EFFECTS: returns true if (x, y) is outside the walls of the board or is already occupied
+    public boolean isBlocked(int x, int y) {
+        if (x < 0 || x >= WIDTH || y < 0 || y >= HEIGHT) {
+            return true;
+        }
+
+        return (rows[y] & (1 << x)) != 0;
+    }
+
+    // EFFECTS: returns a counter that changes whenever any tile on the board changes
+    public int getVersion() {
+        return version;
+    }
+
+    // EFFECTS: returns the Zobrist hash of which tiles are filled; boards with the same tiles filled have
+    //          the same hash whatever their shapes
+    public long getHash() {
+        return hash;
+    }
+
+    // EFFECTS: returns the occupancy mask of row y
+    public int getRow(int y) {
+        return rows[y];
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes every full row among the rows that changed since the last call, moving the
+    //          rows above down to fill in the gap; returns the number of rows removed
+    public int clearFullRows() {
+        int cleared = 0;
+        int pending = dirtyRows;
+        dirtyRows = 0;
+
+        for (int y = HEIGHT - 1; y >= 0 && pending != 0; y--) {
+            int bit = 1 << y;
+            boolean full = (pending & bit) != 0 && rows[y] == FULL_ROW;
+            pending &= bit - 1;
+
+            if (full) {
+                removeRow(y);
+                // the rows above moved down by one, so their pending bits do too; check row y again
+                pending <<= 1;
+                cleared++;
+                y++;
+            }
+        }
+
+        return cleared;
+    }
+
+    // EFFECTS: returns a 64-bit FNV-1a hash of the shape in every tile, used to check that two boards match
+    public long fingerprint() {
+        long hash = 0xcbf29ce484222325L;
+        for (byte cell : cells) {
+            hash = (hash ^ cell) * 0x100000001b3L;
+        }
+
+        return hash;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: makes this board an exact copy of other, including which rows still need to be checked
+    public void copyFrom(Board other) {
+        System.arraycopy(other.rows, 0, rows, 0, HEIGHT);
+        System.arraycopy(other.cells, 0, cells, 0, WIDTH * HEIGHT);
+        dirtyRows = other.dirtyRows;
+        hash = other.hash;
+        version++;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets every tile on the board to empty
+    public void clear() {
+        Arrays.fill(rows, 0);
+        Arrays.fill(cells, (byte) 0);
+        dirtyRows = 0;
+        hash = 0;
+        version++;
+    }
+
+    // MODIFIES: out
+    // EFFECTS: writes the shape of every tile to out[offset] to out[offset + PACKED_WORDS - 1],
+    //          sixteen 4-bit tiles to a long in row-major order
+    void pack(long[] out, int offset) {
+        for (int w = 0; w < PACKED_WORDS; w++) {
+            long word = 0;
+            int end = Math.min(16 * w + 16, cells.length);
+            for (int i = end - 1; i >= 16 * w; i--) {
+                word = word << 4 | cells[i];
+            }
+            out[offset + w] = word;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: makes this board hold the tiles written by pack to in[offset] onwards, with no rows to check;
+    //          the occupancy masks and hash are rebuilt from the tiles
+    void unpack(long[] in, int offset) {
+        for (int w = 0; w < PACKED_WORDS; w++) {
+            long word = in[offset + w];
+            int end = Math.min(16 * w + 16, cells.length);
+            for (int i = 16 * w; i < end; i++) {
+                cells[i] = (byte) (word & 0xF);
+                word >>>= 4;
+            }
+        }
+
+        for (int y = 0; y < HEIGHT; y++) {
+            int row = 0;
+            for (int x = 0; x < WIDTH; x++) {
+                if (cells[y * WIDTH + x] != 0) {
+                    row |= 1 << x;
+                }
+            }
+            rows[y] = row;
+        }
+        hash = Zobrist.rows(rows, 0, HEIGHT - 1);
+        dirtyRows = 0;
+        version++;
+    }
+
+    // MODIFIES: buffer
+    // EFFECTS: writes the colour plane to buffer as 4-bit cells, two per byte, in row-major order
+    @Override
+    public void writeBinary(ByteBuffer buffer) {
+        for (int i = 0; i < cells.length; i += 2) {
+            buffer.put((byte) (cells[i] << 4 | cells[i + 1]));
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes row y and shifts every row above it down by one; only the hashes of the rows
+    //          that moved are recomputed
+    private void removeRow(int y) {
+        hash ^= Zobrist.rows(rows, 0, y);
+        System.arraycopy(rows, 0, rows, 1, y);
+        rows[0] = 0;
+        hash ^= Zobrist.rows(rows, 0, y);
+        System.arraycopy(cells, 0, cells, WIDTH, y * WIDTH);
+        Arrays.fill(cells, 0, WIDTH, (byte) 0);
+        version++;
+    }
+}
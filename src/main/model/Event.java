@@ -22,6 +22,16 @@ public class Event {
         this.description = description;
     }
 
+    /**
+     * Creates an event with the given date/time stamp and description.
+     * @param dateLogged   the date of the event
+     * @param description  a description of the event
+     */
+    public Event(Date dateLogged, String description) {
+        this.dateLogged = dateLogged;
+        this.description = description;
+    }
+
     /**
      * Gets the date of this event (includes time).
      * @return  the date of the event
@@ -0,0 +1,32 @@
+package model;
+
+/**
+ * Enumeration of the kinds of event recorded in the event log. Each kind is stored with a single
+ * int value and only turned into a description when the event is read
+ */
+public enum EventKind {
+    Message,
+    BlockDropped,
+    LinesCleared,
+    GameEnded,
+    LogCleared;
+
+    private static final Tetromino[] TETROMINOS = Tetromino.values();
+
+    // EFFECTS: returns the description of an event of this kind with the given value;
+    //          text is only used by Message events
+    public String describe(int value, String text) {
+        switch (this) {
+            case BlockDropped:
+                return TETROMINOS[value].getLabel() + " dropped onto board.";
+            case LinesCleared:
+                return value + " line(s) cleared.";
+            case GameEnded:
+                return "Game ended with " + value + " line(s) cleared.";
+            case LogCleared:
+                return "Event log cleared.";
+            default:
+                return text;
+        }
+    }
+}
@@ -1,26 +1,55 @@
 package model;
 
+import java.lang.invoke.VarHandle;
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.Date;
 import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 /**
  * Represents a log of alarm system events.
  * We use the Singleton Design Pattern to ensure that there is only
  * one EventLog in the system and that the system has global access
  * to the single instance of the EventLog.
+ * Events are kept as typed records in a bounded ring buffer that any
+ * number of threads may write to without locking; once the ring is full
+ * the oldest events are overwritten. Records are only formatted into
+ * Events when the log is iterated.
  */
 public class EventLog implements Iterable<Event> {
-    /** the only EventLog in the system (Singleton Design Pattern) */
-    private static EventLog theLog;
-    private Collection<Event> events;
+    /** the number of events kept before the oldest is overwritten */
+    public static final int CAPACITY = 4096;
+
+    private static final EventKind[] KINDS = EventKind.values();
+    private static final long WRITING = -1;
+
+    private final int mask = CAPACITY - 1;
+    private final byte[] kinds = new byte[CAPACITY];
+    private final int[] values = new int[CAPACITY];
+    private final long[] times = new long[CAPACITY];
+    private final String[] texts = new String[CAPACITY];
+    /** the sequence number of the record in each slot, or WRITING while it is being written */
+    private final AtomicLongArray published = new AtomicLongArray(CAPACITY);
+    private final AtomicLong next = new AtomicLong();
+    private volatile long start;
+
+    /**
+     * Holds the only EventLog in the system, created on first use (Singleton Design Pattern).
+     */
+    private static class Holder {
+        private static final EventLog THE_LOG = new EventLog();
+    }
 
     /**
      * Prevent external construction.
      * (Singleton Design Pattern).
      */
     private EventLog() {
-        events = new ArrayList<Event>();
+        for (int i = 0; i < CAPACITY; i++) {
+            published.set(i, WRITING);
+        }
     }
 
     /**
@@ -30,11 +59,7 @@ public class EventLog implements Iterable<Event> {
      * @return  instance of EventLog
      */
     public static EventLog getInstance() {
-        if (theLog == null) {
-            theLog = new EventLog();
-        }
-
-        return theLog;
+        return Holder.THE_LOG;
     }
 
     /**
@@ -42,19 +67,134 @@ public class EventLog implements Iterable<Event> {
      * @param e the event to be added
      */
     public void logEvent(Event e) {
-        events.add(e);
+        append(EventKind.Message, 0, e.getDescription(), e.getDate().getTime());
+    }
+
+    /**
+     * Adds an event of the given kind to the event log, stamped with the
+     * current time. Its description is only built if the event is read.
+     * @param kind  the kind of event
+     * @param value the value described by the event, e.g. a number of lines
+     */
+    public void log(EventKind kind, int value) {
+        append(kind, value, null, System.currentTimeMillis());
     }
 
     /**
      * Clears the event log and logs the event.
      */
     public void clear() {
-        events.clear();
-        logEvent(new Event("Event log cleared."));
+        start = next.get();
+        log(EventKind.LogCleared, 0);
+    }
+
+    /**
+     * Gets the sequence number that the next event logged will have;
+     * every event ever logged has a smaller sequence number.
+     * @return  the sequence number of the next event
+     */
+    public long getNextSequence() {
+        return next.get();
+    }
+
+    /**
+     * Gets the sequence number of the oldest event still in the log,
+     * i.e. the oldest that has been neither overwritten nor cleared.
+     * @return  the sequence number of the oldest event in the log
+     */
+    public long getFirstSequence() {
+        return Math.max(start, next.get() - CAPACITY);
+    }
+
+    /**
+     * Gets the events still in the log whose sequence number is at least
+     * from, oldest first, formatting each record into an Event.
+     * @param from  the sequence number of the first event wanted
+     * @return  the events logged since from that have not been overwritten
+     */
+    public List<Event> eventsSince(long from) {
+        long end = next.get();
+        long first = Math.max(Math.max(from, start), end - CAPACITY);
+        List<Event> events = new ArrayList<>((int) Math.max(0, end - first));
+
+        for (long seq = first; seq < end; seq++) {
+            Event event = read(seq);
+            if (event != null) {
+                events.add(event);
+            }
+        }
+
+        return events;
+    }
+
+    /**
+     * Adds the events logged since from to out, oldest first, stopping at
+     * the first event that is still being written so that it can be read
+     * by the next call. Events that were overwritten before they could be
+     * read are skipped.
+     * @param from  the sequence number of the first event wanted
+     * @param out   the list the events are added to
+     * @return  the sequence number to pass as from to continue draining
+     */
+    public long drainTo(long from, List<Event> out) {
+        long end = next.get();
+        long seq = Math.max(Math.max(from, start), end - CAPACITY);
+
+        for (; seq < end; seq++) {
+            Event event = read(seq);
+            if (event != null) {
+                out.add(event);
+            } else if (seq >= next.get() - CAPACITY) {
+                break;
+            }
+        }
+
+        return seq;
     }
 
     @Override
     public Iterator<Event> iterator() {
-        return events.iterator();
+        return eventsSince(0).iterator();
+    }
+
+    /**
+     * Claims the next slot in the ring and writes a record into it.
+     */
+    private void append(EventKind kind, int value, String text, long time) {
+        long seq = next.getAndIncrement();
+        int i = (int) seq & mask;
+
+        published.set(i, WRITING);
+        // keep the writes below from moving ahead of marking the slot as being written
+        VarHandle.releaseFence();
+        kinds[i] = (byte) kind.ordinal();
+        values[i] = value;
+        texts[i] = text;
+        times[i] = time;
+        published.set(i, seq);
+    }
+
+    /**
+     * Reads the record with the given sequence number.
+     * @return  the record as an Event, or null if it is still being
+     *          written or has already been overwritten
+     */
+    private Event read(long seq) {
+        int i = (int) seq & mask;
+        if (published.get(i) != seq) {
+            return null;
+        }
+
+        EventKind kind = KINDS[kinds[i]];
+        int value = values[i];
+        String text = texts[i];
+        long time = times[i];
+
+        // keep the reads above from moving past the check that they were not overwritten
+        VarHandle.acquireFence();
+        if (published.get(i) != seq) {
+            return null;
+        }
+        return new Event(new Date(time), kind.describe(value, text));
     }
 }
@@ -1,171 +1,337 @@
 package model;
 
+import metrics.Counter;
+import metrics.GameMetrics;
+import metrics.Histogram;
 import org.json.JSONArray;
 import org.json.JSONObject;
+import persistence.BinaryWritable;
+import persistence.JsonStreamWriter;
 import persistence.Writable;
 
-import java.awt.event.KeyEvent;
-import java.util.Observable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
- * Represents the whole tetris game
+ * Represents the whole tetris game.
+ * The game only depends on the model, so it can be run headlessly by feeding it Moves and calling tick
  */
-public class Game extends Observable implements Writable {
+public class Game implements Writable, BinaryWritable {
     public static final int TICKS_PER_FALL = 50;
     public static final int BOARD_WIDTH = 10;
     public static final int BOARD_HEIGHT = 20;
     public static final int WIDTH = (BOARD_WIDTH - 1) * Tetromino.SIZE;
     public static final int HEIGHT = BOARD_HEIGHT * Tetromino.SIZE;
+    public static final int PREVIEW_SIZE = 5;
+    public static final int INPUT_CAPACITY = 64;
+    public static final int DEFAULT_INPUTS_PER_TICK = 4;
 
     public static final String EVENT_LINE_CLEARED = "LINE CLEARED";
-
+    public static final String EVENT_RESTORED = "RESTORED";
+    // number of longs a state is packed into by pack
+    public static final int PACKED_WORDS = Board.PACKED_WORDS + 4;
+
+    private static final Tetromino[] TETROMINOS = Tetromino.values();
+    private static final Histogram TICK_NANOS = GameMetrics.getInstance().getTickNanos();
+    private static final Counter PIECES_LOCKED = GameMetrics.getInstance().getPiecesLocked();
+
+    private final PieceQueue preview;
+    private final long seed;
+    private final GeneratorType generatorType;
+    private final List<GameObserver> observers = new ArrayList<>();
+    private final List<LockObserver> lockObservers = new ArrayList<>();
+    private final InputQueue inputs = new InputQueue(INPUT_CAPACITY);
+    private int inputsPerTick = DEFAULT_INPUTS_PER_TICK;
     private boolean ended = false;
     private int score = 0;
-    private Block curBlock = new Block();
-    private Tetromino[][] board;
+    private Block curBlock;
+    private Board board;
     private int ticksUntilFall = TICKS_PER_FALL;
+    private long ticks = 0;
+    private int piecesLocked = 0;
+    private ReplayRecorder recorder;
+    private UndoHistory history;
 
     // EFFECT: initializes a game with an empty board of size maxX,maxY
     public Game() {
-        board = new Tetromino[BOARD_WIDTH][BOARD_HEIGHT];
-        clearBoard();
+        this(System.nanoTime());
+    }
+
+    // EFFECT: initializes a game with an empty board whose sequence of blocks is determined by seed
+    public Game(long seed) {
+        this(seed, GeneratorType.Uniform);
+    }
+
+    // EFFECT: initializes a game with an empty board whose blocks are dealt by a generator of the
+    //         given type, seeded with seed
+    public Game(long seed, GeneratorType generatorType) {
+        this(generatorType.create(seed), seed, generatorType);
+    }
+
+    // EFFECT: initializes a game with an empty board whose blocks are dealt by generator;
+    //         the game has no seed or generator type
+    public Game(PieceGenerator generator) {
+        this(generator, 0, null);
+    }
+
+    // EFFECT: initializes a game with an empty board whose blocks are dealt by generator
+    private Game(PieceGenerator generator, long seed, GeneratorType generatorType) {
+        this.seed = seed;
+        this.generatorType = generatorType;
+        preview = new PieceQueue(generator, PREVIEW_SIZE);
+        board = new Board();
+        curBlock = new Block(preview.next());
     }
 
     // MODIFIES: this
-    // EFFECT: updates the game each tick by trying to move and fall the block,
-    //         if the block is dropped, a new block is created and the game over condition is checked
+    // EFFECT: updates the game each tick by applying the block's next move, or else up to inputsPerTick
+    //         queued inputs in order, then falling the block; a drop ends the moves for the tick.
+    //         If the block is dropped, a new block is created and the game over condition is checked
     public void tick() {
         if (!ended) {
-            if (curBlock.getNextMove() == Moves.Drop) {
-                drop();
-            } else if (tryMove(curBlock.getNextMove())) {
-                if (curBlock.getNextMove() == Moves.Down) {
-                    resetFall();
-                }
-                curBlock.move();
+            long start = System.nanoTime();
+            ticks++;
+            applyInputs();
+            if (ticksUntilFall == 0) {
+                fallOrLock();
             } else {
-                curBlock.setNextMove(Moves.None);
+                ticksUntilFall--;
             }
+            TICK_NANOS.record(System.nanoTime() - start);
+        }
+    }
 
-            if (ticksUntilFall == 0) {
-                if (tryFall()) {
-                    curBlock.fall();
-                } else {
-                    checkFullLines();
-                    curBlock = new Block();
-                    checkGameOver();
-                }
+    // MODIFIES: this
+    // EFFECT: applies the block's next move, or else up to inputsPerTick queued inputs in order; a drop ends
+    //         the moves for the tick
+    private void applyInputs() {
+        Moves move = curBlock.getNextMove() != Moves.None ? curBlock.getNextMove() : nextInput();
+        int applied = 0;
+        while (move != Moves.None) {
+            applyMove(move);
+            if (move == Moves.Drop || ++applied >= inputsPerTick) {
+                break;
+            }
+            move = nextInput();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECT: moves the block down a row, or if it cannot fall, locks it, clears the full rows, spawns the
+    //         next block and checks the game over condition; then restarts the fall countdown, and on a lock
+    //         records the new state in the history and tells the lock observers
+    private void fallOrLock() {
+        Block locked = tryFall() ? null : curBlock;
+        int linesCleared = 0;
+        if (locked == null) {
+            curBlock.fall();
+        } else {
+            linesCleared = checkFullLines();
+            curBlock = new Block(preview.next());
+            checkGameOver();
+        }
+        resetFall();
+        ticksUntilFall--;
+
+        if (locked != null) {
+            if (history != null) {
+                history.record();
+            }
+            notifyLocked(locked, linesCleared);
+        }
+    }
+
+    // REQUIRES: 0 <= n <= getTicksUntilFall()
+    // MODIFIES: this
+    // EFFECT: advances the game by n ticks in which no move is applied and the block does not fall,
+    //         exactly as n calls to tick() with no input would, without doing them one at a time
+    public void skipIdleTicks(int n) {
+        if (!ended) {
+            ticks += n;
+            ticksUntilFall -= n;
+        }
+    }
+
+    // EFFECTS: returns true if the next tick has a move to apply
+    public boolean hasPendingInput() {
+        return curBlock.getNextMove() != Moves.None || inputs.size() > 0;
+    }
+
+    // MODIFIES: this
+    // EFFECT: applies move to the current block if it fits, recording it if the game is being recorded
+    private void applyMove(Moves move) {
+        if (recorder != null) {
+            recorder.record(ticks, move);
+        }
+
+        curBlock.setNextMove(move);
+        if (move == Moves.Drop) {
+            drop();
+        } else if (tryMove(move)) {
+            if (move == Moves.Down) {
                 resetFall();
             }
+            curBlock.move();
+        } else {
+            curBlock.setNextMove(Moves.None);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECT: returns the next queued input, or None if there is none
+    private Moves nextInput() {
+        Moves move = inputs.poll();
+        return move == null ? Moves.None : move;
+    }
 
-            ticksUntilFall--;
+    // MODIFIES: this
+    // EFFECTS: queues move to be applied on a following tick, stamped with the current time;
+    //          None is ignored. May be called from one thread other than the one that ticks the game
+    public void input(Moves move) {
+        input(move, System.nanoTime());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: queues move, made at the given time, to be applied on a following tick; returns false if
+    //          the move was dropped because the queue is full. None is ignored
+    public boolean input(Moves move, long timestamp) {
+        return move == Moves.None || inputs.offer(move, timestamp);
+    }
+
+    // REQUIRES: inputsPerTick > 0
+    // MODIFIES: this
+    // EFFECTS: sets the maximum number of queued inputs applied on each tick
+    public void setInputsPerTick(int inputsPerTick) {
+        this.inputsPerTick = inputsPerTick;
+    }
+
+    public int getInputsPerTick() {
+        return inputsPerTick;
+    }
+
+    // EFFECTS: returns the queue of inputs waiting to be applied
+    public InputQueue getInputs() {
+        return inputs;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts recording every move applied from now on and returns the recorder;
+    //          throws IllegalStateException if the game has already been ticked or was not created
+    //          from a seed, since it could not then be replayed
+    public ReplayRecorder startRecording() {
+        if (ticks != 0 || generatorType == null) {
+            throw new IllegalStateException("Only new seeded games can be recorded");
         }
+
+        recorder = new ReplayRecorder(seed, generatorType);
+        return recorder;
     }
 
-    // Responds to key press codes
+    // REQUIRES: capacity > 0
     // MODIFIES: this
-    // EFFECTS: sets the block's next move according to the given key code
-    public void keyPressed(int keyCode) {
-        switch (keyCode) {
-            case KeyEvent.VK_RIGHT:
-                curBlock.setNextMove(Moves.Right);
-                break;
-            case KeyEvent.VK_LEFT:
-                curBlock.setNextMove(Moves.Left);
-                break;
-            case KeyEvent.VK_DOWN:
-                curBlock.setNextMove(Moves.Down);
-                break;
-            case KeyEvent.VK_UP:
-                curBlock.setNextMove(Moves.CW);
-                break;
-            case KeyEvent.VK_Z:
-                curBlock.setNextMove(Moves.CCW);
-                break;
-            case KeyEvent.VK_SPACE:
-                curBlock.setNextMove(Moves.Drop);
-                break;
-            default:
-                curBlock.setNextMove(Moves.None);
+    // EFFECTS: starts keeping the states of the game at its last capacity locks, and now, and returns the
+    //          history to undo and redo them with. A game that is rewound no longer matches its recording
+    public UndoHistory keepHistory(int capacity) {
+        history = new UndoHistory(this, capacity);
+        return history;
+    }
+
+    // MODIFIES: observer
+    // EFFECTS: registers observer to be notified of events in this game
+    public void addObserver(GameObserver observer) {
+        observers.add(observer);
+    }
+
+    // EFFECTS: notifies every observer that event has occurred
+    private void notifyObservers(String event) {
+        for (int i = 0; i < observers.size(); i++) {
+            observers.get(i).update(this, event);
+        }
+    }
+
+    // MODIFIES: observer
+    // EFFECTS: registers observer to be told about every block this game locks
+    public void addLockObserver(LockObserver observer) {
+        lockObservers.add(observer);
+    }
+
+    // EFFECTS: tells every lock observer that block was locked, clearing linesCleared rows
+    private void notifyLocked(Block block, int linesCleared) {
+        for (int i = 0; i < lockObservers.size(); i++) {
+            lockObservers.get(i).locked(this, block, linesCleared);
         }
     }
 
+    // REQUIRES: 0 <= i < PREVIEW_SIZE
+    // EFFECTS: returns the shape of the block that will spawn after i more blocks are dropped
+    public Tetromino getPreview(int i) {
+        return preview.peek(i);
+    }
+
     // EFFECT: returns true if the position that a block will move to is within the bounds
     //         and not already occupied, otherwise returns false
     private boolean tryMove(Moves nextMove) {
-        boolean isValid = true;
+        Position centre = curBlock.getCentrePosOnBoard();
+        Position[] relativePos = curBlock.getRelativePos();
+
         for (int i = 0; i < 4; i++) {
-            int x = curBlock.getRelativePos()[i].getX();
-            int y = curBlock.getRelativePos()[i].getY();
-            Position newPos = predictMove(x, y, nextMove);
-            newPos.setX(newPos.getX() + curBlock.getCentrePosOnBoard().getX());
-            newPos.setY(newPos.getY() + curBlock.getCentrePosOnBoard().getY());
-
-            if (newPos.getX() >= BOARD_WIDTH || newPos.getY() >= BOARD_HEIGHT
-                    || newPos.getX() < 0 || board[newPos.getX()][newPos.getY()] != Tetromino.Empty) {
-                isValid = false;
-                break;
+            int x = relativePos[i].getX();
+            int y = relativePos[i].getY();
+            int newX = centre.getX() + predictX(x, y, nextMove);
+            int newY = centre.getY() + predictY(x, y, nextMove);
+
+            if (board.isBlocked(newX, newY)) {
+                return false;
             }
         }
 
-        return isValid;
+        return true;
     }
 
-    // EFFECT: returns the position that a tile will be at after it moves
-    private Position predictMove(int x, int y, Moves nextMove) {
-        Position newPos = new Position(x, y);
+    // EFFECT: returns the relative x coordinate that a tile at relative (x, y) will have after it moves
+    private int predictX(int x, int y, Moves nextMove) {
         switch (nextMove) {
             case Right:
-                newPos.setX(x + 1);
-                break;
+                return x + 1;
             case Left:
-                newPos.setX(x - 1);
-                break;
-            case Down:
-                newPos.setY(y + 1);
-                break;
+                return x - 1;
             case CW:
+                return y * -1;
             case CCW:
-                newPos = predictRotate(x, y, nextMove);
-                break;
+                return y;
+            default:
+                return x;
         }
-
-        return newPos;
     }
 
-    // MODIFIES: this
-    // EFFECT: returns the position that a tile will be at after it rotates
-    private Position predictRotate(int x, int y, Moves nextMove) {
-        Position newPos = new Position(x, y);
-        if (nextMove == Moves.CW) {
-            newPos.setX(y * -1);
-            newPos.setY(x);
-        } else {
-            newPos.setY(x * -1);
-            newPos.setX(y);
+    // EFFECT: returns the relative y coordinate that a tile at relative (x, y) will have after it moves
+    private int predictY(int x, int y, Moves nextMove) {
+        switch (nextMove) {
+            case Down:
+                return y + 1;
+            case CW:
+                return x;
+            case CCW:
+                return x * -1;
+            default:
+                return y;
         }
-
-        return newPos;
     }
 
 
     // EFFECT: returns true if the position that a block will fall to is within the bounds
     //         and not already occupied, otherwise drops the block and returns false
     private boolean tryFall() {
-        boolean canFall = false;
-        for (Position pos : curBlock.getAllPosOnBoard()) {
-            int newY = pos.getY() + 1;
-
-            if (newY >= BOARD_HEIGHT || board[pos.getX()][newY] != Tetromino.Empty) {
+        for (int i = 0; i < 4; i++) {
+            if (board.isBlocked(curBlock.getTileX(i), curBlock.getTileY(i) + 1)) {
                 blockDropped();
-                canFall = false;
-                break;
-            } else {
-                canFall = true;
+                return false;
             }
         }
 
-        return canFall;
+        return true;
     }
 
     // MODIFIES: this
@@ -181,80 +347,47 @@ public class Game extends Observable implements Writable {
     // MODIFIES: this
     // EFFECT: copies each tile from the block onto the board
     private void blockDropped() {
-        for (Position pos : curBlock.getAllPosOnBoard()) {
-            board[pos.getX()][pos.getY()] = curBlock.getShape();
+        for (int i = 0; i < 4; i++) {
+            board.set(curBlock.getTileX(i), curBlock.getTileY(i), curBlock.getShape());
         }
 
-        EventLog.getInstance().logEvent(new Event(curBlock.getShape().getLabel() + " dropped onto board."));
+        piecesLocked++;
+        PIECES_LOCKED.increment();
+
+        EventLog.getInstance().log(EventKind.BlockDropped, curBlock.getShape().ordinal());
     }
 
     // MODIFIES: this
     // EFFECT: clears all full rows from the board and moves the above
-    //         tiles down to fill in the gap, then increases the score
-    private void checkFullLines() {
-        int linesCleared = 0;
-
-        for (int i = BOARD_HEIGHT - 1; i >= 0; i--) {
-            boolean fullLine = true;
-
-            for (int j = 0; j < BOARD_WIDTH; j++) {
-                if (board[j][i] == Tetromino.Empty) {
-                    fullLine = false;
-                    break;
-                }
-            }
-
-            if (fullLine) {
-                clearFullLines(i);
-
-                linesCleared++;
-                i++;
-            }
-        }
+    //         tiles down to fill in the gap, then increases the score;
+    //         only the rows changed since the last check can be full, so only those are tested;
+    //         returns the number of rows cleared
+    private int checkFullLines() {
+        int linesCleared = board.clearFullRows();
 
         if (linesCleared > 0) {
             score += linesCleared;
-            EventLog.getInstance().logEvent(new Event(linesCleared + " line(s) cleared."));
+            GameMetrics.getInstance().getLinesCleared(Math.min(linesCleared, GameMetrics.MAX_LINES_PER_LOCK))
+                    .increment();
+            EventLog.getInstance().log(EventKind.LinesCleared, linesCleared);
         }
 
-        setChanged();
         notifyObservers(EVENT_LINE_CLEARED);
-    }
-
-    private void clearFullLines(int i) {
-        for (int k = i; k > 0; k--) {
-            for (int l = 0; l < BOARD_WIDTH; l++) {
-                board[l][k] = board[l][k - 1];
-            }
-        }
-
-        for (int k = 0; k < BOARD_WIDTH; k++) {
-            board[k][0] = Tetromino.Empty;
-        }
+        return linesCleared;
     }
 
     // MODIFIES: this
     // EFFECT: if the new block is spawned on an already occupied tile, sets ended to true
     private void checkGameOver() {
-        for (Position pos : curBlock.getAllPosOnBoard()) {
-            if (board[pos.getX()][pos.getY()] != Tetromino.Empty) {
+        for (int i = 0; i < 4; i++) {
+            if (board.isBlocked(curBlock.getTileX(i), curBlock.getTileY(i))) {
                 ended = true;
-                EventLog.getInstance().logEvent(new Event("Game ended with " + score + " line(s) cleared."));
+                EventLog.getInstance().log(EventKind.GameEnded, score);
                 break;
             }
         }
     }
 
-    // MODIFIES: this
-    // EFFECT: sets every tile on the board to empty
-    private void clearBoard() {
-        for (int i = 0; i < BOARD_WIDTH; i++) {
-            for (int j = 0; j < BOARD_HEIGHT; j++) {
-                board[i][j] = Tetromino.Empty;
-            }
-        }
-    }
-
     public boolean isEnded() {
         return ended;
     }
@@ -279,11 +412,11 @@ public class Game extends Observable implements Writable {
         curBlock = block;
     }
 
-    public Tetromino[][] getBoard() {
+    public Board getBoard() {
         return board;
     }
 
-    public void setBoard(Tetromino[][] b) {
+    public void setBoard(Board b) {
         board = b;
     }
 
@@ -295,6 +428,94 @@ public class Game extends Observable implements Writable {
         ticksUntilFall = ticks;
     }
 
+    public long getSeed() {
+        return seed;
+    }
+
+    public GeneratorType getGeneratorType() {
+        return generatorType;
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+
+    public int getPiecesLocked() {
+        return piecesLocked;
+    }
+
+    // EFFECTS: returns a Zobrist hash of the filled tiles and the shapes to come, the current block's first;
+    //          the board's part is kept up to date as blocks lock and lines clear, so this is cheap
+    public long getHash() {
+        long hash = board.getHash() ^ Zobrist.piece(0, curBlock.getShape());
+        for (int i = 0; i < PREVIEW_SIZE; i++) {
+            hash ^= Zobrist.piece(i + 1, preview.peek(i));
+        }
+        return hash;
+    }
+
+    // EFFECTS: returns how many rows the current block can fall before it lands on the stack or the floor
+    public int getDropDistance() {
+        int distance = 0;
+        while (fitsBelow(distance + 1)) {
+            distance++;
+        }
+
+        return distance;
+    }
+
+    // EFFECTS: returns true if every tile of the current block is free when moved down by the given rows
+    private boolean fitsBelow(int rows) {
+        for (int i = 0; i < 4; i++) {
+            if (board.isBlocked(curBlock.getTileX(i), curBlock.getTileY(i) + rows)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    // MODIFIES: out
+    // EFFECTS: writes the board, block, score, counters and preview to out[offset] to
+    //          out[offset + PACKED_WORDS - 1]; the tiles come first, then one long each for the block,
+    //          the score and pieces locked, the ticks, and the ended flag, ticksUntilFall and preview
+    void pack(long[] out, int offset) {
+        board.pack(out, offset);
+        int i = offset + Board.PACKED_WORDS;
+        out[i] = curBlock.pack();
+        out[i + 1] = (long) score << 32 | piecesLocked & 0xFFFFFFFFL;
+        out[i + 2] = ticks;
+
+        long last = ticksUntilFall & 0xFFFF | (ended ? 1 << 16 : 0);
+        for (int p = 0; p < PREVIEW_SIZE; p++) {
+            last |= (long) preview.peek(p).ordinal() << (20 + 4 * p);
+        }
+        out[i + 3] = last;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: puts the game back in the state written by pack to in[offset] onwards, drops any queued
+    //          inputs and notifies observers with EVENT_RESTORED. The preview is restored, but the
+    //          shapes after it are dealt from where the generator is now
+    void unpack(long[] in, int offset) {
+        board.unpack(in, offset);
+        int i = offset + Board.PACKED_WORDS;
+        curBlock.unpack(in[i]);
+        score = (int) (in[i + 1] >> 32);
+        piecesLocked = (int) in[i + 1];
+        ticks = in[i + 2];
+
+        long last = in[i + 3];
+        ticksUntilFall = (short) last;
+        ended = (last & 1 << 16) != 0;
+        for (int p = 0; p < PREVIEW_SIZE; p++) {
+            preview.set(p, TETROMINOS[(int) (last >>> (20 + 4 * p)) & 0xF]);
+        }
+
+        inputs.clear();
+        notifyObservers(EVENT_RESTORED);
+    }
+
     // MODIFIES: this
     // EFFECT: resets ticksUntilFall
     private void resetFall() {
@@ -313,6 +534,38 @@ public class Game extends Observable implements Writable {
         return json;
     }
 
+    //EFFECTS: writes all the fields in game to out as a JSON object
+    @Override
+    public void writeJson(JsonStreamWriter out) throws IOException {
+        out.beginObject();
+        out.name("ended").value(ended);
+        out.name("score").value(score);
+        out.name("curBlock");
+        curBlock.writeJson(out);
+        out.name("board").beginArray();
+        for (int i = 0; i < BOARD_WIDTH; i++) {
+            out.beginArray();
+            for (int j = 0; j < BOARD_HEIGHT; j++) {
+                out.value(board.get(i, j).toString());
+            }
+            out.endArray();
+        }
+        out.endArray();
+        out.name("ticksUntilFall").value(ticksUntilFall);
+        out.endObject();
+    }
+
+    // MODIFIES: buffer
+    // EFFECTS: writes the ended flag, score, ticksUntilFall, block and board to buffer
+    @Override
+    public void writeBinary(ByteBuffer buffer) {
+        buffer.put((byte) (ended ? 1 : 0));
+        buffer.putInt(score);
+        buffer.putShort((short) ticksUntilFall);
+        curBlock.writeBinary(buffer);
+        board.writeBinary(buffer);
+    }
+
     //EFFECTS: returns board as a JSONArray
     private JSONArray boardToJson() {
         JSONArray jsonArray = new JSONArray();
@@ -320,8 +573,8 @@ public class Game extends Observable implements Writable {
         for (int i = 0; i < BOARD_WIDTH; i++) {
             JSONArray columnJsonArray = new JSONArray();
 
-            for (Tetromino t : board[i]) {
-                columnJsonArray.put(t.toString());
+            for (int j = 0; j < BOARD_HEIGHT; j++) {
+                columnJsonArray.put(board.get(i, j).toString());
             }
 
             jsonArray.put(columnJsonArray);
@@ -0,0 +1,9 @@
+package model;
+
+/**
+ * An interface for objects that are notified of events in a game
+ */
+public interface GameObserver {
+    // EFFECTS: responds to the given event that occurred in game
+    void update(Game game, String event);
+}
@@ -0,0 +1,101 @@
+package model;
+
+/**
+ * Represents an immutable picture of a game at the end of a tick, holding everything needed to draw it.
+ * Snapshots are published by the simulation thread and read by the renderer without locks; the tiles of
+ * the locked stack are only copied when the board changed, otherwise they are shared with the previous one
+ */
+public final class GameSnapshot {
+    private static final Tetromino[] TETROMINOS = Tetromino.values();
+
+    private final Board source;
+    private final int boardVersion;
+    private final byte[] cells;
+    private final Tetromino shape;
+    private final int[] tiles;
+    private final int dropDistance;
+    private final int score;
+    private final boolean ended;
+    private final long ticks;
+
+    // EFFECTS: captures the current state of game; the tiles of the stack are shared with previous
+    //          if previous was taken of the same, unchanged board
+    public GameSnapshot(Game game, GameSnapshot previous) {
+        Board board = game.getBoard();
+        Block block = game.getCurBlock();
+
+        source = board;
+        boardVersion = board.getVersion();
+        cells = previous != null && previous.source == board && previous.boardVersion == boardVersion
+                ? previous.cells : copyCells(board);
+        shape = block.getShape();
+        tiles = new int[8];
+        for (int i = 0; i < 4; i++) {
+            tiles[2 * i] = block.getTileX(i);
+            tiles[2 * i + 1] = block.getTileY(i);
+        }
+        dropDistance = game.isEnded() ? 0 : game.getDropDistance();
+        score = game.getScore();
+        ended = game.isEnded();
+        ticks = game.getTicks();
+    }
+
+    // EFFECTS: returns a copy of the shape in every tile of board, in row-major order
+    private static byte[] copyCells(Board board) {
+        byte[] copy = new byte[Board.WIDTH * Board.HEIGHT];
+        for (int y = 0; y < Board.HEIGHT; y++) {
+            for (int x = 0; x < Board.WIDTH; x++) {
+                copy[y * Board.WIDTH + x] = (byte) board.get(x, y).ordinal();
+            }
+        }
+
+        return copy;
+    }
+
+    // EFFECTS: returns the tetromino locked in the tile at (x, y)
+    public Tetromino get(int x, int y) {
+        return TETROMINOS[cells[y * Board.WIDTH + x]];
+    }
+
+    // EFFECTS: returns true if other shows exactly the same locked stack as this
+    public boolean hasSameBoard(GameSnapshot other) {
+        return other != null && other.cells == cells;
+    }
+
+    // EFFECTS: returns true if other was taken of the same board as this, and so of the same game
+    public boolean isOfSameGame(GameSnapshot other) {
+        return other != null && other.source == source;
+    }
+
+    // REQUIRES: 0 <= i < 4
+    // EFFECTS: returns the x coordinate on the board of tile i of the falling block
+    public int getTileX(int i) {
+        return tiles[2 * i];
+    }
+
+    // REQUIRES: 0 <= i < 4
+    // EFFECTS: returns the y coordinate on the board of tile i of the falling block
+    public int getTileY(int i) {
+        return tiles[2 * i + 1];
+    }
+
+    public Tetromino getShape() {
+        return shape;
+    }
+
+    public int getDropDistance() {
+        return dropDistance;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public boolean isEnded() {
+        return ended;
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+}
@@ -0,0 +1,16 @@
+package model;
+
+/**
+ * Enumeration of the seeded piece generators that a game can be created with
+ */
+public enum GeneratorType {
+    Uniform, Bag;
+
+    // EFFECTS: returns a new generator of this type whose sequence of shapes is determined by seed
+    public PieceGenerator create(long seed) {
+        if (this == Bag) {
+            return new BagGenerator(seed);
+        }
+        return new UniformGenerator(seed);
+    }
+}
@@ -0,0 +1,103 @@
+package model;
+
+/**
+ * Represents a bounded queue of timestamped moves passed from one input thread to the thread that
+ * ticks the game. The queue is a ring of preallocated slots that is safe without locks for exactly
+ * one producer and one consumer: each side owns its own index and only publishes it through a
+ * volatile write, so offering or polling a move never allocates or blocks
+ */
+public class InputQueue {
+    private static final Moves[] MOVES = Moves.values();
+
+    private final byte[] moves;
+    private final long[] timestamps;
+    private final int mask;
+
+    // written only by the consumer
+    private volatile long head;
+    private long cachedTail;
+    private long lastTimestamp;
+
+    // written only by the producer
+    private volatile long tail;
+    private long cachedHead;
+    private volatile long dropped;
+
+    // EFFECTS: initializes an empty queue that holds up to capacity moves;
+    //          throws IllegalArgumentException if capacity is not a positive power of two
+    public InputQueue(int capacity) {
+        if (capacity <= 0 || (capacity & (capacity - 1)) != 0) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+
+        moves = new byte[capacity];
+        timestamps = new long[capacity];
+        mask = capacity - 1;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds move, made at the given time, to the back of the queue and returns true;
+    //          if the queue is full the move is dropped and false is returned. Producer thread only
+    public boolean offer(Moves move, long timestamp) {
+        long t = tail;
+        if (t - cachedHead > mask) {
+            cachedHead = head;
+            if (t - cachedHead > mask) {
+                dropped++;
+                return false;
+            }
+        }
+
+        int i = (int) t & mask;
+        moves[i] = (byte) move.ordinal();
+        timestamps[i] = timestamp;
+        tail = t + 1;
+        return true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes and returns the move at the front of the queue, or returns null if the queue
+    //          is empty. Consumer thread only
+    public Moves poll() {
+        long h = head;
+        if (h == cachedTail) {
+            cachedTail = tail;
+            if (h == cachedTail) {
+                return null;
+            }
+        }
+
+        int i = (int) h & mask;
+        Moves move = MOVES[moves[i]];
+        lastTimestamp = timestamps[i];
+        head = h + 1;
+        return move;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: discards every move in the queue. Consumer thread only
+    public void clear() {
+        cachedTail = tail;
+        head = cachedTail;
+    }
+
+    // EFFECTS: returns the number of moves waiting in the queue
+    public int size() {
+        return (int) (tail - head);
+    }
+
+    // EFFECTS: returns the maximum number of moves the queue can hold
+    public int capacity() {
+        return mask + 1;
+    }
+
+    // EFFECTS: returns the time at which the most recently polled move was made
+    public long getLastTimestamp() {
+        return lastTimestamp;
+    }
+
+    // EFFECTS: returns the number of moves that were dropped because the queue was full
+    public long getDropped() {
+        return dropped;
+    }
+}
@@ -0,0 +1,10 @@
+package model;
+
+/**
+ * An interface for objects that are told about every block a game locks onto its board
+ */
+public interface LockObserver {
+    // EFFECTS: responds to block being locked onto game's board and clearing linesCleared rows; called at
+    //          the end of the tick, once the next block has spawned
+    void locked(Game game, Block block, int linesCleared);
+}
@@ -0,0 +1,10 @@
+package model;
+
+/**
+ * An interface for sources of the shapes of the blocks that are spawned in a game
+ */
+public interface PieceGenerator {
+    // MODIFIES: this
+    // EFFECTS: returns the shape of the next block, which is never Empty
+    Tetromino next();
+}
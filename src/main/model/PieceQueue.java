@@ -0,0 +1,51 @@
+package model;
+
+/**
+ * Represents the bounded queue of upcoming shapes that are previewed before they spawn.
+ * Shapes are kept in a ring that is refilled from a piece generator as they are taken
+ */
+public class PieceQueue {
+    private final PieceGenerator generator;
+    private final Tetromino[] ring;
+    private int head = 0;
+
+    // REQUIRES: size > 0
+    // EFFECTS: initializes a queue holding the next size shapes from generator
+    public PieceQueue(PieceGenerator generator, int size) {
+        this.generator = generator;
+        ring = new Tetromino[size];
+        for (int i = 0; i < size; i++) {
+            ring[i] = generator.next();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes and returns the shape at the front of the queue, and adds the generator's
+    //          next shape to the back
+    public Tetromino next() {
+        Tetromino t = ring[head];
+        ring[head] = generator.next();
+        head = head + 1 == ring.length ? 0 : head + 1;
+        return t;
+    }
+
+    // REQUIRES: 0 <= i < size()
+    // EFFECTS: returns the shape that will be returned by the (i + 1)th call to next
+    public Tetromino peek(int i) {
+        int index = head + i;
+        return ring[index < ring.length ? index : index - ring.length];
+    }
+
+    // REQUIRES: 0 <= i < size(), t is not Empty
+    // MODIFIES: this
+    // EFFECTS: replaces the shape that will be returned by the (i + 1)th call to next with t
+    void set(int i, Tetromino t) {
+        int index = head + i;
+        ring[index < ring.length ? index : index - ring.length] = t;
+    }
+
+    // EFFECTS: returns the number of shapes that can be previewed
+    public int size() {
+        return ring.length;
+    }
+}
@@ -1,8 +1,11 @@
 package model;
 
 import org.json.JSONObject;
+import persistence.JsonStreamWriter;
 import persistence.Writable;
 
+import java.io.IOException;
+
 /**
  * Represents a position with coordinates x,y
  */
@@ -32,10 +35,20 @@ public class Position implements Writable {
     }
 
     //EFFECTS: returns all the fields of this as a JSONObject
+    @Override
     public JSONObject toJson() {
         JSONObject json = new JSONObject();
         json.put("x", posX);
         json.put("y", posY);
         return json;
     }
+
+    //EFFECTS: writes all the fields of this to out as a JSON object
+    @Override
+    public void writeJson(JsonStreamWriter out) throws IOException {
+        out.beginObject();
+        out.name("x").value(posX);
+        out.name("y").value(posY);
+        out.endObject();
+    }
 }
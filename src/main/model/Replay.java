@@ -0,0 +1,130 @@
+package model;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Represents a recorded game: the generator type and seed it was created with, the encoded stream
+ * of inputs, and the number of ticks, score and board fingerprint it ended with
+ */
+public class Replay {
+    private static final short MAGIC = 0x5452;
+    private static final byte VERSION = 1;
+    private static final int HEADER_SIZE = 2 + 1 + 1 + 8 + 4 + 8 + 4 + 8 + 4;
+    private static final int MOVE_COUNT = Moves.values().length;
+    private static final int MAX_VARINT_BYTES = 10;
+
+    private final GeneratorType generatorType;
+    private final long seed;
+    private final byte[] inputs;
+    private final int inputCount;
+    private final long finalTicks;
+    private final int finalScore;
+    private final long finalFingerprint;
+
+    // EFFECTS: initializes a replay with the given recording and final state
+    public Replay(GeneratorType generatorType, long seed, byte[] inputs, int inputCount,
+                  long finalTicks, int finalScore, long finalFingerprint) {
+        this.generatorType = generatorType;
+        this.seed = seed;
+        this.inputs = inputs;
+        this.inputCount = inputCount;
+        this.finalTicks = finalTicks;
+        this.finalScore = finalScore;
+        this.finalFingerprint = finalFingerprint;
+    }
+
+    // EFFECTS: returns this replay encoded as a header followed by the input stream
+    public byte[] toBytes() {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + inputs.length);
+        buffer.putShort(MAGIC).put(VERSION).put((byte) generatorType.ordinal()).putLong(seed);
+        buffer.putInt(inputCount).putLong(finalTicks).putInt(finalScore).putLong(finalFingerprint);
+        buffer.putInt(inputs.length).put(inputs);
+        return buffer.array();
+    }
+
+    // EFFECTS: returns the replay encoded in bytes;
+    //          throws IllegalArgumentException if bytes is not a valid replay, including when its input
+    //          stream does not hold inputCount whole inputs of known moves within its final ticks
+    public static Replay fromBytes(byte[] bytes) {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            if (buffer.getShort() != MAGIC || buffer.get() != VERSION) {
+                throw new IllegalArgumentException("Not a replay");
+            }
+
+            GeneratorType type = GeneratorType.values()[buffer.get()];
+            long seed = buffer.getLong();
+            int inputCount = buffer.getInt();
+            long ticks = buffer.getLong();
+            int score = buffer.getInt();
+            long fingerprint = buffer.getLong();
+            int length = buffer.getInt();
+            if (length < 0 || length > buffer.remaining()) {
+                throw new IllegalArgumentException("Truncated or corrupt replay");
+            }
+            byte[] inputs = new byte[length];
+            buffer.get(inputs);
+            checkInputs(inputs, inputCount, ticks);
+            return new Replay(type, seed, inputs, inputCount, ticks, score, fingerprint);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | NegativeArraySizeException e) {
+            throw new IllegalArgumentException("Truncated or corrupt replay", e);
+        }
+    }
+
+    // EFFECTS: throws IllegalArgumentException unless inputs holds at least inputCount whole varints, each
+    //          of a known move and a tick delta, whose deltas add up to no more than finalTicks
+    private static void checkInputs(byte[] inputs, int inputCount, long finalTicks) {
+        int pos = 0;
+        long ticks = 0;
+        for (int i = 0; i < inputCount; i++) {
+            long value = 0;
+            int start = pos;
+            byte b;
+            do {
+                if (pos == inputs.length || pos - start == MAX_VARINT_BYTES) {
+                    throw new IllegalArgumentException("Truncated or corrupt replay input " + i);
+                }
+                b = inputs[pos++];
+                value |= (long) (b & 0x7F) << (7 * (pos - start - 1));
+            } while (b < 0);
+
+            ticks += value >>> ReplayRecorder.MOVE_BITS;
+            if ((value & ((1 << ReplayRecorder.MOVE_BITS) - 1)) >= MOVE_COUNT || ticks < 0 || ticks > finalTicks) {
+                throw new IllegalArgumentException("Corrupt replay input " + i);
+            }
+        }
+        if (inputCount < 0) {
+            throw new IllegalArgumentException("Corrupt replay input count " + inputCount);
+        }
+    }
+
+    public GeneratorType getGeneratorType() {
+        return generatorType;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    // EFFECTS: returns the encoded input stream; callers must not modify it
+    byte[] getInputs() {
+        return inputs;
+    }
+
+    public int getInputCount() {
+        return inputCount;
+    }
+
+    public long getFinalTicks() {
+        return finalTicks;
+    }
+
+    public int getFinalScore() {
+        return finalScore;
+    }
+
+    public long getFinalFingerprint() {
+        return finalFingerprint;
+    }
+}
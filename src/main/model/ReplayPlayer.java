@@ -0,0 +1,77 @@
+package model;
+
+/**
+ * Represents a player that re-runs a replay through a new headless game as fast as possible
+ */
+public class ReplayPlayer {
+    private static final Moves[] MOVES = Moves.values();
+    private static final int MOVE_MASK = (1 << ReplayRecorder.MOVE_BITS) - 1;
+
+    private final Replay replay;
+    private final byte[] inputs;
+    private int pos = 0;
+
+    // EFFECTS: initializes a player for replay
+    public ReplayPlayer(Replay replay) {
+        this.replay = replay;
+        this.inputs = replay.getInputs();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: plays every recorded input on the tick it was recorded on, then ticks until the recorded
+    //          final tick, and returns the resulting game
+    public Game play() {
+        Game game = new Game(replay.getSeed(), replay.getGeneratorType());
+        game.setInputsPerTick(Game.INPUT_CAPACITY);
+        long tick = 0;
+        pos = 0;
+
+        for (int i = 0; i < replay.getInputCount(); i++) {
+            long value = readVarint();
+            long delta = value >>> ReplayRecorder.MOVE_BITS;
+            if (delta > 0) {
+                // every input of the previous tick is queued, so apply them together
+                advanceTo(game, tick);
+                tick += delta;
+                advanceTo(game, tick - 1);
+            }
+            game.input(MOVES[(int) (value & MOVE_MASK)]);
+        }
+
+        advanceTo(game, replay.getFinalTicks());
+        return game;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns true if playing the replay ends with the recorded ticks, score and board
+    public boolean verify() {
+        Game game = play();
+        return game.getTicks() == replay.getFinalTicks()
+                && game.getScore() == replay.getFinalScore()
+                && game.getBoard().fingerprint() == replay.getFinalFingerprint();
+    }
+
+    // MODIFIES: game
+    // EFFECTS: ticks game without input until it reaches the given tick or ends
+    private void advanceTo(Game game, long tick) {
+        while (game.getTicks() < tick && !game.isEnded()) {
+            game.tick();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the next unsigned LEB128 varint from the input stream
+    private long readVarint() {
+        long value = 0;
+        int shift = 0;
+        byte b;
+
+        do {
+            b = inputs[pos++];
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+
+        return value;
+    }
+}
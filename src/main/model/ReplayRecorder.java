@@ -0,0 +1,58 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * Represents a recorder that captures every move applied to a seeded game together with the tick
+ * it was applied on. Each input is stored as one varint holding the number of ticks since the
+ * previous input and the move, so most inputs take a single byte
+ */
+public class ReplayRecorder {
+    static final int MOVE_BITS = 3;
+
+    private final long seed;
+    private final GeneratorType generatorType;
+    private byte[] buffer = new byte[256];
+    private int size = 0;
+    private int inputCount = 0;
+    private long lastTick = 0;
+
+    // EFFECTS: initializes a recorder for a game that was created with the given seed and generator type
+    public ReplayRecorder(long seed, GeneratorType generatorType) {
+        this.seed = seed;
+        this.generatorType = generatorType;
+    }
+
+    // REQUIRES: tick >= the tick of the previously recorded move
+    // MODIFIES: this
+    // EFFECTS: records that move was applied on the given tick
+    public void record(long tick, Moves move) {
+        writeVarint(((tick - lastTick) << MOVE_BITS) | move.ordinal());
+        lastTick = tick;
+        inputCount++;
+    }
+
+    // EFFECTS: returns a replay of everything recorded so far, ending in the current state of game
+    public Replay finish(Game game) {
+        return new Replay(generatorType, seed, Arrays.copyOf(buffer, size), inputCount,
+                game.getTicks(), game.getScore(), game.getBoard().fingerprint());
+    }
+
+    public int getInputCount() {
+        return inputCount;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: appends value to the buffer as an unsigned LEB128 varint, growing the buffer if needed
+    private void writeVarint(long value) {
+        if (size + 10 > buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+
+        while ((value & ~0x7FL) != 0) {
+            buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[size++] = (byte) value;
+    }
+}
@@ -0,0 +1,22 @@
+package model;
+
+/**
+ * Represents a piece generator that repeats a fixed sequence of shapes
+ */
+public class SequenceGenerator implements PieceGenerator {
+    private final Tetromino[] sequence;
+    private int next = 0;
+
+    // REQUIRES: sequence is not empty and does not contain Empty
+    // EFFECTS: initializes a generator that deals out sequence in order, then starts over
+    public SequenceGenerator(Tetromino... sequence) {
+        this.sequence = sequence.clone();
+    }
+
+    @Override
+    public Tetromino next() {
+        Tetromino t = sequence[next];
+        next = (next + 1) % sequence.length;
+        return t;
+    }
+}
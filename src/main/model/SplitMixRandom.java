@@ -0,0 +1,32 @@
+package model;
+
+/**
+ * Represents a fast, non-synchronized pseudo-random number generator (SplitMix64).
+ * Two generators created with the same seed always produce the same sequence
+ */
+public class SplitMixRandom {
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private long state;
+
+    // EFFECTS: initializes a generator with the given seed
+    public SplitMixRandom(long seed) {
+        state = seed;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the next pseudo-random long
+    public long nextLong() {
+        long z = state += GOLDEN_GAMMA;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    // REQUIRES: bound > 0
+    // MODIFIES: this
+    // EFFECTS: returns a pseudo-random int in [0, bound)
+    public int nextInt(int bound) {
+        return (int) (((nextLong() >>> 32) * bound) >>> 32);
+    }
+}
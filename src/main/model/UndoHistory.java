@@ -0,0 +1,84 @@
+package model;
+
+/**
+ * Represents the states of a game at its most recent locks, for undoing and redoing placements in memory.
+ * The game records its state each time a new block spawns. Each state is packed into a fixed run of longs
+ * in one preallocated ring, so recording overwrites the oldest state in place, and undoing or redoing
+ * unpacks one run back into the game; neither allocates, touches the disk or goes through JSON.
+ * Undo goes back to when the previous block spawned, and redo forward again, until the game locks a new
+ * block, which discards the states that could have been redone. The history is used on the thread that
+ * ticks the game
+ */
+public class UndoHistory {
+    private final Game game;
+    private final long[] states;
+    private final int capacity;
+    // states are numbered in the order they were recorded; these are the oldest kept, the one the game
+    // is in and the newest that can be redone
+    private long oldest;
+    private long current;
+    private long newest;
+
+    // REQUIRES: capacity > 0
+    // EFFECTS: initializes a history of game that keeps its state now and after its next capacity locks,
+    //          dropping the oldest after that
+    UndoHistory(Game game, int capacity) {
+        this.game = game;
+        this.capacity = capacity + 1;
+        this.states = new long[this.capacity * Game.PACKED_WORDS];
+        game.pack(states, 0);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records the game's state as the newest, dropping the oldest if the history is full and any
+    //          states that could have been redone
+    void record() {
+        current++;
+        newest = current;
+        if (current - oldest == capacity) {
+            oldest++;
+        }
+        game.pack(states, offset(current));
+    }
+
+    // MODIFIES: this, game
+    // EFFECTS: puts the game back in the state it was in when the previous block spawned and returns true,
+    //          or returns false if that state is no longer kept
+    public boolean undo() {
+        if (current == oldest) {
+            return false;
+        }
+
+        current--;
+        game.unpack(states, offset(current));
+        return true;
+    }
+
+    // MODIFIES: this, game
+    // EFFECTS: puts the game forward to the state last undone from and returns true, or returns false if
+    //          nothing has been undone since the game last locked a block
+    public boolean redo() {
+        if (current == newest) {
+            return false;
+        }
+
+        current++;
+        game.unpack(states, offset(current));
+        return true;
+    }
+
+    // EFFECTS: returns the number of times undo can succeed in a row
+    public int getUndoCount() {
+        return (int) (current - oldest);
+    }
+
+    // EFFECTS: returns the number of times redo can succeed in a row
+    public int getRedoCount() {
+        return (int) (newest - current);
+    }
+
+    // EFFECTS: returns the index of the first long of state n
+    private int offset(long n) {
+        return (int) (n % capacity) * Game.PACKED_WORDS;
+    }
+}
@@ -0,0 +1,20 @@
+package model;
+
+/**
+ * Represents a piece generator that picks each shape independently and uniformly at random
+ */
+public class UniformGenerator implements PieceGenerator {
+    private static final Tetromino[] TETROMINOS = Tetromino.values();
+
+    private final SplitMixRandom random;
+
+    // EFFECTS: initializes a generator whose sequence of shapes is determined by seed
+    public UniformGenerator(long seed) {
+        random = new SplitMixRandom(seed);
+    }
+
+    @Override
+    public Tetromino next() {
+        return TETROMINOS[random.nextInt(TETROMINOS.length - 1) + 1];
+    }
+}
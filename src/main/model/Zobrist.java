@@ -0,0 +1,64 @@
+package model;
+
+import static model.Game.BOARD_HEIGHT;
+import static model.Game.BOARD_WIDTH;
+
+/**
+ * The random keys used to give board positions a 64-bit Zobrist hash: the hash of a board is the XOR
+ * of the keys of its filled tiles, so filling or emptying a tile changes it by a single XOR. Shapes have
+ * keys too, one per position in a sequence of pieces, so that a board can be hashed together with the
+ * pieces still to come. The keys are drawn from a fixed seed, so hashes are the same in every run
+ */
+public final class Zobrist {
+    public static final int MAX_PIECES = Game.PREVIEW_SIZE + 1;
+
+    private static final long SEED = 0x5DEECE66DL;
+    private static final int SHAPES = Tetromino.values().length;
+    private static final long[] TILE_KEYS = new long[BOARD_WIDTH * BOARD_HEIGHT];
+    private static final long[] PIECE_KEYS = new long[MAX_PIECES * SHAPES];
+
+    static {
+        SplitMixRandom random = new SplitMixRandom(SEED);
+        for (int i = 0; i < TILE_KEYS.length; i++) {
+            TILE_KEYS[i] = random.nextLong();
+        }
+        for (int i = 0; i < PIECE_KEYS.length; i++) {
+            PIECE_KEYS[i] = random.nextLong();
+        }
+    }
+
+    // EFFECTS: there are no instances; the keys are static
+    private Zobrist() {
+    }
+
+    // EFFECTS: returns the key of the tile at (x, y)
+    public static long tile(int x, int y) {
+        return TILE_KEYS[y * BOARD_WIDTH + x];
+    }
+
+    // EFFECTS: returns the hash of row y with the given occupancy mask
+    public static long row(int y, int mask) {
+        long hash = 0;
+        int offset = y * BOARD_WIDTH;
+        while (mask != 0) {
+            hash ^= TILE_KEYS[offset + Integer.numberOfTrailingZeros(mask)];
+            mask &= mask - 1;
+        }
+        return hash;
+    }
+
+    // EFFECTS: returns the hash of rows first to last, inclusive, with the given occupancy masks
+    public static long rows(int[] rows, int first, int last) {
+        long hash = 0;
+        for (int y = first; y <= last; y++) {
+            hash ^= row(y, rows[y]);
+        }
+        return hash;
+    }
+
+    // REQUIRES: 0 <= i < MAX_PIECES
+    // EFFECTS: returns the key of shape t as the i-th piece of a sequence
+    public static long piece(int i, Tetromino t) {
+        return PIECE_KEYS[i * SHAPES + t.ordinal()];
+    }
+}
@@ -0,0 +1,458 @@
+package persistence;
+
+import model.Block;
+import model.Board;
+import model.Game;
+import model.GameObserver;
+import model.LockObserver;
+import model.Tetromino;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+
+/**
+ * Represents an autosave of a game that is kept up to date at every lock by appending a small record to a
+ * preallocated file, instead of rewriting a whole save. Each lock appends a delta: the shape and tiles of
+ * the block locked, the rows it cleared, the change in score, the shape that spawned next and whether the
+ * game ended. Every checkpointInterval locks, and whenever the game is rewound, a checkpoint of the whole
+ * game in the binary save format is appended instead. Every record ends in a CRC32 of itself, and the
+ * unwritten rest of the file is zeros, so a record torn by a crash is found and ignored: recovery parses
+ * the last checkpoint and replays the deltas after it.
+ * Once the file is half full, the next checkpoint compacts it by writing that checkpoint to a spare file
+ * and carrying on in the spare. Everything that waits on the disk runs on a background thread, in order:
+ * forcing each checkpoint, forcing the spare and atomically moving it over the journal, and preallocating
+ * and zero-filling the next spare. The game thread only writes records, which reach the file as soon as
+ * they are appended, so they survive the process dying; it only waits if a spare is needed before the
+ * last one is ready. Locks journalled between a compaction and its move are lost if the machine crashes
+ * in that window, since recovery then finds the old journal
+ */
+public class AutosaveJournal implements LockObserver, GameObserver, AutoCloseable {
+    public static final int MAGIC = 0x544A524E;
+    public static final byte VERSION = 1;
+    public static final int HEADER_SIZE = 5;
+    public static final byte DELTA = 1;
+    public static final byte CHECKPOINT = 2;
+    public static final int DELTA_SIZE = 13;
+    public static final int CHECKSUM_SIZE = 4;
+    public static final String SPARE_SUFFIX = ".next";
+    private static final Tetromino[] TETROMINOS = Tetromino.values();
+    private static final int BUFFER_SIZE = 256;
+    private static final int ZERO_CHUNK = 1 << 16;
+
+    private final Path path;
+    private final Path sparePath;
+    private final long capacity;
+    private final int checkpointInterval;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final CRC32 crc = new CRC32();
+    private Game game;
+    private FileChannel channel;
+    private long position;
+    private int lastScore;
+    private int sinceCheckpoint;
+    private ExecutorService background;
+    private Future<?> pending;
+    private volatile FileChannel spare;
+    private volatile IOException backgroundFailure;
+    private IOException failure;
+    private long deltas = 0;
+    private long checkpoints = 0;
+    private long compactions = 0;
+
+    // REQUIRES: capacity is large enough for a checkpoint and checkpointInterval deltas, checkpointInterval > 0
+    // EFFECTS: initializes a journal kept in the file at path, preallocated to capacity bytes, that writes a
+    //          checkpoint every checkpointInterval locks; nothing is written until a game is attached
+    public AutosaveJournal(String path, long capacity, int checkpointInterval) {
+        this.path = Paths.get(path);
+        this.sparePath = Paths.get(path + SPARE_SUFFIX);
+        this.capacity = capacity;
+        this.checkpointInterval = checkpointInterval;
+    }
+
+    // MODIFIES: this, game
+    // EFFECTS: starts saving game at every lock, replacing whatever the journal held with a checkpoint of it
+    //          now, and waits for that to reach the disk; throws IOException if the journal cannot be written
+    public synchronized void attach(Game game) throws IOException {
+        if (failure != null) {
+            throw failure;
+        }
+
+        this.game = game;
+        game.addLockObserver(this);
+        game.addObserver(this);
+        if (background == null) {
+            background = Executors.newSingleThreadExecutor(AutosaveJournal::newThread);
+            pending = background.submit(this::prepareSpare);
+        }
+        compact();
+        awaitBackground();
+    }
+
+    // EFFECTS: waits for the background thread to finish forcing and moving what has been written so far;
+    //          throws IOException if any of that failed
+    public synchronized void sync() throws IOException {
+        awaitBackground();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: appends a delta for block, or a checkpoint if one is due, if game is the attached game;
+    //          if writing fails, the journal stops and the failure is thrown by close
+    @Override
+    public synchronized void locked(Game game, Block block, int linesCleared) {
+        if (game != this.game || failure != null) {
+            return;
+        }
+
+        try {
+            checkBackground();
+            int scoreDelta = game.getScore() - lastScore;
+            if (++sinceCheckpoint >= checkpointInterval || scoreDelta != (byte) scoreDelta) {
+                checkpoint();
+            } else if (position + DELTA_SIZE > capacity) {
+                compact();
+            } else {
+                appendDelta(block, linesCleared, scoreDelta);
+            }
+        } catch (IOException e) {
+            failure = e;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: appends a checkpoint if the attached game has been rewound
+    @Override
+    public synchronized void update(Game game, String event) {
+        if (game != this.game || failure != null || !Game.EVENT_RESTORED.equals(event)) {
+            return;
+        }
+
+        try {
+            checkpoint();
+        } catch (IOException e) {
+            failure = e;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops saving, forces the journal to the disk and closes it, removing the spare file;
+    //          throws IOException if any write failed
+    @Override
+    public synchronized void close() throws IOException {
+        game = null;
+        if (background != null) {
+            background.shutdown();
+            try {
+                awaitBackground();
+            } catch (IOException e) {
+                failure = failure == null ? e : failure;
+            }
+        }
+        if (spare != null) {
+            spare.close();
+            spare = null;
+            Files.deleteIfExists(sparePath);
+        }
+        if (channel != null) {
+            channel.force(false);
+            channel.close();
+            channel = null;
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    // EFFECTS: returns the game saved in the journal at path, by parsing its last checkpoint and replaying
+    //          the deltas after it, ignoring anything from the first record that is torn or unwritten on;
+    //          returns null if the file does not exist or holds no checkpoint. Throws IOException if the
+    //          file cannot be read or is not a journal
+    public static Game recover(String path) throws IOException {
+        ByteBuffer in;
+        try {
+            in = ByteBuffer.wrap(Files.readAllBytes(Paths.get(path)));
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+        if (in.remaining() < HEADER_SIZE || in.getInt(0) != MAGIC || in.get(4) != VERSION) {
+            throw new IOException(path + " is not an autosave journal");
+        }
+
+        int checkpoint = lastCheckpoint(in);
+        if (checkpoint < 0) {
+            return null;
+        }
+
+        int length = in.getShort(checkpoint + 1) & 0xFFFF;
+        Game game = BinaryReader.parseGame(in.duplicate().position(checkpoint + 3).limit(checkpoint + 3 + length));
+        for (int at = checkpoint + recordSize(in, checkpoint); recordSize(in, at) > 0; at += DELTA_SIZE) {
+            applyDelta(game, in, at);
+        }
+        return game;
+    }
+
+    // EFFECTS: returns the offset of the last checkpoint before the first torn or unwritten record in the
+    //          journal in, or -1 if there is none
+    private static int lastCheckpoint(ByteBuffer in) {
+        int checkpoint = -1;
+        for (int at = HEADER_SIZE, size = recordSize(in, at); size > 0; at += size, size = recordSize(in, at)) {
+            if (in.get(at) == CHECKPOINT) {
+                checkpoint = at;
+            }
+        }
+        return checkpoint;
+    }
+
+    // EFFECTS: returns the size of the valid record at offset at in the journal in, or -1 if there is no
+    //          whole record there or its checksum does not match
+    private static int recordSize(ByteBuffer in, int at) {
+        if (at >= in.limit()) {
+            return -1;
+        }
+
+        int size;
+        if (in.get(at) == DELTA) {
+            size = DELTA_SIZE;
+        } else if (in.get(at) == CHECKPOINT && at + 3 <= in.limit()) {
+            size = 3 + (in.getShort(at + 1) & 0xFFFF) + CHECKSUM_SIZE;
+        } else {
+            return -1;
+        }
+        if (at + size > in.limit()) {
+            return -1;
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(in.array(), at, size - CHECKSUM_SIZE);
+        return (int) crc.getValue() == in.getInt(at + size - CHECKSUM_SIZE) ? size : -1;
+    }
+
+    // MODIFIES: game
+    // EFFECTS: applies the delta at offset at in the journal in to game: locks its tiles, clears the full
+    //          rows, adds the change in score and spawns the next block
+    private static void applyDelta(Game game, ByteBuffer in, int at) {
+        int shapes = in.get(at + 1);
+        Tetromino shape = TETROMINOS[shapes >> 4 & 0xF];
+        Board board = game.getBoard();
+        for (int i = 0; i < 4; i++) {
+            int tile = in.get(at + 2 + i) & 0xFF;
+            board.set(tile % Game.BOARD_WIDTH, tile / Game.BOARD_WIDTH, shape);
+        }
+        board.clearFullRows();
+
+        game.setScore(game.getScore() + in.get(at + 7));
+        game.setCurBlock(new Block(TETROMINOS[shapes & 0xF]));
+        game.setEnded(in.get(at + 8) != 0);
+        game.setTicksUntilFall(Game.TICKS_PER_FALL - 1);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: appends a delta for block locking and clearing linesCleared rows, changing the score by
+    //          scoreDelta
+    private void appendDelta(Block block, int linesCleared, int scoreDelta) throws IOException {
+        buffer.clear();
+        buffer.put(DELTA);
+        buffer.put((byte) (block.getShape().ordinal() << 4 | game.getCurBlock().getShape().ordinal()));
+        for (int i = 0; i < 4; i++) {
+            buffer.put((byte) (block.getTileY(i) * Game.BOARD_WIDTH + block.getTileX(i)));
+        }
+        buffer.put((byte) linesCleared);
+        buffer.put((byte) scoreDelta);
+        buffer.put((byte) (game.isEnded() ? 1 : 0));
+        position += write(channel, position);
+        lastScore = game.getScore();
+        deltas++;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: appends a checkpoint of the game and has the background thread force it to the disk,
+    //          compacting the journal instead if it is at least half full
+    private void checkpoint() throws IOException {
+        if (position >= capacity / 2) {
+            compact();
+            return;
+        }
+
+        position += writeCheckpoint(channel, position);
+        FileChannel out = channel;
+        pending = background.submit(() -> force(out));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts a new journal in the spare file with a checkpoint of the game and carries on in it,
+    //          leaving the background thread to move it over the old journal and prepare the next spare
+    private void compact() throws IOException {
+        awaitSpare();
+        FileChannel next = spare;
+        spare = null;
+
+        buffer.clear();
+        buffer.putInt(MAGIC).put(VERSION).flip();
+        while (buffer.hasRemaining()) {
+            next.write(buffer, buffer.position());
+        }
+        long written = HEADER_SIZE + writeCheckpoint(next, HEADER_SIZE);
+
+        FileChannel old = channel;
+        channel = next;
+        position = written;
+        compactions++;
+        pending = background.submit(() -> replace(old, next));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes a checkpoint of the game to out at offset at and returns its size
+    private int writeCheckpoint(FileChannel out, long at) throws IOException {
+        buffer.clear();
+        buffer.put(CHECKPOINT).putShort((short) 0);
+        game.writeBinary(buffer);
+        buffer.putShort(1, (short) (buffer.position() - 3));
+        sinceCheckpoint = 0;
+        lastScore = game.getScore();
+        checkpoints++;
+        return write(out, at);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds a CRC32 of the record in buffer, writes the record to out at offset at, and returns its
+    //          size
+    private int write(FileChannel out, long at) throws IOException {
+        ByteBuffer record = buffer.duplicate();
+        record.flip();
+        crc.reset();
+        crc.update(record);
+        buffer.putInt((int) crc.getValue());
+
+        buffer.flip();
+        int size = buffer.remaining();
+        while (buffer.hasRemaining()) {
+            out.write(buffer, at + buffer.position());
+        }
+        return size;
+    }
+
+    // EFFECTS: returns a daemon thread for the background work of a journal that runs task
+    private static Thread newThread(Runnable task) {
+        Thread thread = new Thread(task, "autosave");
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: forces out to the disk on the background thread; records the failure if it cannot be written
+    private void force(FileChannel out) {
+        try {
+            out.force(false);
+        } catch (IOException e) {
+            backgroundFailure = e;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: on the background thread, forces the spare next to the disk, moves it over the journal and
+    //          closes the old journal, if any, then prepares the next spare; records the failure if any of
+    //          that fails
+    private void replace(FileChannel old, FileChannel next) {
+        try {
+            next.force(true);
+            try {
+                Files.move(sparePath, path, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(sparePath, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+            if (old != null) {
+                old.close();
+            }
+        } catch (IOException e) {
+            backgroundFailure = e;
+            return;
+        }
+        prepareSpare();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: creates the spare file, replacing any left by an earlier session, and fills it with zeros;
+    //          records the failure if it cannot be written
+    private void prepareSpare() {
+        try {
+            FileChannel file = FileChannel.open(sparePath, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            ByteBuffer zeros = ByteBuffer.allocateDirect(ZERO_CHUNK);
+            for (long at = 0; at < capacity; at += ZERO_CHUNK) {
+                zeros.clear().limit((int) Math.min(ZERO_CHUNK, capacity - at));
+                while (zeros.hasRemaining()) {
+                    file.write(zeros, at + zeros.position());
+                }
+            }
+            file.force(true);
+            spare = file;
+        } catch (IOException e) {
+            backgroundFailure = e;
+        }
+    }
+
+    // EFFECTS: waits for the spare file to be ready, if it is not already; throws IOException if it could
+    //          not be created
+    private void awaitSpare() throws IOException {
+        if (spare == null) {
+            awaitBackground();
+        }
+        checkBackground();
+    }
+
+    // EFFECTS: waits for the background thread to finish its work so far; throws IOException if any of it
+    //          failed
+    private void awaitBackground() throws IOException {
+        boolean interrupted = false;
+        while (pending != null) {
+            try {
+                pending.get();
+                pending = null;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            } catch (ExecutionException e) {
+                throw new IOException("Autosave failed", e.getCause());
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        checkBackground();
+    }
+
+    // EFFECTS: throws the failure of the background thread, if it had one
+    private void checkBackground() throws IOException {
+        if (backgroundFailure != null) {
+            throw backgroundFailure;
+        }
+    }
+
+    public long getDeltas() {
+        return deltas;
+    }
+
+    public long getCheckpoints() {
+        return checkpoints;
+    }
+
+    public long getCompactions() {
+        return compactions;
+    }
+
+    // EFFECTS: returns the number of bytes written to the current journal file
+    public synchronized long getPosition() {
+        return position;
+    }
+}
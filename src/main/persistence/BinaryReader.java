@@ -0,0 +1,129 @@
+package persistence;
+
+import model.*;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Represents a reader that reads a game from a file in the compact binary save format
+ */
+public class BinaryReader {
+    private static final Tetromino[] TETROMINOS = Tetromino.values();
+    private static final Moves[] MOVES = Moves.values();
+    private static final int MAX_SIZE = 1024;
+
+    private final String source;
+
+    // EFFECTS: constructs reader to read from source file
+    public BinaryReader(String source) {
+        this.source = source;
+    }
+
+    // EFFECTS: reads game from file and returns it, or null if the file is empty;
+    //          throws IOException if an error occurs reading the file or its contents are not a valid save
+    public Game read() throws IOException {
+        ByteBuffer buffer = readFile();
+        if (!buffer.hasRemaining()) {
+            return null;
+        }
+
+        checkHeader(buffer);
+        try {
+            return parseGame(buffer);
+        } catch (BufferUnderflowException | ArrayIndexOutOfBoundsException e) {
+            throw new IOException(source + " is not a valid save", e);
+        }
+    }
+
+    // EFFECTS: reads the whole source file into a buffer ready to be read
+    private ByteBuffer readFile() throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(source), StandardOpenOption.READ)) {
+            if (channel.size() > MAX_SIZE) {
+                throw new IOException(source + " is too large to be a save");
+            }
+
+            ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // keep reading until the buffer is full or the file ends
+            }
+            buffer.flip();
+            return buffer;
+        }
+    }
+
+    // MODIFIES: buffer
+    // EFFECTS: checks the magic number, version and checksum, leaving buffer positioned at the game
+    //          and limited to exclude the checksum; throws IOException if any of them do not match
+    private void checkHeader(ByteBuffer buffer) throws IOException {
+        int size = buffer.remaining();
+        if (size < BinaryWriter.HEADER_SIZE + BinaryWriter.CHECKSUM_SIZE
+                || buffer.getInt() != BinaryWriter.MAGIC || buffer.get() != BinaryWriter.VERSION) {
+            throw new IOException(source + " is not a valid save");
+        }
+
+        int end = size - BinaryWriter.CHECKSUM_SIZE;
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, end);
+        if ((int) crc.getValue() != buffer.getInt(end)) {
+            throw new IOException(source + " is corrupt: checksum does not match");
+        }
+        buffer.limit(end);
+    }
+
+    // EFFECTS: parses game from buffer, as written by Game.writeBinary, and returns it
+    static Game parseGame(ByteBuffer buffer) {
+        boolean ended = buffer.get() != 0;
+        int score = buffer.getInt();
+        int ticksUntilFall = buffer.getShort();
+        Block curBlock = parseBlock(buffer);
+        Board board = parseBoard(buffer);
+
+        Game game = new Game();
+        game.setEnded(ended);
+        game.setScore(score);
+        game.setCurBlock(curBlock);
+        game.setBoard(board);
+        game.setTicksUntilFall(ticksUntilFall);
+        return game;
+    }
+
+    // EFFECTS: parses block from buffer and returns it
+    private static Block parseBlock(ByteBuffer buffer) {
+        Block block = new Block(TETROMINOS[buffer.get()]);
+        block.setCentrePosOnBoard(new Position(buffer.get(), buffer.get()));
+
+        Position[] relativePos = new Position[4];
+        for (int i = 0; i < 4; i++) {
+            byte packed = buffer.get();
+            relativePos[i] = new Position(packed >> 4, (byte) (packed << 4) >> 4);
+        }
+        block.setRelativePos(relativePos);
+        block.setNextMove(MOVES[buffer.get()]);
+        return block;
+    }
+
+    // EFFECTS: parses board from buffer and returns it
+    private static Board parseBoard(ByteBuffer buffer) {
+        Board board = new Board();
+
+        for (int i = 0; i < Game.BOARD_WIDTH * Game.BOARD_HEIGHT; i += 2) {
+            int packed = buffer.get() & 0xFF;
+            setCell(board, i, TETROMINOS[packed >> 4]);
+            setCell(board, i + 1, TETROMINOS[packed & 0xF]);
+        }
+
+        return board;
+    }
+
+    // MODIFIES: board
+    // EFFECTS: sets the tile at row-major index i of board to t
+    private static void setCell(Board board, int i, Tetromino t) {
+        board.set(i % Game.BOARD_WIDTH, i / Game.BOARD_WIDTH, t);
+    }
+}
@@ -0,0 +1,12 @@
+package persistence;
+
+import java.nio.ByteBuffer;
+
+/**
+ * An interface for objects that can be written in the compact binary save format
+ */
+public interface BinaryWritable {
+    // MODIFIES: buffer
+    // EFFECTS: writes this to buffer at its current position
+    void writeBinary(ByteBuffer buffer);
+}
@@ -0,0 +1,66 @@
+package persistence;
+
+import model.Game;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Represents a writer that writes a game to file in the compact binary save format:
+ * a header (magic number and version), the game, and a CRC32 checksum of everything before it
+ */
+public class BinaryWriter {
+    public static final int MAGIC = 0x54455452;
+    public static final byte VERSION = 1;
+    public static final int HEADER_SIZE = 5;
+    public static final int CHECKSUM_SIZE = 4;
+    private static final int BUFFER_SIZE = 256;
+
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final CRC32 crc = new CRC32();
+    private final String destination;
+    private FileChannel channel;
+
+    // EFFECTS: constructs writer to write to destination file
+    public BinaryWriter(String destination) {
+        this.destination = destination;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: opens the destination file, creating or truncating it;
+    //          throws IOException if it cannot be opened for writing
+    public void open() throws IOException {
+        channel = FileChannel.open(Paths.get(destination), StandardOpenOption.WRITE,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the binary representation of game to file;
+    //          throws IOException if an error occurs writing to the file
+    public void write(Game game) throws IOException {
+        buffer.clear();
+        buffer.putInt(MAGIC).put(VERSION);
+        game.writeBinary(buffer);
+
+        ByteBuffer written = buffer.duplicate();
+        written.flip();
+        crc.reset();
+        crc.update(written);
+        buffer.putInt((int) crc.getValue());
+
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: closes the file; throws IOException if it cannot be closed
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,378 @@
+package persistence;
+
+import model.Event;
+import model.EventLog;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Represents a journal that copies the event log to disk on a background thread, so that the history
+ * of a session survives a crash without the game thread doing any file I/O.
+ * Events are drained from the log in batches and appended as JSON lines ({"time":...,"event":"..."})
+ * to segment files that are rotated once they reach a given size; once there are more than maxSegments
+ * segments, the oldest is deleted with its index. Every indexInterval events, the time and byte offset of
+ * an event is added to a sparse index kept next to each segment, so a range of time can be read by seeking
+ * close to its start instead of scanning whole segments.
+ * The journal is lossy: the event log is bounded and never waits for it, so events that are overwritten
+ * or cleared from the log before they are drained are dropped and counted as skipped. Events are assumed
+ * to be logged in time order
+ */
+public class EventJournal implements AutoCloseable {
+    public static final String SEGMENT_PREFIX = "events-";
+    public static final String SEGMENT_SUFFIX = ".jsonl";
+    public static final String INDEX_SUFFIX = ".idx";
+    private static final long DRAIN_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final File directory;
+    private final long segmentBytes;
+    private final int maxSegments;
+    private final int indexInterval;
+    private final EventLog log;
+    private final List<Segment> segments = new ArrayList<>();
+    private final List<Event> batch = new ArrayList<>();
+    private final StringWriter line = new StringWriter();
+    private Segment current;
+    private OutputStream out;
+    private DataOutputStream indexOut;
+    private long nextSequence;
+    private long written = 0;
+    private long skipped = 0;
+    private IOException failure;
+    private volatile boolean running;
+    private Thread thread;
+
+    // EFFECTS: opens a journal that keeps every segment, as the constructor below does
+    public EventJournal(String directory, long segmentBytes, int indexInterval, EventLog log) throws IOException {
+        this(directory, segmentBytes, Integer.MAX_VALUE, indexInterval, log);
+    }
+
+    // REQUIRES: maxSegments > 0
+    // EFFECTS: opens a journal of the events in log from now on, starting with those it still holds, in
+    //          directory, creating the directory if needed; a new segment is started after segmentBytes
+    //          bytes, only the newest maxSegments segments are kept and every indexInterval-th event is
+    //          indexed. Segments left by earlier sessions can still be queried until they are deleted.
+    //          Throws IOException if the directory is unusable
+    public EventJournal(String directory, long segmentBytes, int maxSegments, int indexInterval, EventLog log)
+            throws IOException {
+        this.directory = new File(directory);
+        this.segmentBytes = segmentBytes;
+        this.maxSegments = maxSegments;
+        this.indexInterval = indexInterval;
+        this.log = log;
+        this.nextSequence = log.getFirstSequence();
+
+        if (!this.directory.isDirectory() && !this.directory.mkdirs()) {
+            throw new IOException("Cannot create journal directory " + directory);
+        }
+        loadSegments();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts draining the log on a background thread
+    public void start() {
+        running = true;
+        thread = new Thread(this::run, "event-journal");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: drains the log every DRAIN_INTERVAL_NANOS until stopped or writing fails
+    private void run() {
+        while (running && drain()) {
+            LockSupport.parkNanos(DRAIN_INTERVAL_NANOS);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: appends every event logged since the last drain to the journal and flushes it;
+    //          returns false if writing failed, in which case the journal stops
+    public synchronized boolean drain() {
+        if (failure != null) {
+            return false;
+        }
+
+        batch.clear();
+        long from = nextSequence;
+        nextSequence = log.drainTo(from, batch);
+        skipped += nextSequence - from - batch.size();
+
+        try {
+            for (Event event : batch) {
+                append(event);
+            }
+            if (out != null) {
+                out.flush();
+                indexOut.flush();
+            }
+            return true;
+        } catch (IOException e) {
+            failure = e;
+            return false;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops the background thread, drains the remaining events and closes the current segment;
+    //          throws IOException if any write failed
+    @Override
+    public void close() throws IOException {
+        running = false;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        synchronized (this) {
+            drain();
+            closeSegment();
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+
+    // EFFECTS: returns the events in the journal logged between fromMillis and toMillis inclusive,
+    //          oldest first; throws IOException if a segment cannot be read
+    public synchronized List<Event> query(long fromMillis, long toMillis) throws IOException {
+        List<Event> events = new ArrayList<>();
+
+        for (int i = 0; i < segments.size(); i++) {
+            Segment segment = segments.get(i);
+            if (segment.count == 0) {
+                continue;
+            } else if (segment.times[0] > toMillis) {
+                break;
+            }
+            boolean laterStartsBefore = i + 1 < segments.size() && segments.get(i + 1).count > 0
+                    && segments.get(i + 1).times[0] < fromMillis;
+            if (!laterStartsBefore) {
+                readRange(segment, fromMillis, toMillis, events);
+            }
+        }
+
+        return events;
+    }
+
+    // EFFECTS: adds the events of segment between fromMillis and toMillis to events, starting from the
+    //          last indexed event before fromMillis; lines that do not parse, such as a last line torn by a
+    //          crash, are skipped
+    private void readRange(Segment segment, long fromMillis, long toMillis, List<Event> events) throws IOException {
+        try (FileInputStream in = new FileInputStream(segment.file)) {
+            in.getChannel().position(segment.seek(fromMillis));
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+
+            String text;
+            while ((text = reader.readLine()) != null) {
+                Event event = parseLine(text);
+                if (event == null) {
+                    continue;
+                }
+                long time = event.getDate().getTime();
+                if (time > toMillis) {
+                    break;
+                } else if (time >= fromMillis) {
+                    events.add(event);
+                }
+            }
+        }
+    }
+
+    // EFFECTS: parses one line of a segment into an event, or returns null if it is not a whole event
+    private static Event parseLine(String text) {
+        JsonPullParser parser = new JsonPullParser(new StringReader(text));
+        long time = 0;
+        String description = "";
+
+        try {
+            parser.beginObject();
+            while (parser.hasNext()) {
+                String name = parser.nextName();
+                if ("time".equals(name)) {
+                    time = parser.nextLong();
+                } else if ("event".equals(name)) {
+                    description = parser.nextString();
+                } else {
+                    parser.skipValue();
+                }
+            }
+            parser.endObject();
+        } catch (IOException e) {
+            return null;
+        }
+
+        return new Event(new Date(time), description);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes event as one line of the current segment, starting a new segment first if the
+    //          current one is full, and indexes it if it is due
+    private void append(Event event) throws IOException {
+        if (current == null || current.length >= segmentBytes) {
+            openSegment();
+        }
+
+        long time = event.getDate().getTime();
+        if (current.eventsSinceIndex == 0) {
+            current.addIndex(time, current.length);
+            indexOut.writeLong(time);
+            indexOut.writeLong(current.length);
+        }
+        current.eventsSinceIndex = (current.eventsSinceIndex + 1) % indexInterval;
+
+        line.getBuffer().setLength(0);
+        JsonStreamWriter json = new JsonStreamWriter(line, true);
+        json.beginObject();
+        json.name("time").value(time);
+        json.name("event").value(event.getDescription());
+        json.endObject();
+        line.write('\n');
+
+        byte[] bytes = line.toString().getBytes(StandardCharsets.UTF_8);
+        out.write(bytes);
+        current.length += bytes.length;
+        written++;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: closes the current segment and starts a new one, named after the current time so that
+    //          segments sort in the order they were written
+    private void openSegment() throws IOException {
+        closeSegment();
+
+        long stamp = System.currentTimeMillis();
+        File file;
+        do {
+            file = new File(directory, String.format("%s%013d%s", SEGMENT_PREFIX, stamp++, SEGMENT_SUFFIX));
+        } while (file.exists());
+
+        current = new Segment(file);
+        segments.add(current);
+        out = new BufferedOutputStream(new FileOutputStream(file));
+        indexOut = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(current.index)));
+        deleteOldSegments();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: deletes the oldest segments and their indexes until at most maxSegments are left
+    private void deleteOldSegments() throws IOException {
+        while (segments.size() > maxSegments) {
+            Segment oldest = segments.remove(0);
+            Files.deleteIfExists(oldest.file.toPath());
+            Files.deleteIfExists(oldest.index.toPath());
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: flushes and closes the current segment and its index, if any
+    private void closeSegment() throws IOException {
+        if (current != null) {
+            try {
+                out.close();
+            } finally {
+                indexOut.close();
+                current = null;
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the index of every segment already in the directory, oldest first
+    private void loadSegments() throws IOException {
+        File[] files = directory.listFiles((dir, name) -> name.startsWith(SEGMENT_PREFIX)
+                && name.endsWith(SEGMENT_SUFFIX));
+        if (files == null) {
+            throw new IOException("Cannot list journal directory " + directory);
+        }
+        Arrays.sort(files);
+
+        for (File file : files) {
+            Segment segment = new Segment(file);
+            segment.length = file.length();
+            if (segment.index.exists()) {
+                try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                        new FileInputStream(segment.index)))) {
+                    for (long i = segment.index.length() / 16; i > 0; i--) {
+                        segment.addIndex(in.readLong(), in.readLong());
+                    }
+                }
+            }
+            segments.add(segment);
+        }
+    }
+
+    public long getWritten() {
+        return written;
+    }
+
+    public long getSkipped() {
+        return skipped;
+    }
+
+    // EFFECTS: returns the number of segment files in the journal
+    public synchronized int getSegmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Represents one segment file of the journal and its sparse index of (time, byte offset) entries
+     */
+    private static class Segment {
+        private final File file;
+        private final File index;
+        private long[] times = new long[16];
+        private long[] offsets = new long[16];
+        private int count = 0;
+        private long length = 0;
+        private int eventsSinceIndex = 0;
+
+        // EFFECTS: initializes a segment stored in file, with its index next to it
+        Segment(File file) {
+            this.file = file;
+            String name = file.getName();
+            this.index = new File(file.getParentFile(),
+                    name.substring(0, name.length() - SEGMENT_SUFFIX.length()) + INDEX_SUFFIX);
+        }
+
+        // MODIFIES: this
+        // EFFECTS: adds an index entry for an event at the given time and offset
+        void addIndex(long time, long offset) {
+            if (count == times.length) {
+                times = Arrays.copyOf(times, count * 2);
+                offsets = Arrays.copyOf(offsets, count * 2);
+            }
+            times[count] = time;
+            offsets[count] = offset;
+            count++;
+        }
+
+        // EFFECTS: returns the offset of the last indexed event before time, or 0 if there is none
+        long seek(long time) {
+            int lo = 0;
+            int hi = count - 1;
+            long offset = 0;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                if (times[mid] < time) {
+                    offset = offsets[mid];
+                    lo = mid + 1;
+                } else {
+                    hi = mid - 1;
+                }
+            }
+            return offset;
+        }
+    }
+}
@@ -0,0 +1,483 @@
+package persistence;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * Represents a pull parser that reads JSON tokens from a character stream one at a time,
+ * in a single pass and without building a document tree. The caller asks for the token it
+ * expects next; a token of the wrong kind or malformed JSON causes an IOException
+ */
+public class JsonPullParser {
+    /**
+     * Enumeration of the kinds of token the parser can return
+     */
+    public enum Token {
+        BEGIN_OBJECT, END_OBJECT, BEGIN_ARRAY, END_ARRAY, NAME, STRING, NUMBER, BOOLEAN, NULL, END_DOCUMENT
+    }
+
+    private static final int BUFFER_SIZE = 8192;
+    private static final int EMPTY_DOCUMENT = 0;
+    private static final int NONEMPTY_DOCUMENT = 1;
+    private static final int EMPTY_OBJECT = 2;
+    private static final int NONEMPTY_OBJECT = 3;
+    private static final int DANGLING_NAME = 4;
+    private static final int EMPTY_ARRAY = 5;
+    private static final int NONEMPTY_ARRAY = 6;
+
+    private final Reader in;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int pos = 0;
+    private int limit = 0;
+    private long offset = 0;
+    private char[] scratch = new char[32];
+    private int[] scopes = new int[16];
+    private int depth = 1;
+    private Token peeked;
+
+    // EFFECTS: constructs a parser that reads from in
+    public JsonPullParser(Reader in) {
+        this.in = in;
+        scopes[0] = EMPTY_DOCUMENT;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the kind of the next token without consuming it
+    public Token peek() throws IOException {
+        if (peeked == null) {
+            peeked = readToken();
+        }
+        return peeked;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns true if the current object or array has another element
+    public boolean hasNext() throws IOException {
+        Token token = peek();
+        return token != Token.END_OBJECT && token != Token.END_ARRAY && token != Token.END_DOCUMENT;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes the start of an object
+    public void beginObject() throws IOException {
+        expect(Token.BEGIN_OBJECT);
+        push(EMPTY_OBJECT);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes the end of the current object
+    public void endObject() throws IOException {
+        expect(Token.END_OBJECT);
+        depth--;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes the start of an array
+    public void beginArray() throws IOException {
+        expect(Token.BEGIN_ARRAY);
+        push(EMPTY_ARRAY);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes the end of the current array
+    public void endArray() throws IOException {
+        expect(Token.END_ARRAY);
+        depth--;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes the name of the next member of the current object and returns it
+    public String nextName() throws IOException {
+        expect(Token.NAME);
+        return new String(scratch, 0, readString());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes a string value and returns it
+    public String nextString() throws IOException {
+        expect(Token.STRING);
+        return new String(scratch, 0, readString());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes a string value and returns the index of the entry of names equal to it,
+    //          or -1 if there is none; the value is matched in place, without creating a String
+    public int nextStringIndex(String[] names) throws IOException {
+        expect(Token.STRING);
+        int length = readString();
+
+        for (int i = 0; i < names.length; i++) {
+            if (matches(names[i], length)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes an integer value that fits in an int and returns it
+    public int nextInt() throws IOException {
+        long value = nextLong();
+        if (value != (int) value) {
+            throw error("Integer out of range");
+        }
+        return (int) value;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes an integer value and returns it
+    public long nextLong() throws IOException {
+        expect(Token.NUMBER);
+        long value = 0;
+        boolean negative = peekChar() == '-';
+        if (negative) {
+            pos++;
+        }
+
+        int digits = 0;
+        while (isDigit(peekChar())) {
+            value = value * 10 + (buffer[pos++] - '0');
+            if (++digits > 18) {
+                throw error("Integer out of range");
+            }
+        }
+
+        if (digits == 0 || isNumberPart(peekChar())) {
+            throw error("Expected an integer");
+        }
+        return negative ? -value : value;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes a number value, which may have a fraction and an exponent, and returns it
+    public double nextDouble() throws IOException {
+        expect(Token.NUMBER);
+        int length = 0;
+        while (isNumberPart(peekChar())) {
+            if (length == scratch.length) {
+                scratch = Arrays.copyOf(scratch, length * 2);
+            }
+            scratch[length++] = buffer[pos++];
+        }
+
+        try {
+            return Double.parseDouble(new String(scratch, 0, length));
+        } catch (NumberFormatException e) {
+            throw error("Expected a number");
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes a boolean value and returns it
+    public boolean nextBoolean() throws IOException {
+        expect(Token.BOOLEAN);
+        if (peekChar() == 't') {
+            readLiteral("true");
+            return true;
+        }
+        readLiteral("false");
+        return false;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes the next value, including any nested objects and arrays, and discards it
+    public void skipValue() throws IOException {
+        int nested = 0;
+        do {
+            Token token = peek();
+            if (token == Token.BEGIN_OBJECT || token == Token.BEGIN_ARRAY) {
+                beginContainer(token);
+                nested++;
+            } else if (token == Token.END_OBJECT || token == Token.END_ARRAY) {
+                expect(token);
+                depth--;
+                nested--;
+            } else {
+                skipScalar(token);
+            }
+        } while (nested > 0);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes the start of the container that token begins
+    private void beginContainer(Token token) throws IOException {
+        if (token == Token.BEGIN_OBJECT) {
+            beginObject();
+        } else {
+            beginArray();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes a name, string, number, boolean or null token
+    private void skipScalar(Token token) throws IOException {
+        expect(token);
+        if (token == Token.NAME || token == Token.STRING) {
+            readString();
+        } else if (token == Token.NULL) {
+            readLiteral("null");
+        } else if (token == Token.BOOLEAN) {
+            readLiteral(peekChar() == 't' ? "true" : "false");
+        } else if (token == Token.NUMBER) {
+            while (isNumberPart(peekChar())) {
+                pos++;
+            }
+        } else {
+            throw error("Unexpected end of document");
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes the peeked token, throwing IOException if it is not of the expected kind
+    private void expect(Token expected) throws IOException {
+        Token token = peek();
+        if (token != expected) {
+            throw error("Expected " + expected + " but was " + token);
+        }
+        peeked = null;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: enters a new object or array scope
+    private void push(int scope) {
+        if (depth == scopes.length) {
+            int[] grown = new int[depth * 2];
+            System.arraycopy(scopes, 0, grown, 0, depth);
+            scopes = grown;
+        }
+        scopes[depth++] = scope;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the separators that come before the next token according to the current scope,
+    //          then returns the kind of that token
+    private Token readToken() throws IOException {
+        int scope = scopes[depth - 1];
+        int c = nextNonWhitespace();
+
+        if (scope == EMPTY_ARRAY || scope == NONEMPTY_ARRAY) {
+            return readInArray(scope, c);
+        } else if (scope == EMPTY_OBJECT || scope == NONEMPTY_OBJECT) {
+            return readInObject(scope, c);
+        } else if (scope == DANGLING_NAME) {
+            if (c != ':') {
+                throw error("Expected ':'");
+            }
+            scopes[depth - 1] = NONEMPTY_OBJECT;
+            return readValue(nextNonWhitespace());
+        } else if (c == -1) {
+            return Token.END_DOCUMENT;
+        } else if (scope == NONEMPTY_DOCUMENT) {
+            throw error("Unexpected content after the document");
+        }
+        scopes[depth - 1] = NONEMPTY_DOCUMENT;
+        return readValue(c);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the next token inside an array, given its first character c
+    private Token readInArray(int scope, int c) throws IOException {
+        if (c == ']') {
+            return Token.END_ARRAY;
+        }
+        if (scope == NONEMPTY_ARRAY) {
+            if (c != ',') {
+                throw error("Expected ',' or ']'");
+            }
+            c = nextNonWhitespace();
+        }
+        scopes[depth - 1] = NONEMPTY_ARRAY;
+        return readValue(c);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the next token inside an object, given its first character c
+    private Token readInObject(int scope, int c) throws IOException {
+        if (c == '}') {
+            return Token.END_OBJECT;
+        }
+        if (scope == NONEMPTY_OBJECT) {
+            if (c != ',') {
+                throw error("Expected ',' or '}'");
+            }
+            c = nextNonWhitespace();
+        }
+        if (c != '"') {
+            throw error("Expected a name");
+        }
+        scopes[depth - 1] = DANGLING_NAME;
+        return Token.NAME;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the kind of value that starts with character c; brackets and quotes are consumed,
+    //          while the first character of a number or literal is left to be read by its consumer
+    private Token readValue(int c) throws IOException {
+        switch (c) {
+            case '{':
+                return Token.BEGIN_OBJECT;
+            case '[':
+                return Token.BEGIN_ARRAY;
+            case '"':
+                return Token.STRING;
+            case 't':
+            case 'f':
+                pos--;
+                return Token.BOOLEAN;
+            case 'n':
+                pos--;
+                return Token.NULL;
+            default:
+                if (c == '-' || isDigit(c)) {
+                    pos--;
+                    return Token.NUMBER;
+                }
+                throw error("Unexpected character");
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the rest of a string whose opening quote has been consumed into scratch,
+    //          decoding escapes, and returns its length
+    private int readString() throws IOException {
+        int length = 0;
+        while (true) {
+            int c = nextChar();
+            if (c == '"') {
+                return length;
+            } else if (c == -1) {
+                throw error("Unterminated string");
+            } else if (c == '\\') {
+                c = readEscape();
+            }
+
+            if (length == scratch.length) {
+                char[] grown = new char[length * 2];
+                System.arraycopy(scratch, 0, grown, 0, length);
+                scratch = grown;
+            }
+            scratch[length++] = (char) c;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the escape sequence after a backslash and returns the character it stands for
+    private int readEscape() throws IOException {
+        int c = nextChar();
+        switch (c) {
+            case 'b':
+                return '\b';
+            case 'f':
+                return '\f';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 't':
+                return '\t';
+            case 'u':
+                return readHex();
+            case '"':
+            case '\\':
+            case '/':
+                return c;
+            default:
+                throw error("Invalid escape sequence");
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the four hex digits of a unicode escape and returns the character they encode
+    private int readHex() throws IOException {
+        int value = 0;
+        for (int i = 0; i < 4; i++) {
+            int digit = Character.digit(nextChar(), 16);
+            if (digit < 0) {
+                throw error("Invalid unicode escape");
+            }
+            value = value * 16 + digit;
+        }
+        return value;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes the given literal, throwing IOException if the input does not match it
+    private void readLiteral(String literal) throws IOException {
+        for (int i = 0; i < literal.length(); i++) {
+            if (nextChar() != literal.charAt(i)) {
+                throw error("Expected " + literal);
+            }
+        }
+    }
+
+    // EFFECTS: returns true if the first length characters of scratch equal name
+    private boolean matches(String name, int length) {
+        if (name.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (scratch[i] != name.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the next character that is not whitespace, or -1 at the end of the input
+    private int nextNonWhitespace() throws IOException {
+        int c;
+        do {
+            c = nextChar();
+        } while (c == ' ' || c == '\n' || c == '\r' || c == '\t');
+        return c;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes and returns the next character, or -1 at the end of the input
+    private int nextChar() throws IOException {
+        if (pos == limit && !fill()) {
+            return -1;
+        }
+        return buffer[pos++];
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the next character without consuming it, or -1 at the end of the input
+    private int peekChar() throws IOException {
+        if (pos == limit && !fill()) {
+            return -1;
+        }
+        return buffer[pos];
+    }
+
+    // MODIFIES: this
+    // EFFECTS: refills the buffer from the input; returns false if the input has ended
+    private boolean fill() throws IOException {
+        offset += limit;
+        pos = 0;
+        limit = 0;
+        int read = in.read(buffer, 0, buffer.length);
+        if (read <= 0) {
+            return false;
+        }
+        limit = read;
+        return true;
+    }
+
+    // EFFECTS: returns true if c is a decimal digit
+    private static boolean isDigit(int c) {
+        return c >= '0' && c <= '9';
+    }
+
+    // EFFECTS: returns true if c can appear in a JSON number
+    private static boolean isNumberPart(int c) {
+        return isDigit(c) || c == '-' || c == '+' || c == '.' || c == 'e' || c == 'E';
+    }
+
+    // EFFECTS: returns an IOException describing a parse error at the current position
+    private IOException error(String message) {
+        return new IOException(message + " at character " + (offset + pos));
+    }
+}
@@ -1,20 +1,30 @@
 package persistence;
 
+import metrics.GameMetrics;
 import model.*;
 import org.json.JSONArray;
 import org.json.JSONObject;
 
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
-import java.util.stream.Stream;
 
 /**
  * Represents a reader that reads game from JSON data stored in file
  * Designed based on JsonReader from JsonSerializationDemo
+ * The file is read in a single pass with a pull parser that fills the game as it goes,
+ * and board cells are mapped straight to tetrominos without creating a String per cell
  */
 public class JsonReader {
+    private static final Tetromino[] TETROMINOS = Tetromino.values();
+    private static final String[] TETROMINO_LABELS = labels(TETROMINOS);
+    private static final Moves[] MOVES = Moves.values();
+    private static final String[] MOVE_LABELS = labels(MOVES);
+    private static final int TILES_PER_BLOCK = 4;
+
     private String source;
 
     // EFFECTS: constructs reader to read from source file
@@ -22,26 +32,176 @@ public class JsonReader {
         this.source = source;
     }
 
-    // EFFECTS: reads game from file and returns it;
-    //          throws IOException if an error occurs reading data from file
+    // EFFECTS: reads game from file and returns it, or null if the file is empty;
+    //          throws IOException if an error occurs reading data from file or the data is malformed
     public Game read() throws IOException {
-        String jsonData = readFile(source);
-        if (jsonData.isEmpty()) {
-            return null;
+        long start = System.nanoTime();
+        try (Reader in = new InputStreamReader(Files.newInputStream(Paths.get(source)), StandardCharsets.UTF_8)) {
+            JsonPullParser parser = new JsonPullParser(in);
+            if (parser.peek() == JsonPullParser.Token.END_DOCUMENT) {
+                return null;
+            }
+            Game game = readGame(parser);
+            GameMetrics.getInstance().getJsonReadNanos().record(System.nanoTime() - start);
+            return game;
         }
-        JSONObject jsonObject = new JSONObject(jsonData);
-        return parseGame(jsonObject);
     }
 
-    // EFFECTS: reads source file as string and returns it
-    private String readFile(String source) throws IOException {
-        StringBuilder contentBuilder = new StringBuilder();
+    // EFFECTS: returns the labels of values, indexed by ordinal
+    private static String[] labels(Enum<?>[] values) {
+        String[] labels = new String[values.length];
+        for (Enum<?> value : values) {
+            labels[value.ordinal()] = value.toString();
+        }
+        return labels;
+    }
 
-        try (Stream<String> stream = Files.lines(Paths.get(source), StandardCharsets.UTF_8)) {
-            stream.forEach(contentBuilder::append);
+    // MODIFIES: parser
+    // EFFECTS: reads a game object from parser and returns it; members may come in any order
+    private Game readGame(JsonPullParser parser) throws IOException {
+        Game game = new Game();
+        parser.beginObject();
+
+        while (parser.hasNext()) {
+            readGameMember(parser, parser.nextName(), game);
         }
 
-        return contentBuilder.toString();
+        parser.endObject();
+        return game;
+    }
+
+    // MODIFIES: parser, game
+    // EFFECTS: reads the value of the game member called name from parser into game, skipping unknown members
+    private void readGameMember(JsonPullParser parser, String name, Game game) throws IOException {
+        switch (name) {
+            case "ended":
+                game.setEnded(parser.nextBoolean());
+                break;
+            case "score":
+                game.setScore(parser.nextInt());
+                break;
+            case "curBlock":
+                game.setCurBlock(readBlock(parser));
+                break;
+            case "board":
+                readBoard(parser, game.getBoard());
+                break;
+            case "ticksUntilFall":
+                game.setTicksUntilFall(parser.nextInt());
+                break;
+            default:
+                parser.skipValue();
+        }
+    }
+
+    // MODIFIES: parser
+    // EFFECTS: reads a block object from parser and returns it; members may come in any order, and the
+    //          relative positions are set last, since setting the shape resets them to its spawn rotation
+    private Block readBlock(JsonPullParser parser) throws IOException {
+        Block block = new Block();
+        Position[] relativePos = null;
+        parser.beginObject();
+
+        while (parser.hasNext()) {
+            String name = parser.nextName();
+            if ("relativePos".equals(name)) {
+                relativePos = readPositionArray(parser);
+            } else {
+                readBlockMember(parser, name, block);
+            }
+        }
+
+        parser.endObject();
+        if (relativePos != null) {
+            block.setRelativePos(relativePos);
+        }
+        return block;
+    }
+
+    // MODIFIES: parser, block
+    // EFFECTS: reads the value of the block member called name, other than relativePos, from parser into
+    //          block, skipping unknown members
+    private void readBlockMember(JsonPullParser parser, String name, Block block) throws IOException {
+        switch (name) {
+            case "shape":
+                block.setShape(TETROMINOS[readIndex(parser, TETROMINO_LABELS)]);
+                break;
+            case "centrePosOnBoard":
+                block.setCentrePosOnBoard(readPosition(parser));
+                break;
+            case "nextMove":
+                block.setNextMove(MOVES[readIndex(parser, MOVE_LABELS)]);
+                break;
+            default:
+                parser.skipValue();
+        }
+    }
+
+    // MODIFIES: parser
+    // EFFECTS: reads a position object from parser and returns it
+    private Position readPosition(JsonPullParser parser) throws IOException {
+        int x = 0;
+        int y = 0;
+        parser.beginObject();
+
+        while (parser.hasNext()) {
+            switch (parser.nextName()) {
+                case "x":
+                    x = parser.nextInt();
+                    break;
+                case "y":
+                    y = parser.nextInt();
+                    break;
+                default:
+                    parser.skipValue();
+            }
+        }
+
+        parser.endObject();
+        return new Position(x, y);
+    }
+
+    // MODIFIES: parser
+    // EFFECTS: reads the positions of a block from parser and returns them
+    private Position[] readPositionArray(JsonPullParser parser) throws IOException {
+        Position[] posArr = new Position[TILES_PER_BLOCK];
+        parser.beginArray();
+
+        for (int i = 0; i < posArr.length; i++) {
+            posArr[i] = readPosition(parser);
+        }
+
+        parser.endArray();
+        return posArr;
+    }
+
+    // MODIFIES: parser, board
+    // EFFECTS: reads the columns of the board from parser straight into board
+    private void readBoard(JsonPullParser parser, Board board) throws IOException {
+        parser.beginArray();
+
+        for (int i = 0; i < Game.BOARD_WIDTH; i++) {
+            parser.beginArray();
+
+            for (int j = 0; j < Game.BOARD_HEIGHT; j++) {
+                board.set(i, j, TETROMINOS[readIndex(parser, TETROMINO_LABELS)]);
+            }
+
+            parser.endArray();
+        }
+
+        parser.endArray();
+    }
+
+    // MODIFIES: parser
+    // EFFECTS: reads a string from parser and returns the index of the label equal to it;
+    //          throws IOException if there is none
+    private int readIndex(JsonPullParser parser, String[] labels) throws IOException {
+        int index = parser.nextStringIndex(labels);
+        if (index < 0) {
+            throw new IOException("Unknown value in " + source);
+        }
+        return index;
     }
 
     // EFFECTS: parses game from JSON object and returns it
@@ -49,7 +209,7 @@ public class JsonReader {
         Boolean ended = jsonObject.getBoolean("ended");
         int score = jsonObject.getInt("score");
         Block curBlock = parseBlock(jsonObject.getJSONObject("curBlock"));
-        Tetromino[][] board = parseBoard(jsonObject.getJSONArray("board"));
+        Board board = parseBoard(jsonObject.getJSONArray("board"));
         int ticksUntilFall = jsonObject.getInt("ticksUntilFall");
 
         Game game = new Game();
@@ -96,12 +256,14 @@ public class JsonReader {
     }
 
     // EFFECTS: parses board from JSON array and returns it
-    private Tetromino[][] parseBoard(JSONArray jsonArray) {
-        Tetromino[][] board = new Tetromino[Game.BOARD_WIDTH][Game.BOARD_HEIGHT];
+    private Board parseBoard(JSONArray jsonArray) {
+        Board board = new Board();
 
         for (int i = 0; i < Game.BOARD_WIDTH; i++) {
+            JSONArray columnJsonArray = jsonArray.getJSONArray(i);
+
             for (int j = 0; j < Game.BOARD_HEIGHT; j++) {
-                board[i][j] = Tetromino.valueOf(jsonArray.getJSONArray(i).getString(j));
+                board.set(i, j, Tetromino.valueOf(columnJsonArray.getString(j)));
             }
         }
 
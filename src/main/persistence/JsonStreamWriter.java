@@ -0,0 +1,166 @@
+package persistence;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Represents a writer that emits JSON tokens directly to a character stream, without building
+ * an intermediate JSONObject tree or String. Output is either indented by 4 spaces or compact
+ */
+public class JsonStreamWriter {
+    private static final int TAB = 4;
+
+    private final Writer out;
+    private final boolean compact;
+    private int depth = 0;
+    private boolean first = true;
+    private boolean afterName = false;
+
+    // EFFECTS: constructs a writer that emits to out, either compactly or indented
+    public JsonStreamWriter(Writer out, boolean compact) {
+        this.out = out;
+        this.compact = compact;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: begins a new object
+    public JsonStreamWriter beginObject() throws IOException {
+        return open('{');
+    }
+
+    // MODIFIES: this
+    // EFFECTS: ends the current object
+    public JsonStreamWriter endObject() throws IOException {
+        return close('}');
+    }
+
+    // MODIFIES: this
+    // EFFECTS: begins a new array
+    public JsonStreamWriter beginArray() throws IOException {
+        return open('[');
+    }
+
+    // MODIFIES: this
+    // EFFECTS: ends the current array
+    public JsonStreamWriter endArray() throws IOException {
+        return close(']');
+    }
+
+    // REQUIRES: the current container is an object
+    // MODIFIES: this
+    // EFFECTS: writes the name of the next member of the current object
+    public JsonStreamWriter name(String name) throws IOException {
+        beforeValue();
+        writeString(name);
+        out.write(compact ? ":" : ": ");
+        afterName = true;
+        return this;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes a string value
+    public JsonStreamWriter value(String value) throws IOException {
+        beforeValue();
+        writeString(value);
+        return this;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes a number value
+    public JsonStreamWriter value(long value) throws IOException {
+        beforeValue();
+        out.write(Long.toString(value));
+        return this;
+    }
+
+    // REQUIRES: value is finite
+    // MODIFIES: this
+    // EFFECTS: writes a number value with a fraction, exactly enough digits to read it back unchanged
+    public JsonStreamWriter value(double value) throws IOException {
+        beforeValue();
+        out.write(Double.toString(value));
+        return this;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes a boolean value
+    public JsonStreamWriter value(boolean value) throws IOException {
+        beforeValue();
+        out.write(value ? "true" : "false");
+        return this;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: flushes the underlying stream
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the opening bracket of a container and enters it
+    private JsonStreamWriter open(char bracket) throws IOException {
+        beforeValue();
+        out.write(bracket);
+        depth++;
+        first = true;
+        return this;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: leaves the current container and writes its closing bracket
+    private JsonStreamWriter close(char bracket) throws IOException {
+        depth--;
+        if (!first) {
+            newline();
+        }
+        out.write(bracket);
+        first = false;
+        return this;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the separator and indentation that come before a value in the current container
+    private void beforeValue() throws IOException {
+        if (afterName) {
+            afterName = false;
+            return;
+        }
+
+        if (depth > 0) {
+            if (!first) {
+                out.write(',');
+            }
+            newline();
+        }
+        first = false;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts a new indented line, unless the output is compact
+    private void newline() throws IOException {
+        if (!compact) {
+            out.write('\n');
+            for (int i = 0; i < depth * TAB; i++) {
+                out.write(' ');
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes s as a quoted JSON string, escaping characters where needed
+    private void writeString(String s) throws IOException {
+        out.write('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.write('\\');
+                out.write(c);
+            } else if (c < 0x20) {
+                out.write(String.format("\\u%04x", (int) c));
+            } else {
+                out.write(c);
+            }
+        }
+        out.write('"');
+    }
+}
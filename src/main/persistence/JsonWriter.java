@@ -1,48 +1,119 @@
 package persistence;
 
+import metrics.GameMetrics;
 import model.Game;
-import org.json.JSONObject;
 
+import java.io.BufferedWriter;
 import java.io.FileNotFoundException;
-import java.io.PrintWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 
 /**
  * Represents a writer that writes JSON representation of game to file
  * Designed based on JsonWriter from JsonSerializationDemo
+ * The game is streamed to a temporary file next to the destination, which replaces the
+ * destination only once it has been written completely and forced to the disk
  */
 public class JsonWriter {
-    private static final int TAB = 4;
-    private PrintWriter writer;
-    private String destination;
+    private static final String TEMP_SUFFIX = ".tmp";
+    private final String destination;
+    private final boolean compact;
+    private FileOutputStream out;
+    private Writer writer;
+    private JsonStreamWriter json;
+    private IOException error;
+    private long openedNanos;
 
-    // EFFECTS: constructs writer to write to destination file
+    // EFFECTS: constructs writer to write indented JSON to destination file
     public JsonWriter(String destination) {
+        this(destination, false);
+    }
+
+    // EFFECTS: constructs writer to write to destination file, without whitespace if compact
+    public JsonWriter(String destination, boolean compact) {
         this.destination = destination;
+        this.compact = compact;
     }
 
     // MODIFIES: this
-    // EFFECTS: opens writer; throws FileNotFoundException if destination file cannot
+    // EFFECTS: opens writer to a temporary file; throws FileNotFoundException if it cannot
     //          be opened for writing
     public void open() throws FileNotFoundException {
-        writer = new PrintWriter(destination);
+        openedNanos = System.nanoTime();
+        out = new FileOutputStream(destination + TEMP_SUFFIX);
+        writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        json = new JsonStreamWriter(writer, compact);
+        error = null;
     }
 
     // MODIFIES: this
-    // EFFECTS: writes JSON representation of workroom to file
+    // EFFECTS: writes JSON representation of game to file
     public void write(Game game) {
-        JSONObject json = game.toJson();
-        saveToFile(json.toString(TAB));
+        try {
+            game.writeJson(json);
+        } catch (IOException e) {
+            error = e;
+        }
     }
 
     // MODIFIES: this
-    // EFFECTS: closes writer
+    // EFFECTS: closes writer, forces the temporary file to the disk and moves it over the destination;
+    //          if anything could not be written, deletes the temporary file, leaves the destination
+    //          unchanged and throws UncheckedIOException
     public void close() {
-        writer.close();
+        closeTemp();
+
+        try {
+            if (error != null) {
+                Files.deleteIfExists(Paths.get(destination + TEMP_SUFFIX));
+                throw new UncheckedIOException(error);
+            }
+            replaceDestination();
+            GameMetrics.getInstance().getJsonWriteNanos().record(System.nanoTime() - openedNanos);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
     // MODIFIES: this
-    // EFFECTS: writes string to file
-    private void saveToFile(String json) {
-        writer.print(json);
+    // EFFECTS: flushes writer, forces the temporary file to the disk unless writing already failed, and
+    //          closes it, keeping the first failure
+    private void closeTemp() {
+        try {
+            writer.flush();
+            if (error == null) {
+                out.getChannel().force(true);
+            }
+        } catch (IOException e) {
+            error = error == null ? e : error;
+        }
+
+        try {
+            writer.close();
+        } catch (IOException e) {
+            error = error == null ? e : error;
+        }
+    }
+
+    // EFFECTS: atomically renames the temporary file to the destination, falling back to a plain
+    //          replace on file systems that cannot move atomically
+    private void replaceDestination() throws IOException {
+        Path temp = Paths.get(destination + TEMP_SUFFIX);
+        Path target = Paths.get(destination);
+
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
     }
 }
@@ -0,0 +1,36 @@
+package persistence;
+
+import model.Replay;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+/**
+ * Represents a file that stores one replay in its compact binary form
+ */
+public class ReplayFile {
+    private final String path;
+
+    // EFFECTS: constructs a replay file at path
+    public ReplayFile(String path) {
+        this.path = path;
+    }
+
+    // EFFECTS: writes replay to the file, replacing its contents;
+    //          throws IOException if the file cannot be written
+    public void write(Replay replay) throws IOException {
+        Files.write(Paths.get(path), replay.toBytes());
+    }
+
+    // EFFECTS: reads the replay stored in the file and returns it;
+    //          throws IOException if the file cannot be read or does not hold a valid replay
+    public Replay read() throws IOException {
+        byte[] bytes = Files.readAllBytes(Paths.get(path));
+        try {
+            return Replay.fromBytes(bytes);
+        } catch (IllegalArgumentException e) {
+            throw new IOException(path + " is not a valid replay", e);
+        }
+    }
+}
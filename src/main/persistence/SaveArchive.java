@@ -0,0 +1,373 @@
+package persistence;
+
+import model.Game;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Represents an archive of named save slots, all kept in one file. The file starts with a header and a
+ * fixed-size index of capacity entries, which is memory-mapped, followed by two fixed-size records for each
+ * entry, each with room for a game in the binary save format and a CRC32 of it. Each index entry holds the
+ * hash of the slot's name, the offset and length of its current record, when it was saved, its score and
+ * the name itself, so slots can be listed and described from the index alone. Names are found by open
+ * addressing on their hash, so saving, describing or loading a slot only reads its own entry and record.
+ * A save writes the record its entry does not point at and forces it to the disk before repointing the
+ * entry, so a crash part way through a save leaves the slot's previous save intact
+ */
+public class SaveArchive implements AutoCloseable {
+    public static final int MAGIC = 0x54415243;
+    public static final byte VERSION = 2;
+    public static final int HEADER_SIZE = 16;
+    public static final int ENTRY_SIZE = 64;
+    public static final int RECORD_SIZE = 128;
+    public static final int MAX_NAME_BYTES = 36;
+    public static final int CHECKSUM_SIZE = 4;
+
+    // layout of an index entry
+    private static final int HASH = 0;
+    private static final int TIMESTAMP = 8;
+    private static final int OFFSET = 16;
+    private static final int SCORE = 20;
+    private static final int LENGTH = 24;
+    private static final int NAME_LENGTH = 26;
+    private static final int STATE = 27;
+    private static final int NAME = 28;
+
+    private static final byte EMPTY = 0;
+    private static final byte USED = 1;
+    private static final byte DELETED = 2;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer index;
+    private final int capacity;
+    private final ByteBuffer record = ByteBuffer.allocateDirect(RECORD_SIZE);
+    private final CRC32 crc = new CRC32();
+    private int size;
+
+    // REQUIRES: capacity is a power of 2
+    // EFFECTS: opens the archive at path, creating it with room for capacity slots if it does not exist;
+    //          an existing archive keeps the capacity it was created with. Throws IOException if the file
+    //          cannot be opened or is not an archive
+    public SaveArchive(String path, int capacity) throws IOException {
+        this.path = Paths.get(path);
+        boolean exists = Files.exists(this.path);
+        channel = FileChannel.open(this.path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+
+        try {
+            if (!exists || channel.size() == 0) {
+                createHeader(capacity);
+            }
+            this.capacity = readCapacity();
+            index = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) this.capacity * ENTRY_SIZE);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+
+        for (int i = 0; i < this.capacity; i++) {
+            if (index.get(entry(i) + STATE) == USED) {
+                size++;
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: saves game in the slot called name, replacing what it held, and stamps it with the current
+    //          time; throws IOException if the archive is full or cannot be written, and
+    //          IllegalArgumentException if name is empty or longer than MAX_NAME_BYTES in UTF-8
+    public synchronized void save(String name, Game game) throws IOException {
+        byte[] bytes = nameBytes(name);
+        long hash = hash(bytes);
+        int i = find(bytes, hash);
+        if (i < 0) {
+            i = free(hash);
+            if (i < 0) {
+                throw new IOException(path + " is full");
+            }
+        }
+
+        int length = encodeRecord(game);
+        long offset = spareRecordOffset(i);
+        writeRecord(offset);
+        updateEntry(i, bytes, hash, offset, length, game.getScore());
+    }
+
+    // EFFECTS: returns the game saved in the slot called name, or null if there is none;
+    //          throws IOException if its record cannot be read or does not match its checksum
+    public synchronized Game load(String name) throws IOException {
+        byte[] bytes = nameBytes(name);
+        int i = find(bytes, hash(bytes));
+        if (i < 0) {
+            return null;
+        }
+
+        int e = entry(i);
+        int length = index.getShort(e + LENGTH);
+        ByteBuffer in = ByteBuffer.allocate(length + CHECKSUM_SIZE);
+        long offset = index.getInt(e + OFFSET);
+        while (in.hasRemaining()) {
+            if (channel.read(in, offset + in.position()) < 0) {
+                throw new IOException(path + " is truncated");
+            }
+        }
+
+        CRC32 check = new CRC32();
+        check.update(in.array(), 0, length);
+        if ((int) check.getValue() != in.getInt(length)) {
+            throw new IOException("Slot " + name + " in " + path + " is corrupt: checksum does not match");
+        }
+        in.flip().limit(length);
+        return BinaryReader.parseGame(in);
+    }
+
+    // EFFECTS: returns the description of the slot called name, or null if there is none
+    public synchronized Slot describe(String name) {
+        byte[] bytes = nameBytes(name);
+        int i = find(bytes, hash(bytes));
+        return i < 0 ? null : slot(i);
+    }
+
+    // EFFECTS: returns the descriptions of every slot, in index order
+    public synchronized List<Slot> list() {
+        List<Slot> slots = new ArrayList<>(size);
+        for (int i = 0; i < capacity; i++) {
+            if (index.get(entry(i) + STATE) == USED) {
+                slots.add(slot(i));
+            }
+        }
+        return slots;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes the slot called name and returns true, or returns false if there is none
+    public synchronized boolean delete(String name) {
+        byte[] bytes = nameBytes(name);
+        int i = find(bytes, hash(bytes));
+        if (i < 0) {
+            return false;
+        }
+
+        index.put(entry(i) + STATE, DELETED);
+        size--;
+        return true;
+    }
+
+    // EFFECTS: returns the number of slots in use
+    public synchronized int size() {
+        return size;
+    }
+
+    // EFFECTS: returns the number of slots the archive can hold
+    public int capacity() {
+        return capacity;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: forces the index and records to disk and closes the archive
+    @Override
+    public synchronized void close() throws IOException {
+        index.force();
+        channel.force(false);
+        channel.close();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes game in the binary save format followed by its CRC32 to the record buffer, ready to be
+    //          written, and returns the length of the game
+    private int encodeRecord(Game game) {
+        record.clear();
+        game.writeBinary(record);
+        int length = record.position();
+        ByteBuffer written = record.duplicate();
+        written.flip();
+        crc.reset();
+        crc.update(written);
+        record.putInt((int) crc.getValue());
+        record.flip();
+        return length;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the record buffer to the file at offset and forces it to the disk
+    private void writeRecord(long offset) throws IOException {
+        while (record.hasRemaining()) {
+            channel.write(record, offset + record.position());
+        }
+        channel.force(false);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: points entry i at the record of the given length at offset, holding the slot with the given
+    //          name and hash saved now with score
+    private void updateEntry(int i, byte[] name, long hash, long offset, int length, int score) {
+        int e = entry(i);
+        boolean added = index.get(e + STATE) != USED;
+        index.putLong(e + HASH, hash);
+        index.putLong(e + TIMESTAMP, System.currentTimeMillis());
+        index.putInt(e + OFFSET, (int) offset);
+        index.putInt(e + SCORE, score);
+        index.putShort(e + LENGTH, (short) length);
+        index.put(e + NAME_LENGTH, (byte) name.length);
+        index.put(e + NAME, name);
+        index.put(e + STATE, USED);
+        if (added) {
+            size++;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the header of a new archive of capacity slots and sizes the file to fit them
+    private void createHeader(int capacity) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).put(VERSION).putInt(capacity).flip();
+        while (header.hasRemaining()) {
+            channel.write(header, header.position());
+        }
+
+        channel.write(ByteBuffer.allocate(1), fileSize(capacity) - 1);
+    }
+
+    // EFFECTS: returns the capacity in the header; throws IOException if the file is not an archive
+    private int readCapacity() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        while (header.hasRemaining() && channel.read(header, header.position()) >= 0) {
+            // keep reading until the header is full or the file ends
+        }
+        header.flip();
+
+        int capacity = header.remaining() == HEADER_SIZE && header.getInt() == MAGIC && header.get() == VERSION
+                ? header.getInt() : 0;
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1
+                || channel.size() < fileSize(capacity)) {
+            throw new IOException(path + " is not a save archive");
+        }
+        return capacity;
+    }
+
+    // EFFECTS: returns the index of the entry of the slot with the given name and hash, or -1 if there is
+    //          none; probing stops at the first entry that has never been used
+    private int find(byte[] name, long hash) {
+        int mask = capacity - 1;
+        for (int n = 0, i = (int) hash & mask; n < capacity; n++, i = (i + 1) & mask) {
+            int e = entry(i);
+            byte state = index.get(e + STATE);
+            if (state == EMPTY) {
+                return -1;
+            } else if (state == USED && index.getLong(e + HASH) == hash && hasName(e, name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // EFFECTS: returns the index of the first entry on hash's probe sequence that is not in use, or -1 if
+    //          every entry is in use
+    private int free(long hash) {
+        int mask = capacity - 1;
+        for (int n = 0, i = (int) hash & mask; n < capacity; n++, i = (i + 1) & mask) {
+            if (index.get(entry(i) + STATE) != USED) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // EFFECTS: returns true if the entry at e holds the given name
+    private boolean hasName(int e, byte[] name) {
+        if (index.get(e + NAME_LENGTH) != name.length) {
+            return false;
+        }
+        for (int k = 0; k < name.length; k++) {
+            if (index.get(e + NAME + k) != name[k]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // EFFECTS: returns the description of the slot in entry i
+    private Slot slot(int i) {
+        int e = entry(i);
+        byte[] name = new byte[index.get(e + NAME_LENGTH)];
+        index.get(e + NAME, name);
+        return new Slot(new String(name, StandardCharsets.UTF_8), index.getLong(e + TIMESTAMP),
+                index.getInt(e + SCORE));
+    }
+
+    // EFFECTS: returns the position of entry i in the index
+    private static int entry(int i) {
+        return HEADER_SIZE + i * ENTRY_SIZE;
+    }
+
+    // EFFECTS: returns the position in the file of the record of entry i that the entry does not point at
+    private long spareRecordOffset(int i) {
+        int e = entry(i);
+        long first = HEADER_SIZE + (long) capacity * ENTRY_SIZE + 2L * i * RECORD_SIZE;
+        boolean firstInUse = index.get(e + STATE) == USED && index.getInt(e + OFFSET) == first;
+        return firstInUse ? first + RECORD_SIZE : first;
+    }
+
+    // EFFECTS: returns the size of an archive of capacity slots
+    static long fileSize(int capacity) {
+        return HEADER_SIZE + (long) capacity * (ENTRY_SIZE + 2 * RECORD_SIZE);
+    }
+
+    // EFFECTS: returns name in UTF-8; throws IllegalArgumentException if it is empty or too long
+    private static byte[] nameBytes(String name) {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length == 0 || bytes.length > MAX_NAME_BYTES) {
+            throw new IllegalArgumentException("Slot names must be 1 to " + MAX_NAME_BYTES + " bytes: " + name);
+        }
+        return bytes;
+    }
+
+    // EFFECTS: returns a 64-bit FNV-1a hash of name
+    private static long hash(byte[] name) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : name) {
+            hash = (hash ^ b) * 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * Represents the description of a save slot kept in the index: its name, when it was saved and its score
+     */
+    public static final class Slot {
+        private final String name;
+        private final long timestamp;
+        private final int score;
+
+        // EFFECTS: initializes the description of a slot called name, saved at timestamp with the given score
+        Slot(String name, long timestamp, int score) {
+            this.name = name;
+            this.timestamp = timestamp;
+            this.score = score;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        public int getScore() {
+            return score;
+        }
+    }
+}
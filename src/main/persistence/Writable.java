@@ -2,6 +2,8 @@ package persistence;
 
 import org.json.JSONObject;
 
+import java.io.IOException;
+
 /**
  * An interface for writable objects
  * Designed based on Writable from JsonSerializationDemo
@@ -9,4 +11,8 @@ import org.json.JSONObject;
 public interface Writable {
     // EFFECTS: returns this as JSON object
     JSONObject toJson();
+
+    // MODIFIES: out
+    // EFFECTS: writes this to out as a JSON value, with the same members as toJson
+    void writeJson(JsonStreamWriter out) throws IOException;
 }
@@ -0,0 +1,80 @@
+package ui;
+
+import model.Game;
+import model.GameSnapshot;
+import model.Tetromino;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+/**
+ * Represents the renderer that draws snapshots of a game's board in two layers. The locked stack is drawn
+ * into an offscreen image that is only rebuilt when the snapshot's stack differs from the one drawn, i.e.
+ * after a lock or a line clear, so each frame costs one image copy plus the four tiles of the falling
+ * block and its ghost
+ */
+public class BoardRenderer {
+    private static final AlphaComposite GHOST_COMPOSITE = AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 0.3f);
+
+    private final SpriteCache sprites;
+    private final BufferedImage stack;
+    private GameSnapshot stackSource;
+    private volatile boolean ghostVisible = true;
+
+    // EFFECTS: initializes a renderer that draws tiles with the given sprites
+    public BoardRenderer(SpriteCache sprites) {
+        this.sprites = sprites;
+        this.stack = sprites.createOpaqueImage(Game.BOARD_WIDTH * Tetromino.SIZE, Game.BOARD_HEIGHT * Tetromino.SIZE);
+    }
+
+    // MODIFIES: this, g
+    // EFFECTS: draws the locked stack of snapshot, then the ghost of the falling block if it is visible,
+    //          then the falling block itself
+    public void paint(Graphics g, GameSnapshot snapshot) {
+        if (!snapshot.hasSameBoard(stackSource)) {
+            rebuildStack(snapshot);
+        }
+
+        g.drawImage(stack, 0, 0, null);
+
+        if (ghostVisible && snapshot.getDropDistance() > 0) {
+            Graphics2D g2 = (Graphics2D) g.create();
+            g2.setComposite(GHOST_COMPOSITE);
+            drawBlock(g2, snapshot, snapshot.getDropDistance());
+            g2.dispose();
+        }
+
+        drawBlock(g, snapshot, 0);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: redraws every locked tile of snapshot into the stack layer
+    private void rebuildStack(GameSnapshot snapshot) {
+        Graphics g = stack.createGraphics();
+        for (int i = 0; i < Game.BOARD_WIDTH; i++) {
+            for (int j = 0; j < Game.BOARD_HEIGHT; j++) {
+                sprites.draw(g, snapshot.get(i, j), i * Tetromino.SIZE, j * Tetromino.SIZE);
+            }
+        }
+        g.dispose();
+
+        stackSource = snapshot;
+    }
+
+    // MODIFIES: g
+    // EFFECTS: draws a tile for each tile of the falling block in snapshot, moved down by the given rows
+    private void drawBlock(Graphics g, GameSnapshot snapshot, int rows) {
+        for (int i = 0; i < 4; i++) {
+            sprites.draw(g, snapshot.getShape(), snapshot.getTileX(i) * Tetromino.SIZE,
+                    (snapshot.getTileY(i) + rows) * Tetromino.SIZE);
+        }
+    }
+
+    public boolean isGhostVisible() {
+        return ghostVisible;
+    }
+
+    public void setGhostVisible(boolean ghostVisible) {
+        this.ghostVisible = ghostVisible;
+    }
+}
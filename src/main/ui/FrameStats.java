@@ -0,0 +1,57 @@
+package ui;
+
+/**
+ * Represents timing statistics over the most recent frames of a render loop:
+ * the frame rate and the mean and worst time between consecutive frames
+ */
+public class FrameStats {
+    private final long[] frameNanos;
+    private int count;
+    private int next;
+    private long total;
+
+    // EFFECTS: initializes statistics over a window of the given number of frames
+    public FrameStats(int window) {
+        frameNanos = new long[window];
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records a frame that took the given time since the previous frame,
+    //          dropping the oldest frame once the window is full
+    public void record(long nanos) {
+        if (count == frameNanos.length) {
+            total -= frameNanos[next];
+        } else {
+            count++;
+        }
+
+        frameNanos[next] = nanos;
+        total += nanos;
+        next = (next + 1) % frameNanos.length;
+    }
+
+    // EFFECTS: returns the number of frames in the window
+    public int getCount() {
+        return count;
+    }
+
+    // EFFECTS: returns the mean time between frames in milliseconds, or 0 if no frame was recorded
+    public double getMeanMillis() {
+        return count == 0 ? 0 : total / 1e6 / count;
+    }
+
+    // EFFECTS: returns the longest time between frames in the window in milliseconds
+    public double getWorstMillis() {
+        long worst = 0;
+        for (int i = 0; i < count; i++) {
+            worst = Math.max(worst, frameNanos[i]);
+        }
+
+        return worst / 1e6;
+    }
+
+    // EFFECTS: returns the average number of frames per second over the window
+    public double getFps() {
+        return total == 0 ? 0 : count * 1e9 / total;
+    }
+}
@@ -0,0 +1,116 @@
+package ui;
+
+import metrics.GameMetrics;
+import model.Game;
+import model.GameSnapshot;
+
+import java.awt.*;
+import java.awt.image.BufferStrategy;
+
+/**
+ * Represents the heavyweight canvas used for active rendering: frames are drawn by the render
+ * loop into a page-flipped buffer strategy instead of waiting for Swing to schedule a repaint
+ */
+public class GameCanvas extends Canvas {
+    private static final long serialVersionUID = 1L;
+    private static final int BUFFERS = 2;
+    private static final String OVER = "Game Over!";
+    private static final Font OVER_FONT = new Font("Arial", Font.PLAIN, 20);
+    private static final Font STATS_FONT = new Font("Monospaced", Font.PLAIN, 11);
+
+    private final BoardRenderer renderer = new BoardRenderer(SpriteCache.load());
+    private final Simulation simulation;
+    private volatile boolean statsVisible;
+    private BufferStrategy strategy;
+    private String statsText = "";
+    private long shownFps = -1;
+    private long shownMeanTenths = -1;
+    private long shownWorstTenths = -1;
+
+    // EFFECTS: initializes a canvas with the size of the board that displays the game of simulation
+    public GameCanvas(Simulation simulation) {
+        setPreferredSize(new Dimension(Game.WIDTH, Game.HEIGHT));
+        setBackground(Color.BLACK);
+        setIgnoreRepaint(true);
+        setFocusable(false);
+        this.simulation = simulation;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: draws a frame of the latest snapshot of the game, with the frame timings if they are visible,
+    //          and shows it; redraws the frame if the buffer contents were lost while drawing
+    public void render(FrameStats stats) {
+        if (strategy == null) {
+            if (!isDisplayable()) {
+                return;
+            }
+            createBufferStrategy(BUFFERS);
+            strategy = getBufferStrategy();
+        }
+
+        do {
+            do {
+                long start = System.nanoTime();
+                Graphics g = strategy.getDrawGraphics();
+                try {
+                    drawFrame(g, stats);
+                } finally {
+                    g.dispose();
+                }
+                GameMetrics.getInstance().getPaintNanos().record(System.nanoTime() - start);
+            } while (strategy.contentsRestored());
+            strategy.show();
+        } while (strategy.contentsLost());
+
+        Toolkit.getDefaultToolkit().sync();
+    }
+
+    // MODIFIES: g
+    // EFFECTS: draws the board, the end screen if the game is over, and the frame timings if visible
+    private void drawFrame(Graphics g, FrameStats stats) {
+        GameSnapshot snapshot = simulation.getSnapshot();
+        g.setColor(getBackground());
+        g.fillRect(0, 0, getWidth(), getHeight());
+        renderer.paint(g, snapshot);
+
+        if (snapshot.isEnded()) {
+            g.setColor(Color.WHITE);
+            g.setFont(OVER_FONT);
+            int width = g.getFontMetrics().stringWidth(OVER);
+            g.drawString(OVER, (Game.WIDTH - width) / 2, Game.HEIGHT / 2);
+        }
+
+        if (statsVisible) {
+            g.setColor(Color.WHITE);
+            g.setFont(STATS_FONT);
+            g.drawString(statsText(stats), 4, 12);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the frame timings as text, formatting them again only if a value shown has changed
+    private String statsText(FrameStats stats) {
+        long fps = Math.round(stats.getFps());
+        long meanTenths = Math.round(stats.getMeanMillis() * 10);
+        long worstTenths = Math.round(stats.getWorstMillis() * 10);
+        if (fps != shownFps || meanTenths != shownMeanTenths || worstTenths != shownWorstTenths) {
+            shownFps = fps;
+            shownMeanTenths = meanTenths;
+            shownWorstTenths = worstTenths;
+            statsText = String.format("%d fps  %.1f ms  max %.1f ms", fps, meanTenths / 10.0, worstTenths / 10.0);
+        }
+        return statsText;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: shows the ghost of the falling block if it is hidden, and hides it otherwise
+    public void toggleGhost() {
+        renderer.setGhostVisible(!renderer.isGhostVisible());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: shows the frame timings if they are hidden, and hides them otherwise
+    public void toggleStats() {
+        statsVisible = !statsVisible;
+    }
+}
@@ -1,7 +1,8 @@
 package ui;
 
+import metrics.GameMetrics;
 import model.Game;
-import model.Position;
+import model.GameSnapshot;
 import model.Tetromino;
 
 import javax.swing.*;
@@ -10,61 +11,52 @@ import java.awt.*;
 /**
  * Represents the panel in which the game is rendered.
  * Designed based on GamePanel from SpaceInvadersRefactored-ObserverLessCoupling
+ * Each paint draws the latest snapshot published by the simulation, never the game itself
  */
 public class GamePanel extends JPanel {
 
     public static final int TETROMINO_SIZE = 20;
     private static final String OVER = "Game Over!";
     private static final String REPLAY = "R to replay";
-    private Game game;
+    private final SpriteCache sprites = SpriteCache.load();
+    private final BoardRenderer renderer = new BoardRenderer(sprites);
+    private final Simulation simulation;
+    private GameSnapshot painted;
 
-    // EFFECTS: initializes game panel with size, background colour, and game to be displayed
-    public GamePanel(Game game) {
+    // EFFECTS: initializes game panel with size, background colour, and the simulation whose game is displayed
+    public GamePanel(Simulation simulation) {
         setPreferredSize(new Dimension(Game.WIDTH, Game.HEIGHT));
         setBackground(Color.BLACK);
-        this.game = game;
+        this.simulation = simulation;
     }
 
-    // MODIFIES: g
-    // EFFECTS: draws the game on the panel, if game is over, draws the end screen
+    // MODIFIES: this, g
+    // EFFECTS: draws the game on the panel, if game is over, draws the end screen;
+    //          records how long the paint took and how many ticks of the same game were never painted
     @Override
     protected void paintComponent(Graphics g) {
+        long start = System.nanoTime();
         super.paintComponent(g);
+        GameSnapshot snapshot = simulation.getSnapshot();
 
-        drawGame(g);
+        renderer.paint(g, snapshot);
 
-        if (game.isEnded()) {
+        if (snapshot.isEnded()) {
             gameOver(g);
         }
-    }
-
-    // MODIFIES: g
-    // EFFECTS: draws each Tetromino in the board on the screen
-    private void drawGame(Graphics g) {
-        for (int i = 0; i < Game.BOARD_WIDTH; i++) {
-            for (int j = 0; j < Game.BOARD_HEIGHT; j++) {
-                drawTetromino(g, game.getBoard()[i][j], i * Tetromino.SIZE, j * Tetromino.SIZE);
-            }
-        }
-
-        drawBlock(g);
-    }
 
-    // MODIFIES: g
-    // EFFECTS: draws a Tetromino for each tile in the block onto the screen
-    private void drawBlock(Graphics g) {
-        for (Position p : game.getCurBlock().getAllPosOnBoard()) {
-            drawTetromino(g, game.getCurBlock().getShape(), p.getX() * Tetromino.SIZE, p.getY() * Tetromino.SIZE);
+        GameMetrics metrics = GameMetrics.getInstance();
+        if (snapshot.isOfSameGame(painted) && snapshot.getTicks() > painted.getTicks() + 1) {
+            metrics.getUnpaintedTicks().add(snapshot.getTicks() - painted.getTicks() - 1);
         }
+        painted = snapshot;
+        metrics.getPaintNanos().record(System.nanoTime() - start);
     }
 
     // MODIFIES: g
-    // EFFECTS: draws a square at the given coordinates with color this.color
+    // EFFECTS: draws the cached sprite of t at the given coordinates
     public void drawTetromino(Graphics g, Tetromino t, int x, int y) {
-        String sep = System.getProperty("file.separator");
-        String sys = System.getProperty("user.dir");
-        ImageIcon img = new ImageIcon(sys + sep + "data" + sep + "images" + sep + t.getLabel() + ".png");
-        img.paintIcon(this, g, x, y);
+        sprites.draw(g, t, x, y);
     }
 
     // MODIFIES: g
@@ -83,7 +75,9 @@ public class GamePanel extends JPanel {
         g.drawString(str, (Game.WIDTH - width) / 2, y);
     }
 
-    public void setGame(Game game) {
-        this.game = game;
+    // MODIFIES: this
+    // EFFECTS: shows the ghost of the falling block if it is hidden, and hides it otherwise
+    public void toggleGhost() {
+        renderer.setGhostVisible(!renderer.isGhostVisible());
     }
 }
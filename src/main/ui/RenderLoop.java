@@ -0,0 +1,103 @@
+package ui;
+
+import metrics.GameMetrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Represents an active rendering loop on its own thread. A frame of the latest snapshot is drawn at most
+ * targetFps times per second (as fast as possible if targetFps is 0), independently of the simulation's
+ * tick rate. The time between frames is recorded in the frame stats
+ */
+public class RenderLoop implements Runnable {
+    private static final int STATS_WINDOW = 120;
+
+    private final GameCanvas canvas;
+    private final long frameNanos;
+    private final FrameStats stats = new FrameStats(STATS_WINDOW);
+    private volatile boolean running;
+    private Thread thread;
+
+    // EFFECTS: initializes a loop that draws canvas up to targetFps times per second,
+    //          or as many times as possible if targetFps is 0
+    public RenderLoop(GameCanvas canvas, int targetFps) {
+        this.canvas = canvas;
+        this.frameNanos = targetFps > 0 ? TimeUnit.SECONDS.toNanos(1) / targetFps : 0;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts the loop on a new thread, unless it is already running
+    public void start() {
+        if (running) {
+            return;
+        }
+
+        running = true;
+        thread = new Thread(this, "render-loop");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops the loop and waits for the current frame to finish
+    public void stop() {
+        running = false;
+        if (thread != null && thread != Thread.currentThread()) {
+            boolean interrupted = false;
+            while (thread.isAlive()) {
+                try {
+                    thread.join();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        thread = null;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: draws frames until stopped
+    @Override
+    public void run() {
+        long lastFrame = System.nanoTime();
+        long nextFrame = lastFrame;
+
+        while (running) {
+            canvas.render(stats);
+            long now = System.nanoTime();
+            stats.record(now - lastFrame);
+            lastFrame = now;
+
+            nextFrame = pace(nextFrame, now);
+        }
+    }
+
+    // EFFECTS: waits until the next frame is due and returns its deadline; if the frame is already
+    //          late, the frames whose deadlines passed are counted as dropped and the schedule restarts
+    //          from now instead of rushing to catch up
+    private long pace(long nextFrame, long now) {
+        if (frameNanos == 0) {
+            Thread.yield();
+            return now;
+        }
+
+        long due = nextFrame + frameNanos;
+        if (due - now <= 0) {
+            GameMetrics.getInstance().getDroppedFrames().add((now - due) / frameNanos);
+            return now;
+        }
+
+        while (due - System.nanoTime() > 0) {
+            LockSupport.parkNanos(due - System.nanoTime());
+        }
+        return due;
+    }
+
+    public FrameStats getStats() {
+        return stats;
+    }
+}
@@ -1,17 +1,16 @@
 package ui;
 
 import model.Game;
+import model.GameObserver;
 
 import javax.swing.*;
 import java.awt.*;
-import java.util.Observable;
-import java.util.Observer;
 
 /**
  * Represents the panel in which the scoreboard is displayed.
  * Designed based on ScorePanel from SpaceInvadersRefactored-ObserverLessCoupling
  */
-public class ScorePanel extends JPanel implements Observer {
+public class ScorePanel extends JPanel implements GameObserver {
     private static final String SCORE_TXT = "Lines Cleared: ";
     private static final int LBL_HEIGHT = 30;
     private JLabel scoreLabel;
@@ -29,14 +28,24 @@ public class ScorePanel extends JPanel implements Observer {
     // MODIFIES: this
     // EFFECTS: updates the score to reflect the current state of the game
     @Override
-    public void update(Observable subject, Object event) {
+    public void update(Game game, String event) {
         // NOTE: the following check is not strictly needed, given that we have only two types
         // of events; we include it here in case we add another kind of event in future to
         // which this observer need not respond.
-        if (Game.EVENT_LINE_CLEARED.equals(event)) {
-            Game game = (Game) subject;
-            scoreLabel.setText(SCORE_TXT + game.getScore());
-            repaint();
+        if (Game.EVENT_LINE_CLEARED.equals(event) || Game.EVENT_RESTORED.equals(event)) {
+            int score = game.getScore();
+            if (SwingUtilities.isEventDispatchThread()) {
+                setScore(score);
+            } else {
+                SwingUtilities.invokeLater(() -> setScore(score));
+            }
         }
     }
+
+    // MODIFIES: this
+    // EFFECTS: shows score on the label; must be called on the event dispatch thread
+    private void setScore(int score) {
+        scoreLabel.setText(SCORE_TXT + score);
+        repaint();
+    }
 }
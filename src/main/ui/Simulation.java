@@ -0,0 +1,145 @@
+package ui;
+
+import model.Game;
+import model.GameSnapshot;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Represents the thread that runs the game simulation at a fixed timestep, separate from the UI.
+ * Ticks are scheduled against absolute deadlines, so the tick rate does not drift, and ticks missed
+ * while the thread was delayed are caught up in a burst. After each round of ticks an immutable snapshot
+ * of the game is published for the renderer, which never reads the game itself. Other changes to the game
+ * are handed to the simulation thread and run before its next round of ticks
+ */
+public class Simulation implements Runnable {
+    private static final int MAX_CATCH_UP_TICKS = 25;
+
+    private final long tickNanos;
+    private final Runnable onPublish;
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private volatile Game game;
+    private volatile GameSnapshot snapshot;
+    private volatile boolean running;
+    private Thread thread;
+
+    // EFFECTS: initializes a simulation of game that ticks every tickMillis milliseconds once started,
+    //          and calls onPublish on the simulation thread whenever a new snapshot is available
+    public Simulation(Game game, int tickMillis, Runnable onPublish) {
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        this.onPublish = onPublish;
+        setGame(game);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts ticking the game on a new thread, unless it is already running
+    public void start() {
+        if (running) {
+            return;
+        }
+
+        running = true;
+        thread = new Thread(this, "simulation");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops ticking and waits for the current tick to finish, so the game can be saved or
+    //          replaced safely once this returns
+    public void stop() {
+        running = false;
+        if (thread != null && thread != Thread.currentThread()) {
+            boolean interrupted = false;
+            while (thread.isAlive()) {
+                try {
+                    thread.join();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        thread = null;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: ticks the game on every deadline until stopped; if the thread falls more than
+    //          MAX_CATCH_UP_TICKS behind, the missed ticks are dropped and the schedule restarts
+    @Override
+    public void run() {
+        long deadline = System.nanoTime() + tickNanos;
+
+        while (running) {
+            long wait = deadline - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+                continue;
+            }
+
+            runTasks();
+            int ticks = 0;
+            while (running && deadline - System.nanoTime() <= 0 && ticks < MAX_CATCH_UP_TICKS) {
+                game.tick();
+                deadline += tickNanos;
+                ticks++;
+            }
+            if (ticks == MAX_CATCH_UP_TICKS) {
+                deadline = System.nanoTime() + tickNanos;
+            }
+
+            publish();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: runs task on the simulation thread before its next round of ticks; if the simulation is
+    //          stopped, runs task now and publishes a snapshot of the game. Only call from the thread that
+    //          starts and stops the simulation
+    public void execute(Runnable task) {
+        if (running) {
+            tasks.add(task);
+        } else {
+            task.run();
+            publish();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: runs every task handed to the simulation thread so far, in order
+    private void runTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            task.run();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: publishes a snapshot of the game as it is now
+    private void publish() {
+        snapshot = new GameSnapshot(game, snapshot);
+        onPublish.run();
+    }
+
+    public Game getGame() {
+        return game;
+    }
+
+    // REQUIRES: the simulation is stopped
+    // MODIFIES: this
+    // EFFECTS: replaces the simulated game and publishes a snapshot of it
+    public void setGame(Game game) {
+        this.game = game;
+        snapshot = new GameSnapshot(game, snapshot);
+    }
+
+    // EFFECTS: returns the most recently published snapshot
+    public GameSnapshot getSnapshot() {
+        return snapshot;
+    }
+}
@@ -0,0 +1,104 @@
+package ui;
+
+import model.EventLog;
+import model.Game;
+import model.Moves;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Represents a batch of seeded games that are played headlessly at full speed with random inputs.
+ * Reports the engine's throughput and the distribution of scores, without any rendering cost
+ */
+public class Simulator {
+    private static final int DEFAULT_GAMES = 1000;
+    private static final long DEFAULT_SEED = 210;
+    private static final long MAX_TICKS_PER_GAME = 1_000_000;
+    private static final Moves[] MOVES = Moves.values();
+
+    private final int numGames;
+    private final long seed;
+    private final int[] scores;
+    private long totalTicks;
+    private long totalPieces;
+    private long elapsedNanos;
+
+    // EFFECTS: initializes a batch of numGames games, where game i is seeded with seed + i
+    public Simulator(int numGames, long seed) {
+        this.numGames = numGames;
+        this.seed = seed;
+        this.scores = new int[numGames];
+    }
+
+    // MODIFIES: this
+    // EFFECTS: plays every game until it ends and records its ticks, pieces and score
+    public void run() {
+        long start = System.nanoTime();
+
+        for (int i = 0; i < numGames; i++) {
+            play(i);
+            EventLog.getInstance().clear();
+        }
+
+        elapsedNanos = System.nanoTime() - start;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: plays game i with a random input on every tick
+    private void play(int i) {
+        Game game = new Game(seed + i);
+        Random inputs = new Random(~(seed + i));
+
+        while (!game.isEnded() && game.getTicks() < MAX_TICKS_PER_GAME) {
+            game.input(MOVES[inputs.nextInt(MOVES.length)]);
+            game.tick();
+        }
+
+        totalTicks += game.getTicks();
+        totalPieces += game.getPiecesLocked();
+        scores[i] = game.getScore();
+    }
+
+    // EFFECTS: prints the throughput of the batch and the distribution of scores
+    public void report() {
+        double seconds = elapsedNanos / 1e9;
+        int[] sorted = scores.clone();
+        Arrays.sort(sorted);
+
+        System.out.printf("games: %d, seed: %d, time: %.3f s%n", numGames, seed, seconds);
+        System.out.printf("ticks: %d (%.0f ticks/sec)%n", totalTicks, totalTicks / seconds);
+        System.out.printf("pieces: %d (%.0f pieces/sec)%n", totalPieces, totalPieces / seconds);
+        System.out.printf("score min: %d, median: %d, mean: %.2f, max: %d%n", sorted[0],
+                sorted[sorted.length / 2], Arrays.stream(sorted).average().orElse(0), sorted[sorted.length - 1]);
+        reportDistribution(sorted);
+    }
+
+    // EFFECTS: prints how many games ended with each score
+    private void reportDistribution(int[] sorted) {
+        int i = 0;
+        while (i < sorted.length) {
+            int j = i;
+            while (j < sorted.length && sorted[j] == sorted[i]) {
+                j++;
+            }
+            System.out.printf("  %4d line(s): %d%n", sorted[i], j - i);
+            i = j;
+        }
+    }
+
+    // EFFECTS: runs a batch of games; usage: Simulator [games] [seed]
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_GAMES;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : DEFAULT_SEED;
+
+        if (games <= 0) {
+            System.out.println("Usage: Simulator [games > 0] [seed]");
+            return;
+        }
+
+        Simulator simulator = new Simulator(games, seed);
+        simulator.run();
+        simulator.report();
+    }
+}
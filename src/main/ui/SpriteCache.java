@@ -0,0 +1,110 @@
+package ui;
+
+import model.Tetromino;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Represents the tile sprites of every Tetromino, decoded once and kept in images that match the
+ * screen's pixel format so that drawing a tile is a plain blit. A tile whose image is missing or
+ * cannot be decoded is drawn as a solid square of its fallback colour instead
+ */
+public class SpriteCache {
+    private static final Color[] FALLBACK_COLORS = {
+            Color.BLACK,                // Empty
+            new Color(0, 240, 240),     // LineShape
+            new Color(240, 240, 0),     // SquareShape
+            new Color(160, 0, 240),     // TShape
+            new Color(240, 160, 0),     // LShape
+            new Color(0, 0, 240),       // MirroredLShape
+            new Color(240, 0, 0),       // ZShape
+            new Color(0, 240, 0)        // SShape
+    };
+
+    private final Image[] sprites = new Image[Tetromino.values().length];
+    private final GraphicsConfiguration config = graphicsConfiguration();
+
+    // EFFECTS: loads the sprite of each tetromino from <directory>/<label>.png
+    public SpriteCache(String directory) {
+        for (Tetromino t : Tetromino.values()) {
+            BufferedImage decoded = decode(new File(directory, t.getLabel() + ".png"));
+            sprites[t.ordinal()] = decoded == null ? fallback(config, t) : toCompatible(config, decoded);
+        }
+    }
+
+    // EFFECTS: returns a cache of the sprites in ./data/images
+    public static SpriteCache load() {
+        String sep = System.getProperty("file.separator");
+        return new SpriteCache(System.getProperty("user.dir") + sep + "data" + sep + "images");
+    }
+
+    // MODIFIES: g
+    // EFFECTS: draws the sprite of t onto g with its top left corner at (x, y)
+    public void draw(Graphics g, Tetromino t, int x, int y) {
+        g.drawImage(sprites[t.ordinal()], x, y, null);
+    }
+
+    public Image getSprite(Tetromino t) {
+        return sprites[t.ordinal()];
+    }
+
+    // EFFECTS: returns an empty opaque image of the given size in the screen's pixel format
+    public BufferedImage createOpaqueImage(int width, int height) {
+        return createImage(config, width, height, Transparency.OPAQUE);
+    }
+
+    // EFFECTS: returns the decoded image in file, or null if it is missing or unreadable
+    private static BufferedImage decode(File file) {
+        try {
+            return ImageIO.read(file);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    // EFFECTS: returns the configuration of the default screen, or null if there is no display
+    private static GraphicsConfiguration graphicsConfiguration() {
+        if (GraphicsEnvironment.isHeadless()) {
+            return null;
+        }
+        return GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
+    }
+
+    // EFFECTS: returns an empty image of the given size and transparency, in the screen's format
+    //          when there is a screen
+    private static BufferedImage createImage(GraphicsConfiguration config, int width, int height,
+                                             int transparency) {
+        if (config == null) {
+            int type = transparency == Transparency.OPAQUE ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB;
+            return new BufferedImage(width, height, type);
+        }
+        return config.createCompatibleImage(width, height, transparency);
+    }
+
+    // EFFECTS: returns a copy of source in the screen's pixel format
+    private static BufferedImage toCompatible(GraphicsConfiguration config, BufferedImage source) {
+        BufferedImage image = createImage(config, source.getWidth(), source.getHeight(), Transparency.TRANSLUCENT);
+        Graphics2D g = image.createGraphics();
+        g.drawImage(source, 0, 0, null);
+        g.dispose();
+        return image;
+    }
+
+    // EFFECTS: returns a solid tile of t's fallback colour
+    private static BufferedImage fallback(GraphicsConfiguration config, Tetromino t) {
+        BufferedImage image = createImage(config, Tetromino.SIZE, Tetromino.SIZE, Transparency.TRANSLUCENT);
+        Graphics2D g = image.createGraphics();
+        g.setColor(FALLBACK_COLORS[t.ordinal()]);
+        g.fillRect(0, 0, Tetromino.SIZE, Tetromino.SIZE);
+        if (t != Tetromino.Empty) {
+            g.setColor(FALLBACK_COLORS[t.ordinal()].darker());
+            g.drawRect(0, 0, Tetromino.SIZE - 1, Tetromino.SIZE - 1);
+        }
+        g.dispose();
+        return image;
+    }
+}
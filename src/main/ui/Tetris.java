@@ -1,10 +1,14 @@
 package ui;
 
+import metrics.GameMetrics;
 import model.Event;
 import model.EventLog;
 import model.Game;
-import persistence.JsonReader;
-import persistence.JsonWriter;
+import model.Moves;
+import model.UndoHistory;
+import persistence.AutosaveJournal;
+import persistence.EventJournal;
+import persistence.SaveArchive;
 
 import javax.swing.*;
 import java.awt.*;
@@ -13,49 +17,163 @@ import java.awt.event.ActionListener;
 import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
 
 /**
- * Represents the whole Tetris game with visual ui
+ * Represents the whole Tetris game with visual ui.
+ * The game is ticked on its own simulation thread. By default each new snapshot is repainted by Swing;
+ * in active mode a render loop draws the snapshots into a page-flipped canvas at a target frame rate instead
  */
 public class Tetris extends JFrame {
-    private static final String JSON_FILE = "./data/game.json";
+    private static final String ARCHIVE_FILE = "./data/saves.archive";
+    private static final int ARCHIVE_CAPACITY = 4096;
+    private static final String DEFAULT_SLOT = "quicksave";
     private static final int INTERVAL = 20;
+    private static final int DEFAULT_FPS = 60;
+    private static final String JOURNAL_DIR = "./data/journal";
+    private static final long JOURNAL_SEGMENT_BYTES = 1 << 20;
+    private static final int JOURNAL_MAX_SEGMENTS = 16;
+    private static final int JOURNAL_INDEX_INTERVAL = 64;
+    private static final int UNDO_CAPACITY = 256;
+    private static final String AUTOSAVE_FILE = "./data/autosave.journal";
+    private static final long AUTOSAVE_BYTES = 1 << 16;
+    private static final int AUTOSAVE_CHECKPOINT_INTERVAL = 64;
     private static Game game;
+    private UndoHistory history;
     private GamePanel gp;
+    private GameCanvas canvas;
+    private RenderLoop loop;
+    private Simulation simulation;
+    private EventJournal journal;
+    private AutosaveJournal autosave;
     private ScorePanel sp;
     private MenuPanel mp;
     private JDialog menu;
     private ActionListener actionListener;
-    private Timer timer;
 
-    // EFFECTS: initializes game, panels, key listener, timer, and observers
+    // EFFECTS: initializes game, panels, key listener, simulation, and observers
     public Tetris() {
+        this(false, DEFAULT_FPS);
+    }
+
+    // EFFECTS: initializes game, panels, key listener, simulation and observers; if active, the game is
+    //          drawn by a render loop up to targetFps frames per second (0 for no limit), otherwise by Swing
+    public Tetris(boolean active, int targetFps) {
         super("Tetris");
         setUndecorated(true);
-        game = new Game();
-        gp = new GamePanel(game);
-        sp = new ScorePanel(0);
+        game = recoverGame();
+        history = game.keepHistory(UNDO_CAPACITY);
+        sp = new ScorePanel(game.getScore());
         mp = new MenuPanel();
-        add(gp);
+        createView(active, targetFps);
         add(sp, BorderLayout.NORTH);
         addKeyListener(new KeyHandler());
         pack();
         centreOnScreen();
         setVisible(true);
-        addTimer();
-        timer.start();
         game.addObserver(sp);
+        GameMetrics.getInstance().register();
+        startJournal();
+        startAutosave();
+        startLoop();
     }
 
-    // EFFECTS: initializes a timer that updates game each INTERVAL milliseconds
-    private void addTimer() {
-        timer = new Timer(INTERVAL, new ActionListener() {
-            @Override
-            public void actionPerformed(ActionEvent ae) {
-                game.tick();
-                gp.repaint();
+    // MODIFIES: this
+    // EFFECTS: creates the simulation and the view of the game: if active, a canvas drawn by a render loop
+    //          up to targetFps frames per second, otherwise a panel repainted through Swing
+    private void createView(boolean active, int targetFps) {
+        if (active) {
+            simulation = new Simulation(game, INTERVAL, () -> { });
+            canvas = new GameCanvas(simulation);
+            loop = new RenderLoop(canvas, targetFps);
+            add(canvas);
+        } else {
+            simulation = new Simulation(game, INTERVAL, () -> gp.repaint());
+            gp = new GamePanel(simulation);
+            add(gp);
+        }
+    }
+
+    // EFFECTS: returns the game left in the autosave if it had not ended, otherwise a new game
+    private static Game recoverGame() {
+        try {
+            Game recovered = AutosaveJournal.recover(AUTOSAVE_FILE);
+            if (recovered != null && !recovered.isEnded()) {
+                return recovered;
             }
-        });
+        } catch (IOException e) {
+            System.out.println("Autosave unreadable: " + e.getMessage());
+        }
+        return new Game();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts saving the game to the autosave at every lock; the game runs without one if the
+    //          autosave cannot be written
+    private void startAutosave() {
+        autosave = new AutosaveJournal(AUTOSAVE_FILE, AUTOSAVE_BYTES, AUTOSAVE_CHECKPOINT_INTERVAL);
+        try {
+            autosave.attach(game);
+        } catch (IOException e) {
+            System.out.println("Autosave unavailable: " + e.getMessage());
+            autosave = null;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: forces the autosave to disk and closes it
+    private void closeAutosave() {
+        if (autosave != null) {
+            try {
+                autosave.close();
+            } catch (IOException e) {
+                System.out.println("Autosave incomplete: " + e.getMessage());
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts copying the event log to the journal on disk; the game runs without one if the
+    //          journal cannot be opened
+    private void startJournal() {
+        try {
+            journal = new EventJournal(JOURNAL_DIR, JOURNAL_SEGMENT_BYTES, JOURNAL_MAX_SEGMENTS,
+                    JOURNAL_INDEX_INTERVAL, EventLog.getInstance());
+            journal.start();
+        } catch (IOException e) {
+            System.out.println("Event journal unavailable: " + e.getMessage());
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the remaining events to the journal and closes it
+    private void closeJournal() {
+        if (journal != null) {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                System.out.println("Event journal incomplete: " + e.getMessage());
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts ticking and drawing the game
+    private void startLoop() {
+        simulation.start();
+        if (loop != null) {
+            loop.start();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops ticking and drawing the game; once this returns the game is no longer updated
+    private void stopLoop() {
+        simulation.stop();
+        if (loop != null) {
+            loop.stop();
+        }
     }
 
     // MODIFIES: this
@@ -72,14 +190,52 @@ public class Tetris extends JFrame {
         @Override
         public void keyPressed(KeyEvent e) {
             if (e.getKeyCode() == KeyEvent.VK_ESCAPE) {
-                timer.stop();
+                stopLoop();
                 openMenu();
+            } else if (e.getKeyCode() == KeyEvent.VK_G) {
+                toggleGhost();
+            } else if (e.getKeyCode() == KeyEvent.VK_F && canvas != null) {
+                canvas.toggleStats();
+            } else if (e.getKeyCode() == KeyEvent.VK_U) {
+                simulation.execute(history::undo);
+            } else if (e.getKeyCode() == KeyEvent.VK_R) {
+                simulation.execute(history::redo);
             } else {
-                game.keyPressed(e.getKeyCode());
+                game.input(toMove(e.getKeyCode()));
             }
         }
     }
 
+    // MODIFIES: this
+    // EFFECTS: shows or hides the ghost of the falling block
+    private void toggleGhost() {
+        if (canvas != null) {
+            canvas.toggleGhost();
+        } else {
+            gp.toggleGhost();
+        }
+    }
+
+    // EFFECTS: returns the move bound to the given key code
+    private static Moves toMove(int keyCode) {
+        switch (keyCode) {
+            case KeyEvent.VK_RIGHT:
+                return Moves.Right;
+            case KeyEvent.VK_LEFT:
+                return Moves.Left;
+            case KeyEvent.VK_DOWN:
+                return Moves.Down;
+            case KeyEvent.VK_UP:
+                return Moves.CW;
+            case KeyEvent.VK_Z:
+                return Moves.CCW;
+            case KeyEvent.VK_SPACE:
+                return Moves.Drop;
+            default:
+                return Moves.None;
+        }
+    }
+
     // MODIFIES: this
     // EFFECTS: opens pause menu dialog with buttons
     private void openMenu() {
@@ -127,7 +283,7 @@ public class Tetris extends JFrame {
             public void actionPerformed(ActionEvent ae) {
                 try {
                     handleAction(ae);
-                } catch (IOException e) {
+                } catch (IOException | UncheckedIOException e) {
                     System.out.println("IOException caught");
                 }
             }
@@ -139,7 +295,7 @@ public class Tetris extends JFrame {
     private void handleAction(ActionEvent ae) throws IOException {
         switch (ae.getActionCommand()) {
             case "Resume":
-                timer.start();
+                startLoop();
                 menu.setVisible(false);
                 break;
             case "Save":
@@ -152,34 +308,78 @@ public class Tetris extends JFrame {
                 for (Event event : EventLog.getInstance()) {
                     System.out.println(event.toString() + "\n");
                 }
+                closeJournal();
+                closeAutosave();
                 System.exit(0);
         }
     }
 
-    // EFFECTS: starts the game
+    // EFFECTS: starts the game; usage: Tetris [--active] [--fps=N]
     public static void main(String[] args) {
-        new Tetris();
+        boolean active = false;
+        int fps = DEFAULT_FPS;
+        for (String arg : args) {
+            if ("--active".equals(arg)) {
+                active = true;
+            } else if (arg.startsWith("--fps=")) {
+                fps = Integer.parseInt(arg.substring("--fps=".length()));
+            }
+        }
+
+        new Tetris(active, fps);
     }
 
-    // EFFECTS: saves the game to file
+    // EFFECTS: saves the game to a slot of the save archive named by the user
     private void saveGame() throws IOException {
-        JsonWriter jsonWriter = new JsonWriter(JSON_FILE);
-        jsonWriter.open();
-        jsonWriter.write(game);
-        jsonWriter.close();
+        String name = (String) JOptionPane.showInputDialog(menu, "Save to slot:", "Save",
+                JOptionPane.PLAIN_MESSAGE, null, null, DEFAULT_SLOT);
+        if (name == null || name.isEmpty()) {
+            return;
+        }
+
+        try (SaveArchive archive = new SaveArchive(ARCHIVE_FILE, ARCHIVE_CAPACITY)) {
+            archive.save(name, game);
+        }
     }
 
     // MODIFIES: this
-    // EFFECTS: loads the game from file and updates the game and score panels
+    // EFFECTS: loads the game from a slot of the save archive chosen by the user and updates the game and
+    //          score panels
     private void loadGame() throws IOException {
-        JsonReader jsonReader = new JsonReader(JSON_FILE);
-        if (jsonReader.read() != null) {
-            game = jsonReader.read();
-            gp.setGame(game);
+        Game loaded;
+        try (SaveArchive archive = new SaveArchive(ARCHIVE_FILE, ARCHIVE_CAPACITY)) {
+            String name = chooseSlot(archive);
+            loaded = name == null ? null : archive.load(name);
+        }
+
+        if (loaded != null) {
+            game = loaded;
+            history = game.keepHistory(UNDO_CAPACITY);
+            if (autosave != null) {
+                autosave.attach(game);
+            }
+            simulation.setGame(game);
+            if (gp != null) {
+                gp.repaint();
+            }
             sp = new ScorePanel(game.getScore());
             add(sp, BorderLayout.NORTH);
             game.addObserver(sp);
-            gp.repaint();
         }
     }
+
+    // EFFECTS: asks the user to pick one of the slots in archive and returns its name, or null if there are
+    //          none or the user cancels
+    private String chooseSlot(SaveArchive archive) {
+        List<SaveArchive.Slot> slots = archive.list();
+        if (slots.isEmpty()) {
+            return null;
+        }
+        String[] names = new String[slots.size()];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = slots.get(i).getName();
+        }
+        return (String) JOptionPane.showInputDialog(menu, "Load slot:", "Load",
+                JOptionPane.PLAIN_MESSAGE, null, names, names[0]);
+    }
 }
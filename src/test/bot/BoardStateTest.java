@@ -0,0 +1,85 @@
+package bot;
+
+import model.Board;
+import model.Tetromino;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static model.Game.BOARD_HEIGHT;
+import static model.Game.BOARD_WIDTH;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A testing class for BoardState
+ */
+class BoardStateTest {
+    // a vertical line: tiles from one above the centre to two below it
+    private static final int[] VERTICAL_LINE = {0, -1, 0, 0, 0, 1, 0, 2};
+    private static final int[] SQUARE = {0, 0, 1, 0, 0, -1, 1, -1};
+
+    private Board board;
+
+    @BeforeEach
+    void runBefore() {
+        board = new Board();
+    }
+
+    @Test
+    public void testOfBoard() {
+        board.set(3, BOARD_HEIGHT - 1, Tetromino.TShape);
+        BoardState state = BoardState.of(board);
+        assertTrue(state.isBlocked(3, BOARD_HEIGHT - 1));
+        assertFalse(state.isBlocked(4, BOARD_HEIGHT - 1));
+        assertTrue(state.isBlocked(-1, 0));
+        assertTrue(state.isBlocked(0, BOARD_HEIGHT));
+
+        board.set(4, BOARD_HEIGHT - 1, Tetromino.TShape);
+        assertFalse(state.isBlocked(4, BOARD_HEIGHT - 1));
+    }
+
+    @Test
+    public void testDropAndPlace() {
+        BoardState empty = BoardState.of(board);
+        int y = empty.dropRow(SQUARE, 0, 1);
+        assertEquals(BOARD_HEIGHT - 1, y);
+
+        BoardState placed = empty.place(SQUARE, 0, y);
+        assertEquals(0b11, placed.getRow(BOARD_HEIGHT - 1));
+        assertEquals(0b11, placed.getRow(BOARD_HEIGHT - 2));
+        assertEquals(0, placed.getLinesCleared());
+        assertEquals(0, empty.getRow(BOARD_HEIGHT - 1));
+    }
+
+    @Test
+    public void testPlaceClearsLines() {
+        int[] rows = new int[BOARD_HEIGHT];
+        for (int j = 1; j <= 4; j++) {
+            rows[BOARD_HEIGHT - j] = BoardState.FULL_ROW & ~1;
+        }
+        rows[BOARD_HEIGHT - 5] = 0b100;
+        BoardState state = BoardState.of(rows);
+
+        int y = state.dropRow(VERTICAL_LINE, 0, 1);
+        BoardState placed = state.place(VERTICAL_LINE, 0, y);
+        assertEquals(4, placed.getLinesCleared());
+        assertEquals(0b100, placed.getRow(BOARD_HEIGHT - 1));
+        for (int j = 0; j < BOARD_HEIGHT - 1; j++) {
+            assertEquals(0, placed.getRow(j));
+        }
+    }
+
+    @Test
+    public void testFeatures() {
+        int[] rows = new int[BOARD_HEIGHT];
+        rows[BOARD_HEIGHT - 3] = 0b1;
+        rows[BOARD_HEIGHT - 1] = 0b11;
+        BoardState state = BoardState.of(rows);
+
+        int[] heights = new int[BOARD_WIDTH];
+        state.columnHeights(heights);
+        assertEquals(3, heights[0]);
+        assertEquals(1, heights[1]);
+        assertEquals(0, heights[2]);
+        assertEquals(1, state.countHoles());
+    }
+}
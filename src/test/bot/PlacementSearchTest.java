@@ -0,0 +1,148 @@
+package bot;
+
+import model.Block;
+import model.Board;
+import model.Game;
+import model.GeneratorType;
+import model.Moves;
+import model.Tetromino;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static model.Game.BOARD_HEIGHT;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A testing class for PlacementSearch, Placement and Bot
+ */
+class PlacementSearchTest {
+    private static final ForkJoinPool POOL = ForkJoinPool.commonPool();
+
+    // EFFECTS: returns the number of distinct placements of shape on an empty board
+    private int countPlacements(Tetromino shape) {
+        BoardState empty = BoardState.of(new Board());
+        return PlacementSearch.enumerate(empty, shape, PlacementSearch.spawnOffsets(shape), 4, 1).size();
+    }
+
+    @Test
+    public void testEnumerateEmptyBoard() {
+        assertEquals(9, countPlacements(Tetromino.SquareShape));
+        assertEquals(17, countPlacements(Tetromino.LineShape));
+        assertEquals(17, countPlacements(Tetromino.SShape));
+        assertEquals(17, countPlacements(Tetromino.ZShape));
+        assertEquals(34, countPlacements(Tetromino.TShape));
+        assertEquals(34, countPlacements(Tetromino.LShape));
+        assertEquals(34, countPlacements(Tetromino.MirroredLShape));
+    }
+
+    @Test
+    public void testPrefersLineClear() {
+        int[] rows = new int[BOARD_HEIGHT];
+        for (int j = 1; j <= 4; j++) {
+            rows[BOARD_HEIGHT - j] = BoardState.FULL_ROW & ~(1 << 9);
+        }
+        BoardState state = BoardState.of(rows);
+
+        Placement best = new PlacementSearch().search(state, Tetromino.LineShape,
+                PlacementSearch.spawnOffsets(Tetromino.LineShape), 4, 1, new Tetromino[0]);
+        assertEquals(9, best.getX());
+        assertEquals(1, best.getRotation() % 2);
+    }
+
+    @Test
+    public void testPlanMatchesGame() {
+        Game game = new Game(19, GeneratorType.Bag);
+        PlacementSearch search = new PlacementSearch();
+
+        for (int piece = 0; piece < 30; piece++) {
+            Placement placement = search.search(game);
+            BoardState expected = BoardState.of(game.getBoard());
+            BoardState predicted = expected.place(rotated(game, placement.getRotation()), placement.getX(),
+                    placement.getY());
+
+            int locked = game.getPiecesLocked();
+            for (Moves move : placement.getMoves()) {
+                game.input(move);
+            }
+            while (game.getPiecesLocked() == locked) {
+                game.tick();
+            }
+
+            for (int y = 0; y < BOARD_HEIGHT; y++) {
+                assertEquals(predicted.getRow(y), game.getBoard().getRow(y));
+            }
+            assertEquals(predicted.getHash(), game.getBoard().getHash());
+        }
+    }
+
+    // EFFECTS: returns the offsets of game's current block turned clockwise the given number of times
+    private int[] rotated(Game game, int rotation) {
+        Block copy = new Block(game.getCurBlock().getShape());
+        for (int r = 0; r < rotation; r++) {
+            copy.setNextMove(Moves.CW);
+            copy.move();
+        }
+        return PlacementSearch.offsetsOf(copy.getRelativePos());
+    }
+
+    @Test
+    public void testBotPlansOncePerBlock() {
+        Game game = new Game(191, GeneratorType.Bag);
+        Bot bot = new Bot(game, new PlacementSearch());
+
+        Placement placement = bot.act();
+        assertNotNull(placement);
+        assertEquals(placement.getMoves().length, game.getInputs().size());
+        assertNull(bot.act());
+    }
+
+    @Test
+    public void testBotWithLookahead() {
+        Game game = new Game(190, GeneratorType.Bag);
+        Bot bot = new Bot(game, new PlacementSearch(Heuristic.DEFAULT, 2, PlacementSearch.DEFAULT_BEAM_WIDTH, POOL));
+
+        while (!game.isEnded() && game.getPiecesLocked() < 200) {
+            bot.act();
+            game.tick();
+        }
+        assertFalse(game.isEnded());
+        assertTrue(game.getScore() >= 60);
+    }
+
+    @Test
+    public void testTranspositionTable() {
+        Game game = new Game(192, GeneratorType.Bag);
+        TranspositionTable table = new TranspositionTable(1 << 16);
+        PlacementSearch plain = new PlacementSearch(Heuristic.DEFAULT, 2, PlacementSearch.DEFAULT_BEAM_WIDTH, POOL);
+        PlacementSearch cached = new PlacementSearch(Heuristic.DEFAULT, 2, PlacementSearch.DEFAULT_BEAM_WIDTH, POOL,
+                table);
+
+        for (int piece = 0; piece < 10; piece++) {
+            Placement expected = plain.search(game);
+            Placement placement = cached.search(game);
+            assertEquals(expected.getScore(), placement.getScore());
+            assertEquals(expected.getScore(), cached.search(game).getScore());
+
+            for (Moves move : placement.getMoves()) {
+                game.input(move);
+            }
+            int locked = game.getPiecesLocked();
+            while (game.getPiecesLocked() == locked) {
+                game.tick();
+            }
+        }
+        assertTrue(table.getHits() > 0);
+    }
+
+    @Test
+    public void testNoPlacement() {
+        int[] rows = new int[BOARD_HEIGHT];
+        for (int y = 0; y < BOARD_HEIGHT; y++) {
+            rows[y] = BoardState.FULL_ROW & ~(1 << (y % 2));
+        }
+        Placement placement = new PlacementSearch().search(BoardState.of(rows), Tetromino.SquareShape,
+                PlacementSearch.spawnOffsets(Tetromino.SquareShape), 4, 1, new Tetromino[]{Tetromino.TShape});
+        assertNull(placement);
+    }
+}
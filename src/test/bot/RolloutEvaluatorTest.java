@@ -0,0 +1,89 @@
+package bot;
+
+import model.Board;
+import model.Game;
+import model.GeneratorType;
+import model.Tetromino;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static model.Game.BOARD_HEIGHT;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A testing class for RolloutEvaluator
+ */
+class RolloutEvaluatorTest {
+    private static final long BUDGET = 20_000_000L;
+
+    private RolloutEvaluator evaluator = new RolloutEvaluator(Heuristic.DEFAULT, 4, 8, ForkJoinPool.commonPool(), 5);
+
+    // EFFECTS: returns a board with the bottom four rows full except for the rightmost column
+    private BoardState well() {
+        int[] rows = new int[BOARD_HEIGHT];
+        for (int j = 1; j <= 4; j++) {
+            rows[BOARD_HEIGHT - j] = BoardState.FULL_ROW & ~(1 << 9);
+        }
+        return BoardState.of(rows);
+    }
+
+    @Test
+    public void testPrefersLineClear() {
+        RolloutEvaluator.Search search = evaluator.begin(well(), Tetromino.LineShape,
+                PlacementSearch.spawnOffsets(Tetromino.LineShape), 4, 1, new Tetromino[0]);
+        search.runRounds(4);
+        assertEquals(4 * 8 * search.getCandidateCount(), search.getRollouts());
+
+        Placement best = search.best();
+        assertEquals(9, best.getX());
+        assertEquals(1, best.getRotation() % 2);
+    }
+
+    @Test
+    public void testBestBeforeRollouts() {
+        RolloutEvaluator.Search search = evaluator.begin(well(), Tetromino.LineShape,
+                PlacementSearch.spawnOffsets(Tetromino.LineShape), 4, 1, new Tetromino[0]);
+        assertEquals(0, search.getRollouts());
+        assertEquals(17, search.getCandidateCount());
+
+        Placement best = search.best();
+        assertEquals(9, best.getX());
+        assertEquals(1, best.getRotation() % 2);
+    }
+
+    @Test
+    public void testAnytime() {
+        RolloutEvaluator.Search search = evaluator.begin(BoardState.of(new Board()), Tetromino.TShape,
+                PlacementSearch.spawnOffsets(Tetromino.TShape), 4, 1, new Tetromino[]{Tetromino.LineShape});
+
+        long first = search.runFor(BUDGET);
+        assertEquals(0, first % 8);
+        assertEquals(first, search.getRollouts());
+
+        long second = search.runFor(BUDGET);
+        assertEquals(first + second, search.getRollouts());
+        assertNotNull(search.best());
+    }
+
+    @Test
+    public void testSameSeedSameResult() {
+        double[] scores = new double[2];
+        for (int run = 0; run < 2; run++) {
+            RolloutEvaluator seeded = new RolloutEvaluator(Heuristic.DEFAULT, 6, 4, ForkJoinPool.commonPool(), 9);
+            RolloutEvaluator.Search search = seeded.begin(well(), Tetromino.TShape,
+                    PlacementSearch.spawnOffsets(Tetromino.TShape), 4, 1, new Tetromino[0]);
+            search.runRounds(3);
+            scores[run] = search.best().getScore();
+        }
+        assertEquals(scores[0], scores[1]);
+    }
+
+    @Test
+    public void testEvaluateGame() {
+        Game game = new Game(19, GeneratorType.Bag);
+        Placement placement = evaluator.evaluate(game, BUDGET);
+        assertNotNull(placement);
+        assertTrue(placement.getScore() > RolloutEvaluator.TOP_OUT_SCORE);
+    }
+}
@@ -0,0 +1,93 @@
+package bot;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A testing class for TranspositionTable
+ */
+class TranspositionTableTest {
+    private TranspositionTable table;
+
+    @BeforeEach
+    void runBefore() {
+        table = new TranspositionTable(TranspositionTable.MIN_CAPACITY);
+    }
+
+    @Test
+    public void testCapacity() {
+        assertEquals(TranspositionTable.MIN_CAPACITY, table.capacity());
+        assertThrows(IllegalArgumentException.class, () -> new TranspositionTable(128));
+        assertThrows(IllegalArgumentException.class, () -> new TranspositionTable(1000));
+    }
+
+    @Test
+    public void testGetAndPut() {
+        assertTrue(Double.isNaN(table.get(0x1234_5678_9ABC_DE00L, 2)));
+        table.put(0x1234_5678_9ABC_DE00L, 2, -1.5);
+        assertEquals(-1.5, table.get(0x1234_5678_9ABC_DE00L, 2));
+        assertTrue(Double.isNaN(table.get(0x1234_5678_9ABC_DE00L, 1)));
+        assertTrue(Double.isNaN(table.get(0x7234_5678_9ABC_DE00L, 2)));
+        assertEquals(1, table.getHits());
+        assertEquals(3, table.getMisses());
+
+        table.clear();
+        assertTrue(Double.isNaN(table.get(0x1234_5678_9ABC_DE00L, 2)));
+        assertEquals(0, table.getHits());
+    }
+
+    @Test
+    public void testReplaceByDepth() {
+        // these keys share a bucket
+        long deep = 1L << 40;
+        long shallow = 2L << 40;
+        long newer = 3L << 40;
+        table.put(deep, 3, 3.0);
+        table.put(shallow, 1, 1.0);
+        assertEquals(3.0, table.get(deep, 3));
+        assertEquals(1.0, table.get(shallow, 1));
+
+        table.put(newer, 1, 4.0);
+        assertEquals(3.0, table.get(deep, 3));
+        assertEquals(4.0, table.get(newer, 1));
+        assertTrue(Double.isNaN(table.get(shallow, 1)));
+
+        table.put(newer, 3, 5.0);
+        assertEquals(5.0, table.get(newer, 3));
+        assertTrue(Double.isNaN(table.get(deep, 3)));
+    }
+
+    @Test
+    public void testConcurrentWritersNeverCorrupt() throws InterruptedException {
+        // every key is stored with a result derived from it, so a wrong pairing is detectable;
+        // all of these keys share one bucket, so the writers keep overwriting each other
+        AtomicBoolean corrupt = new AtomicBoolean();
+        AtomicBoolean hit = new AtomicBoolean();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            long seed = t;
+            threads[t] = new Thread(() -> {
+                for (long i = 0; i < 200000; i++) {
+                    long key = ((i * 7 + seed) % 1024) << 44;
+                    table.put(key, (int) (i & 3), key >>> 44);
+                    long probe = ((i * 13) % 1024) << 44;
+                    double result = table.get(probe, (int) (i & 3));
+                    if (!Double.isNaN(result)) {
+                        hit.set(true);
+                        corrupt.compareAndSet(false, (long) result != probe >>> 44);
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertTrue(hit.get());
+        assertFalse(corrupt.get());
+    }
+}
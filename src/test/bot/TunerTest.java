@@ -0,0 +1,83 @@
+package bot;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A testing class for Tuner
+ */
+class TunerTest {
+    private static final int POPULATION = 6;
+    private static final int GAMES = 2;
+    private static final int MAX_PIECES = 40;
+
+    @TempDir
+    Path dir;
+
+    // EFFECTS: returns a small tuner that checkpoints to the given file in dir
+    private Tuner tuner(String file) throws IOException {
+        return new Tuner(POPULATION, GAMES, MAX_PIECES, 21, dir.resolve(file).toString(), ForkJoinPool.commonPool());
+    }
+
+    @Test
+    public void testPlayIsRepeatable() {
+        int lines = Tuner.play(Heuristic.DEFAULT, 7, MAX_PIECES);
+        assertTrue(lines > 0);
+        assertEquals(lines, Tuner.play(Heuristic.DEFAULT, 7, MAX_PIECES));
+    }
+
+    @Test
+    public void testRunAndCheckpoint() throws IOException {
+        Tuner tuner = tuner("a.json");
+        assertNull(tuner.getBest());
+        tuner.run(2);
+
+        assertEquals(2, tuner.getGeneration());
+        assertEquals(2 * POPULATION * GAMES, tuner.getGamesPlayed());
+        assertNotNull(tuner.getBest());
+        assertTrue(tuner.getBestFitness() >= 0);
+        assertTrue(Files.exists(dir.resolve("a.json")));
+        assertFalse(Files.exists(dir.resolve("a.json.tmp")));
+
+        Tuner resumed = tuner("a.json");
+        assertEquals(2, resumed.getGeneration());
+        assertEquals(tuner.getBestFitness(), resumed.getBestFitness());
+        assertArrayEquals(tuner.getBest().toArray(), resumed.getBest().toArray());
+    }
+
+    @Test
+    public void testResumeMatchesUninterrupted() throws IOException {
+        Tuner straight = tuner("straight.json");
+        straight.run(3);
+
+        tuner("split.json").run(1);
+        Tuner split = tuner("split.json");
+        split.run(2);
+
+        assertEquals(straight.getBestFitness(), split.getBestFitness());
+        assertArrayEquals(straight.getBest().toArray(), split.getBest().toArray());
+    }
+
+    @Test
+    public void testWrongPopulation() throws IOException {
+        tuner("b.json").run(1);
+        assertThrows(IOException.class,
+                () -> new Tuner(POPULATION + 1, GAMES, MAX_PIECES, 21, dir.resolve("b.json").toString(),
+                        ForkJoinPool.commonPool()));
+    }
+
+    @Test
+    public void testWrongSeed() throws IOException {
+        tuner("c.json").run(1);
+        assertThrows(IOException.class,
+                () -> new Tuner(POPULATION, GAMES, MAX_PIECES, 22, dir.resolve("c.json").toString(),
+                        ForkJoinPool.commonPool()));
+    }
+}
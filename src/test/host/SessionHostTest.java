@@ -0,0 +1,187 @@
+package host;
+
+import metrics.GameMetrics;
+import metrics.Histogram;
+import model.Game;
+import model.Moves;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A testing class for SessionHost, Session and Shard
+ */
+class SessionHostTest {
+    private static final Moves[] MOVES = Moves.values();
+
+    private SessionHost host;
+    private long step;
+
+    @BeforeEach
+    void runBefore() {
+        host = new SessionHost(2, SessionHost.DEFAULT_TICK_MILLIS);
+        step = 0;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: runs n ticks of the host
+    private void step(int n) {
+        for (int i = 0; i < n; i++) {
+            host.step();
+            step++;
+        }
+    }
+
+    // EFFECTS: asserts that the session's game, once its idle ticks up to now are skipped, is in the same
+    //          state as expected
+    private void assertSameGame(Game expected, Session session) {
+        Game game = session.getGame();
+        long idle = step - 1 - session.getLastTick();
+        if (!game.isEnded()) {
+            assertEquals(expected.getTicks(), game.getTicks() + idle);
+            assertEquals(expected.getTicksUntilFall(), game.getTicksUntilFall() - idle);
+        }
+        assertEquals(expected.isEnded(), game.isEnded());
+        assertEquals(expected.getScore(), game.getScore());
+        assertEquals(expected.getBoard().fingerprint(), game.getBoard().fingerprint());
+        assertEquals(expected.getCurBlock().getCentrePosOnBoard().getX(),
+                game.getCurBlock().getCentrePosOnBoard().getX());
+        assertEquals(expected.getCurBlock().getCentrePosOnBoard().getY(),
+                game.getCurBlock().getCentrePosOnBoard().getY());
+    }
+
+    @Test
+    public void testMatchesTickedGame() {
+        Game expected = new Game(18);
+        Session session = host.register(new Game(18));
+        Random random = new Random(18);
+
+        while (!expected.isEnded() && step < 20000) {
+            if (random.nextInt(40) == 0) {
+                Moves move = MOVES[random.nextInt(MOVES.length)];
+                expected.input(move);
+                session.input(move);
+            }
+            expected.tick();
+            step(1);
+            assertSameGame(expected, session);
+        }
+        assertTrue(expected.isEnded());
+        assertTrue(session.isClosed());
+        assertEquals(0, host.getSessionCount());
+        assertEquals(expected.getScore(), session.getSnapshot().getScore());
+    }
+
+    @Test
+    public void testIdleGameOnlyTicksOnFalls() {
+        Histogram ticked = GameMetrics.getInstance().getTickNanos();
+        long before = ticked.getCount();
+        Session session = host.register(new Game(1));
+        step(1);
+        assertEquals(1, host.getSessionCount());
+        assertEquals(0, session.getGame().getTicks());
+
+        step(Game.TICKS_PER_FALL);
+        assertEquals(Game.TICKS_PER_FALL + 1, session.getGame().getTicks());
+        assertEquals(Game.TICKS_PER_FALL, session.getLastTick());
+
+        step(Game.TICKS_PER_FALL + 1);
+        assertEquals(Game.TICKS_PER_FALL * 2 + 1, session.getGame().getTicks());
+        assertEquals(Game.TICKS_PER_FALL * 2 + 1, session.getSnapshot().getTicks());
+        assertEquals(2, ticked.getCount() - before);
+    }
+
+    @Test
+    public void testInputAppliedOnNextTick() {
+        Session session = host.register(new Game(2));
+        step(5);
+        int x = session.getGame().getCurBlock().getCentrePosOnBoard().getX();
+
+        assertTrue(session.input(Moves.Left));
+        step(1);
+        assertEquals(x - 1, session.getGame().getCurBlock().getCentrePosOnBoard().getX());
+        assertEquals(6, session.getGame().getTicks());
+    }
+
+    @Test
+    public void testPauseKeepsFallCountdown() {
+        Game expected = new Game(3);
+        Session session = host.register(new Game(3));
+        for (int i = 0; i < 30; i++) {
+            expected.tick();
+        }
+        step(30);
+
+        session.pause();
+        step(500);
+        assertTrue(session.isPaused());
+        assertEquals(1, host.getSessionCount());
+        assertEquals(30, session.getGame().getTicks());
+
+        session.resume();
+        for (int i = 0; i < 100; i++) {
+            expected.tick();
+        }
+        step(100);
+        assertSameGame(expected, session);
+    }
+
+    @Test
+    public void testRemove() {
+        Session first = host.register(new Game(4));
+        Session second = host.register(new Game(5));
+        step(1);
+        assertEquals(2, host.getSessionCount());
+
+        host.remove(first);
+        step(Game.TICKS_PER_FALL * 2);
+        assertTrue(first.isClosed());
+        assertEquals(1, host.getSessionCount());
+        assertEquals(0, first.getGame().getTicks());
+        assertEquals(Game.TICKS_PER_FALL * 2 + 1, second.getGame().getTicks());
+    }
+
+    @Test
+    public void testFailingGameIsDropped() {
+        host = new SessionHost(1, SessionHost.DEFAULT_TICK_MILLIS);
+        Game failing = new Game(6);
+        IllegalStateException thrown = new IllegalStateException("observer failed");
+        failing.addLockObserver((game, block, lines) -> {
+            throw thrown;
+        });
+        Session bad = host.register(failing);
+        Session good = host.register(new Game(7));
+        bad.input(Moves.Drop);
+        good.input(Moves.Drop);
+        step(Game.TICKS_PER_FALL * 2);
+
+        assertTrue(bad.isClosed());
+        assertSame(thrown, bad.getFailure());
+        assertEquals(1, host.getFailureCount());
+        assertEquals(1, host.getSessionCount());
+        assertNull(good.getFailure());
+        assertEquals(Game.TICKS_PER_FALL * 2, good.getGame().getTicks() + step - 1 - good.getLastTick());
+    }
+
+    @Test
+    public void testRunsOnShardThreads() throws InterruptedException {
+        Session[] sessions = new Session[100];
+        for (int i = 0; i < sessions.length; i++) {
+            sessions[i] = host.register(new Game(i));
+            sessions[i].input(Moves.Down);
+        }
+        host.start();
+        Thread.sleep(300);
+        host.stop();
+
+        assertEquals(sessions.length, host.getSessionCount());
+        assertEquals(2, host.getShardCount());
+        assertTrue(host.getTickLag().getCount() > 0);
+        for (Session session : sessions) {
+            assertTrue(session.getGame().getTicks() >= 1);
+        }
+    }
+}
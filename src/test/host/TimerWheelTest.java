@@ -0,0 +1,116 @@
+package host;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A testing class for TimerWheel
+ */
+class TimerWheelTest {
+    private TimerWheel wheel;
+    private List<TimerWheel.Entry> fired;
+
+    @BeforeEach
+    void runBefore() {
+        wheel = new TimerWheel(0);
+        fired = new ArrayList<>();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: turns the wheel once and returns the entries that fired
+    private List<TimerWheel.Entry> advance() {
+        fired.clear();
+        wheel.advance(fired::add);
+        return fired;
+    }
+
+    @Test
+    public void testFireOnDeadline() {
+        TimerWheel.Entry entry = new TimerWheel.Entry();
+        wheel.schedule(entry, 3);
+        assertTrue(entry.isScheduled());
+        assertEquals(1, wheel.size());
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(advance().isEmpty());
+        }
+        assertEquals(List.of(entry), advance());
+        assertFalse(entry.isScheduled());
+        assertEquals(0, wheel.size());
+        assertEquals(4, wheel.getNow());
+    }
+
+    @Test
+    public void testPastDeadlineFiresNext() {
+        wheel.advance(e -> { });
+        TimerWheel.Entry entry = new TimerWheel.Entry();
+        wheel.schedule(entry, -5);
+        assertEquals(1, entry.getDeadline());
+        assertEquals(List.of(entry), advance());
+    }
+
+    @Test
+    public void testCancelAndReschedule() {
+        TimerWheel.Entry first = new TimerWheel.Entry();
+        TimerWheel.Entry second = new TimerWheel.Entry();
+        wheel.schedule(first, 0);
+        wheel.schedule(second, 0);
+        wheel.cancel(first);
+        wheel.cancel(first);
+        wheel.schedule(second, 1);
+        assertEquals(1, wheel.size());
+
+        assertTrue(advance().isEmpty());
+        assertEquals(List.of(second), advance());
+    }
+
+    @Test
+    public void testCascade() {
+        Random random = new Random(18);
+        long[] deadlines = new long[500];
+        TimerWheel.Entry[] entries = new TimerWheel.Entry[deadlines.length];
+        for (int i = 0; i < deadlines.length; i++) {
+            deadlines[i] = random.nextInt(300000);
+            entries[i] = new TimerWheel.Entry();
+            wheel.schedule(entries[i], deadlines[i]);
+        }
+
+        int count = 0;
+        while (wheel.size() > 0) {
+            long tick = wheel.getNow();
+            for (TimerWheel.Entry entry : advance()) {
+                assertEquals(tick, entry.getDeadline());
+                count++;
+            }
+        }
+        assertEquals(deadlines.length, count);
+    }
+
+    @Test
+    public void testBeyondMaxDelay() {
+        TimerWheel.Entry entry = new TimerWheel.Entry();
+        long deadline = TimerWheel.MAX_DELAY + 70;
+        wheel.schedule(entry, deadline);
+
+        long tick;
+        do {
+            tick = wheel.getNow();
+        } while (advance().isEmpty());
+        assertEquals(deadline, tick);
+    }
+
+    @Test
+    public void testRescheduleWhileFiring() {
+        TimerWheel.Entry entry = new TimerWheel.Entry();
+        wheel.schedule(entry, 0);
+        wheel.advance(e -> wheel.schedule(e, wheel.getNow() + 100));
+        assertTrue(entry.isScheduled());
+        assertEquals(101, entry.getDeadline());
+    }
+}
@@ -0,0 +1,55 @@
+package metrics;
+
+import model.Game;
+import model.Moves;
+import model.Tetromino;
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+import static model.Game.BOARD_HEIGHT;
+import static model.Game.BOARD_WIDTH;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A testing class for GameMetrics
+ */
+class GameMetricsTest {
+    private final GameMetrics metrics = GameMetrics.getInstance();
+
+    @Test
+    public void testRegister() throws Exception {
+        assertTrue(metrics.register());
+        assertTrue(metrics.register());
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(GameMetrics.OBJECT_NAME);
+        assertTrue(server.isRegistered(name));
+
+        long ticks = (Long) server.getAttribute(name, "Ticks");
+        assertEquals(metrics.getTickNanos().getCount(), ticks);
+        long[] lines = (long[]) server.getAttribute(name, "LinesClearedBySize");
+        assertEquals(GameMetrics.MAX_LINES_PER_LOCK, lines.length);
+    }
+
+    @Test
+    public void testGameUpdatesMetrics() {
+        Game game = new Game();
+        for (int i = 0; i < BOARD_WIDTH; i++) {
+            game.getBoard().set(i, BOARD_HEIGHT - 1, Tetromino.LineShape);
+        }
+        long ticks = metrics.getTickNanos().getCount();
+        long locked = metrics.getPiecesLocked().get();
+        long singles = metrics.getLinesCleared(1).get();
+
+        game.getCurBlock().setNextMove(Moves.Drop);
+        game.tick();
+
+        assertEquals(ticks + 1, metrics.getTickNanos().getCount());
+        assertEquals(locked + 1, metrics.getPiecesLocked().get());
+        assertTrue(metrics.getTickNanos().getMax() > 0);
+        assertEquals(singles + 1, metrics.getLinesCleared(1).get());
+    }
+}
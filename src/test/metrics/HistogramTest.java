@@ -0,0 +1,70 @@
+package metrics;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A testing class for Histogram
+ */
+class HistogramTest {
+    private Histogram histogram;
+
+    @BeforeEach
+    void runBefore() {
+        histogram = new Histogram();
+    }
+
+    @Test
+    public void testEmpty() {
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMean());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.getPercentile(0.99));
+    }
+
+    @Test
+    public void testBucketOf() {
+        assertEquals(0, Histogram.bucketOf(0));
+        assertEquals(1, Histogram.bucketOf(1));
+        assertEquals(2, Histogram.bucketOf(2));
+        assertEquals(2, Histogram.bucketOf(3));
+        assertEquals(11, Histogram.bucketOf(1024));
+        assertEquals(63, Histogram.bucketOf(Long.MAX_VALUE));
+        assertEquals(1023, Histogram.upperBound(10));
+    }
+
+    @Test
+    public void testRecord() {
+        histogram.record(100);
+        histogram.record(300);
+        histogram.record(-5);
+        assertEquals(3, histogram.getCount());
+        assertEquals(400 / 3.0, histogram.getMean(), 1e-9);
+        assertEquals(300, histogram.getMax());
+        assertEquals(1, histogram.getBucketCount(0));
+        assertEquals(1, histogram.getBucketCount(7));
+        assertEquals(1, histogram.getBucketCount(9));
+    }
+
+    @Test
+    public void testPercentile() {
+        for (int i = 0; i < 99; i++) {
+            histogram.record(1000);
+        }
+        histogram.record(1000000);
+        assertEquals(1023, histogram.getPercentile(0.5));
+        assertEquals(1023, histogram.getPercentile(0.99));
+        assertEquals(1000000, histogram.getPercentile(1));
+    }
+
+    @Test
+    public void testReset() {
+        histogram.record(42);
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.getBucketCount(6));
+    }
+}
@@ -105,6 +105,35 @@ class BlockTest {
         assertEquals(Moves.None, block.getNextMove());
     }
 
+    @Test
+    public void testGetTilePos() {
+        Position[] allPos = block.getAllPosOnBoard();
+
+        for (int i = 0; i < 4; i++) {
+            assertEquals(allPos[i].getX(), block.getTileX(i));
+            assertEquals(allPos[i].getY(), block.getTileY(i));
+            assertEquals(block.getCentrePosOnBoard().getX() + block.getRelativePos()[i].getX(), block.getTileX(i));
+            assertEquals(block.getCentrePosOnBoard().getY() + block.getRelativePos()[i].getY(), block.getTileY(i));
+        }
+    }
+
+    @Test
+    public void testSetShapeResetsRotation() {
+        block.setShape(Tetromino.TShape);
+        block.setNextMove(Moves.CW);
+        block.move();
+        block.setShape(Tetromino.TShape);
+
+        Block other = new Block();
+        other.setShape(Tetromino.TShape);
+        for (int i = 0; i < 4; i++) {
+            assertEquals(other.getRelativePos()[i].getX(), block.getRelativePos()[i].getX());
+            assertEquals(other.getRelativePos()[i].getY(), block.getRelativePos()[i].getY());
+        }
+        assertEquals(-1, block.getRelativePos()[0].getX());
+        assertEquals(0, block.getRelativePos()[0].getY());
+    }
+
     @Test
     public void testDraw() {
 
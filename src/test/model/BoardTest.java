@@ -0,0 +1,190 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static model.Game.BOARD_HEIGHT;
+import static model.Game.BOARD_WIDTH;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A testing class for Board
+ */
+class BoardTest {
+    private Board board;
+
+    @BeforeEach
+    void runBefore() {
+        board = new Board();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: fills row y with the given tetromino
+    private void fillRow(int y, Tetromino t) {
+        for (int i = 0; i < BOARD_WIDTH; i++) {
+            board.set(i, y, t);
+        }
+    }
+
+    @Test
+    public void testNewBoardEmpty() {
+        for (int i = 0; i < BOARD_WIDTH; i++) {
+            for (int j = 0; j < BOARD_HEIGHT; j++) {
+                assertEquals(Tetromino.Empty, board.get(i, j));
+                assertFalse(board.isBlocked(i, j));
+            }
+        }
+    }
+
+    @Test
+    public void testSet() {
+        board.set(3, 5, Tetromino.TShape);
+        assertEquals(Tetromino.TShape, board.get(3, 5));
+        assertTrue(board.isBlocked(3, 5));
+        assertEquals(1 << 3, board.getRow(5));
+
+        board.set(3, 5, Tetromino.Empty);
+        assertEquals(Tetromino.Empty, board.get(3, 5));
+        assertFalse(board.isBlocked(3, 5));
+        assertEquals(0, board.getRow(5));
+    }
+
+    @Test
+    public void testIsBlockedOutOfBounds() {
+        assertTrue(board.isBlocked(-1, 0));
+        assertTrue(board.isBlocked(BOARD_WIDTH, 0));
+        assertTrue(board.isBlocked(0, -1));
+        assertTrue(board.isBlocked(0, BOARD_HEIGHT));
+    }
+
+    @Test
+    public void testClearFullRowsNone() {
+        board.set(0, BOARD_HEIGHT - 1, Tetromino.LShape);
+        assertEquals(0, board.clearFullRows());
+        assertEquals(Tetromino.LShape, board.get(0, BOARD_HEIGHT - 1));
+    }
+
+    @Test
+    public void testClearFullRowsShiftsDown() {
+        fillRow(BOARD_HEIGHT - 1, Tetromino.LineShape);
+        fillRow(BOARD_HEIGHT - 3, Tetromino.ZShape);
+        board.set(2, BOARD_HEIGHT - 2, Tetromino.SShape);
+        board.set(7, BOARD_HEIGHT - 4, Tetromino.TShape);
+
+        assertEquals(2, board.clearFullRows());
+        assertEquals(Tetromino.SShape, board.get(2, BOARD_HEIGHT - 1));
+        assertEquals(Tetromino.TShape, board.get(7, BOARD_HEIGHT - 2));
+        assertEquals(1 << 2, board.getRow(BOARD_HEIGHT - 1));
+        assertEquals(1 << 7, board.getRow(BOARD_HEIGHT - 2));
+        assertEquals(0, board.getRow(BOARD_HEIGHT - 3));
+        assertEquals(0, board.getRow(0));
+    }
+
+    @Test
+    public void testClearFullRowsAdjacent() {
+        for (int j = BOARD_HEIGHT - 4; j < BOARD_HEIGHT; j++) {
+            fillRow(j, Tetromino.LineShape);
+        }
+
+        assertEquals(4, board.clearFullRows());
+        for (int j = 0; j < BOARD_HEIGHT; j++) {
+            assertEquals(0, board.getRow(j));
+        }
+    }
+
+    @Test
+    public void testClearFullRowsOnlyOnce() {
+        fillRow(0, Tetromino.LineShape);
+        assertEquals(1, board.clearFullRows());
+        assertEquals(0, board.clearFullRows());
+    }
+
+    @Test
+    public void testVersion() {
+        int version = board.getVersion();
+        board.set(3, 5, Tetromino.TShape);
+        assertNotEquals(version, board.getVersion());
+
+        version = board.getVersion();
+        assertEquals(0, board.clearFullRows());
+        assertEquals(version, board.getVersion());
+
+        fillRow(BOARD_HEIGHT - 1, Tetromino.LineShape);
+        version = board.getVersion();
+        assertEquals(1, board.clearFullRows());
+        assertNotEquals(version, board.getVersion());
+
+        version = board.getVersion();
+        board.clear();
+        assertNotEquals(version, board.getVersion());
+    }
+
+    @Test
+    public void testHash() {
+        assertEquals(0, board.getHash());
+        board.set(3, 5, Tetromino.TShape);
+        long hash = board.getHash();
+        assertNotEquals(0, hash);
+        board.set(3, 5, Tetromino.LShape);
+        assertEquals(hash, board.getHash());
+        board.set(3, 5, Tetromino.Empty);
+        assertEquals(0, board.getHash());
+
+        fillRow(BOARD_HEIGHT - 1, Tetromino.LineShape);
+        board.set(2, BOARD_HEIGHT - 2, Tetromino.SShape);
+        board.set(7, BOARD_HEIGHT - 3, Tetromino.SShape);
+        board.clearFullRows();
+
+        Board expected = new Board();
+        expected.set(2, BOARD_HEIGHT - 1, Tetromino.ZShape);
+        expected.set(7, BOARD_HEIGHT - 2, Tetromino.ZShape);
+        assertEquals(expected.getHash(), board.getHash());
+
+        Board copy = new Board();
+        copy.copyFrom(board);
+        assertEquals(board.getHash(), copy.getHash());
+        copy.clear();
+        assertEquals(0, copy.getHash());
+    }
+
+    @Test
+    public void testCopyFrom() {
+        fillRow(BOARD_HEIGHT - 1, Tetromino.LineShape);
+        board.set(3, BOARD_HEIGHT - 2, Tetromino.TShape);
+        Board copy = new Board();
+        copy.copyFrom(board);
+
+        assertEquals(Tetromino.TShape, copy.get(3, BOARD_HEIGHT - 2));
+        assertEquals(1, copy.clearFullRows());
+        assertEquals(Tetromino.TShape, copy.get(3, BOARD_HEIGHT - 1));
+        assertEquals(Board.FULL_ROW, board.getRow(BOARD_HEIGHT - 1));
+    }
+
+    @Test
+    public void testPackUnpack() {
+        fillRow(BOARD_HEIGHT - 1, Tetromino.LineShape);
+        board.set(0, 0, Tetromino.SShape);
+        board.set(BOARD_WIDTH - 1, BOARD_HEIGHT - 2, Tetromino.ZShape);
+        long[] packed = new long[Board.PACKED_WORDS + 1];
+        board.pack(packed, 1);
+
+        Board copy = new Board();
+        copy.set(5, 5, Tetromino.TShape);
+        copy.unpack(packed, 1);
+        assertEquals(board.fingerprint(), copy.fingerprint());
+        assertEquals(board.getHash(), copy.getHash());
+        for (int j = 0; j < BOARD_HEIGHT; j++) {
+            assertEquals(board.getRow(j), copy.getRow(j));
+        }
+        assertEquals(0, copy.clearFullRows());
+    }
+
+    @Test
+    public void testClear() {
+        fillRow(4, Tetromino.SquareShape);
+        board.clear();
+        assertEquals(0, board.getRow(4));
+        assertEquals(Tetromino.Empty, board.get(0, 4));
+        assertEquals(0, board.clearFullRows());
+    }
+}
@@ -4,6 +4,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 
@@ -51,4 +52,66 @@ public class EventLogTest {
 		assertEquals("Event log cleared.", itr.next().getDescription());
 		assertFalse(itr.hasNext());
 	}
+
+    @Test
+    public void testTypedEvents() {
+        EventLog el = EventLog.getInstance();
+        el.clear();
+        el.log(EventKind.BlockDropped, Tetromino.TShape.ordinal());
+        el.log(EventKind.LinesCleared, 2);
+        el.log(EventKind.GameEnded, 7);
+
+        List<String> descriptions = new ArrayList<>();
+        for (Event next : el) {
+            descriptions.add(next.getDescription());
+        }
+        assertEquals(Arrays.asList("Event log cleared.", "TShape dropped onto board.", "2 line(s) cleared.",
+                "Game ended with 7 line(s) cleared."), descriptions);
+    }
+
+    @Test
+    public void testBounded() {
+        EventLog el = EventLog.getInstance();
+        el.clear();
+        for (int i = 0; i < EventLog.CAPACITY + 10; i++) {
+            el.log(EventKind.LinesCleared, i);
+        }
+
+        List<Event> events = el.eventsSince(0);
+        assertEquals(EventLog.CAPACITY, events.size());
+        assertEquals("10 line(s) cleared.", events.get(0).getDescription());
+        assertEquals((EventLog.CAPACITY + 9) + " line(s) cleared.", events.get(events.size() - 1).getDescription());
+    }
+
+    @Test
+    public void testEventsSince() {
+        EventLog el = EventLog.getInstance();
+        long from = el.getNextSequence();
+        el.log(EventKind.LinesCleared, 1);
+        el.logEvent(e1);
+
+        List<Event> events = el.eventsSince(from);
+        assertEquals(2, events.size());
+        assertEquals(e1, events.get(1));
+    }
+
+    @Test
+    public void testConcurrentWriters() throws InterruptedException {
+        EventLog el = EventLog.getInstance();
+        el.clear();
+        Thread[] writers = new Thread[4];
+        for (int t = 0; t < writers.length; t++) {
+            writers[t] = new Thread(() -> {
+                for (int i = 0; i < 500; i++) {
+                    el.log(EventKind.LinesCleared, i);
+                }
+            });
+            writers[t].start();
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+
+        assertEquals(1 + writers.length * 500, el.eventsSince(0).size());
+    }
 }
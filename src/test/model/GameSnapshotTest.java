@@ -0,0 +1,79 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static model.Game.BOARD_HEIGHT;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A testing class for GameSnapshot
+ */
+class GameSnapshotTest {
+    private Game game;
+
+    @BeforeEach
+    void runBefore() {
+        game = new Game(new SequenceGenerator(Tetromino.TShape, Tetromino.LShape));
+    }
+
+    @Test
+    public void testCapture() {
+        game.getBoard().set(2, BOARD_HEIGHT - 1, Tetromino.ZShape);
+        game.setScore(7);
+        GameSnapshot snapshot = new GameSnapshot(game, null);
+
+        assertEquals(Tetromino.ZShape, snapshot.get(2, BOARD_HEIGHT - 1));
+        assertEquals(Tetromino.Empty, snapshot.get(3, BOARD_HEIGHT - 1));
+        assertEquals(Tetromino.TShape, snapshot.getShape());
+        for (int i = 0; i < 4; i++) {
+            assertEquals(game.getCurBlock().getTileX(i), snapshot.getTileX(i));
+            assertEquals(game.getCurBlock().getTileY(i), snapshot.getTileY(i));
+        }
+        assertEquals(game.getDropDistance(), snapshot.getDropDistance());
+        assertEquals(7, snapshot.getScore());
+        assertFalse(snapshot.isEnded());
+        assertEquals(0, snapshot.getTicks());
+    }
+
+    @Test
+    public void testUnaffectedByLaterTicks() {
+        GameSnapshot snapshot = new GameSnapshot(game, null);
+        int y = snapshot.getTileY(0);
+        game.getCurBlock().setNextMove(Moves.Drop);
+        game.tick();
+
+        assertEquals(y, snapshot.getTileY(0));
+        assertEquals(Tetromino.TShape, snapshot.getShape());
+        for (int i = 0; i < 4; i++) {
+            assertNotEquals(Tetromino.TShape, snapshot.get(game.getCurBlock().getTileX(i), BOARD_HEIGHT - 1));
+        }
+    }
+
+    @Test
+    public void testSharesUnchangedBoard() {
+        GameSnapshot first = new GameSnapshot(game, null);
+        game.getCurBlock().setNextMove(Moves.Right);
+        game.tick();
+        GameSnapshot second = new GameSnapshot(game, first);
+        assertTrue(second.hasSameBoard(first));
+        assertTrue(second.isOfSameGame(first));
+
+        game.getCurBlock().setNextMove(Moves.Drop);
+        game.tick();
+        GameSnapshot third = new GameSnapshot(game, second);
+        assertFalse(third.hasSameBoard(second));
+        assertTrue(third.isOfSameGame(second));
+        assertEquals(Tetromino.LShape, third.getShape());
+    }
+
+    @Test
+    public void testReplacedBoardNotShared() {
+        GameSnapshot first = new GameSnapshot(game, null);
+        Game other = new Game(new SequenceGenerator(Tetromino.TShape));
+        assertFalse(new GameSnapshot(other, first).hasSameBoard(first));
+        assertFalse(new GameSnapshot(other, first).isOfSameGame(first));
+        assertFalse(first.hasSameBoard(null));
+        assertFalse(first.isOfSameGame(null));
+    }
+}
@@ -6,11 +6,11 @@ import org.junit.jupiter.api.Test;
 import persistence.JsonReader;
 import persistence.JsonTest;
 
-import java.awt.event.KeyEvent;
+import java.util.EnumSet;
+import java.util.Set;
 
 import static model.Game.*;
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.*;
 
 /**
  * A testing class for Game
@@ -40,7 +40,7 @@ class GameTest {
         for (Position pos : relPos) {
             int expectedX = pos.getX() + 4;
             int expectedY = pos.getY() + BOARD_HEIGHT - 1;
-            assertEquals(shape, game.getBoard()[expectedX][expectedY]);
+            assertEquals(shape, game.getBoard().get(expectedX, expectedY));
         }
 
         assertEquals(4, game.getCurBlock().getCentrePosOnBoard().getX());
@@ -195,9 +195,9 @@ class GameTest {
         int[][] initRelPos = setupTestTickRotate(Moves.CW, false);
 
         if (game.getCurBlock().getShape() == Tetromino.ZShape) {
-            game.getBoard()[5][2] = Tetromino.LineShape;
+            game.getBoard().set(5, 2, Tetromino.LineShape);
         } else {
-            game.getBoard()[4][2] = Tetromino.LineShape;
+            game.getBoard().set(4, 2, Tetromino.LineShape);
         }
 
         game.tick();
@@ -245,9 +245,9 @@ class GameTest {
         int[][] initRelPos = setupTestTickRotate(Moves.CCW, false);
 
         if (game.getCurBlock().getShape() == Tetromino.SShape) {
-            game.getBoard()[3][2] = Tetromino.LineShape;
+            game.getBoard().set(3, 2, Tetromino.LineShape);
         } else {
-            game.getBoard()[4][2] = Tetromino.LineShape;
+            game.getBoard().set(4, 2, Tetromino.LineShape);
         }
 
         game.tick();
@@ -302,7 +302,7 @@ class GameTest {
         }
 
         for (int i = 0; i < 4; i++) {
-            assertEquals(shape, game.getBoard()[positions[i].getX()][positions[i].getY()]);
+            assertEquals(shape, game.getBoard().get(positions[i].getX(), positions[i].getY()));
         }
 
         assertEquals(4, game.getCurBlock().getCentrePosOnBoard().getX());
@@ -313,11 +313,11 @@ class GameTest {
     @Test
     public void testTickFallFailClearOneLine() {
         for (int i = 0; i < BOARD_WIDTH; i++) {
-            game.getBoard()[i][3] = Tetromino.LineShape;
+            game.getBoard().set(i, 3, Tetromino.LineShape);
         }
 
-        game.getBoard()[0][0] = Tetromino.LineShape;
-        game.getBoard()[0][1] = Tetromino.LineShape;
+        game.getBoard().set(0, 0, Tetromino.LineShape);
+        game.getBoard().set(0, 1, Tetromino.LineShape);
 
         for (int i = 0; i < TICKS_PER_FALL * 2; i++) {
             game.tick();
@@ -328,7 +328,7 @@ class GameTest {
         game.tick();
 
         for (int i = 0; i < 4; i++) {
-            assertEquals(shape, game.getBoard()[positions[i].getX()][positions[i].getY() + 1]);
+            assertEquals(shape, game.getBoard().get(positions[i].getX(), positions[i].getY() + 1));
         }
 
         for (int i = 0; i < BOARD_WIDTH; i++) {
@@ -347,13 +347,13 @@ class GameTest {
                 }
 
                 if (expectedEmpty) {
-                    assertEquals(Tetromino.Empty, game.getBoard()[i][j]);
+                    assertEquals(Tetromino.Empty, game.getBoard().get(i, j));
                 }
             }
         }
 
-        assertEquals(Tetromino.LineShape, game.getBoard()[0][1]);
-        assertEquals(Tetromino.LineShape, game.getBoard()[0][2]);
+        assertEquals(Tetromino.LineShape, game.getBoard().get(0, 1));
+        assertEquals(Tetromino.LineShape, game.getBoard().get(0, 2));
         assertEquals(1, game.getScore());
         assertEquals(4, game.getCurBlock().getCentrePosOnBoard().getX());
         assertEquals(1, game.getCurBlock().getCentrePosOnBoard().getY());
@@ -363,13 +363,13 @@ class GameTest {
     @Test
     public void testTickFallFailClearThreeLines() {
         for (int i = 0; i < BOARD_WIDTH; i++) {
-            game.getBoard()[i][3] = Tetromino.LineShape;
-            game.getBoard()[i][4] = Tetromino.LineShape;
-            game.getBoard()[i][10] = Tetromino.LineShape;
+            game.getBoard().set(i, 3, Tetromino.LineShape);
+            game.getBoard().set(i, 4, Tetromino.LineShape);
+            game.getBoard().set(i, 10, Tetromino.LineShape);
         }
 
-        game.getBoard()[0][0] = Tetromino.LineShape;
-        game.getBoard()[0][1] = Tetromino.LineShape;
+        game.getBoard().set(0, 0, Tetromino.LineShape);
+        game.getBoard().set(0, 1, Tetromino.LineShape);
 
         for (int i = 0; i < TICKS_PER_FALL * 2; i++) {
             game.tick();
@@ -380,7 +380,7 @@ class GameTest {
         game.tick();
 
         for (int i = 0; i < 4; i++) {
-            assertEquals(shape, game.getBoard()[positions[i].getX()][positions[i].getY() + 3]);
+            assertEquals(shape, game.getBoard().get(positions[i].getX(), positions[i].getY() + 3));
         }
 
         for (int i = 0; i < BOARD_WIDTH; i++) {
@@ -399,13 +399,13 @@ class GameTest {
                 }
 
                 if (expectedEmpty) {
-                    assertEquals(Tetromino.Empty, game.getBoard()[i][j]);
+                    assertEquals(Tetromino.Empty, game.getBoard().get(i, j));
                 }
             }
         }
 
-        assertEquals(Tetromino.LineShape, game.getBoard()[0][3]);
-        assertEquals(Tetromino.LineShape, game.getBoard()[0][4]);
+        assertEquals(Tetromino.LineShape, game.getBoard().get(0, 3));
+        assertEquals(Tetromino.LineShape, game.getBoard().get(0, 4));
         assertEquals(3, game.getScore());
         assertEquals(4, game.getCurBlock().getCentrePosOnBoard().getX());
         assertEquals(1, game.getCurBlock().getCentrePosOnBoard().getY());
@@ -416,35 +416,157 @@ class GameTest {
     public void testTickFallFailGameOver() {
         Tetromino shape = game.getCurBlock().getShape();
         Position[] positions = game.getCurBlock().getAllPosOnBoard();
-        game.getBoard()[4][2] = Tetromino.LineShape;
+        game.getBoard().set(4, 2, Tetromino.LineShape);
 
         for (int i = 0; i < TICKS_PER_FALL + 1; i++) {
             game.tick();
         }
 
         for (int i = 0; i < 4; i++) {
-            assertEquals(shape, game.getBoard()[positions[i].getX()][positions[i].getY()]);
+            assertEquals(shape, game.getBoard().get(positions[i].getX(), positions[i].getY()));
         }
 
         assertTrue(game.isEnded());
     }
 
     @Test
-    public void testKeyPressed() {
-        game.keyPressed(KeyEvent.VK_RIGHT);
-        assertEquals(Moves.Right, game.getCurBlock().getNextMove());
-        game.keyPressed(KeyEvent.VK_LEFT);
-        assertEquals(Moves.Left, game.getCurBlock().getNextMove());
-        game.keyPressed(KeyEvent.VK_DOWN);
-        assertEquals(Moves.Down, game.getCurBlock().getNextMove());
-        game.keyPressed(KeyEvent.VK_UP);
-        assertEquals(Moves.CW, game.getCurBlock().getNextMove());
-        game.keyPressed(KeyEvent.VK_Z);
-        assertEquals(Moves.CCW, game.getCurBlock().getNextMove());
-        game.keyPressed(KeyEvent.VK_SPACE);
-        assertEquals(Moves.Drop, game.getCurBlock().getNextMove());
-        game.keyPressed(KeyEvent.VK_C);
+    public void testInput() {
+        game = new Game(new SequenceGenerator(Tetromino.TShape));
+        game.input(Moves.Right);
+        game.input(Moves.None);
+        game.input(Moves.Right);
         assertEquals(Moves.None, game.getCurBlock().getNextMove());
+        assertEquals(2, game.getInputs().size());
+
+        game.tick();
+        assertEquals(6, game.getCurBlock().getCentrePosOnBoard().getX());
+        assertEquals(0, game.getInputs().size());
+    }
+
+    @Test
+    public void testInputsPerTick() {
+        game = new Game(new SequenceGenerator(Tetromino.TShape));
+        game.setInputsPerTick(1);
+        game.input(Moves.Left);
+        game.input(Moves.Left);
+        game.input(Moves.Left);
+
+        game.tick();
+        assertEquals(3, game.getCurBlock().getCentrePosOnBoard().getX());
+        game.tick();
+        assertEquals(2, game.getCurBlock().getCentrePosOnBoard().getX());
+        game.tick();
+        assertEquals(1, game.getCurBlock().getCentrePosOnBoard().getX());
+        assertEquals(0, game.getInputs().size());
+    }
+
+    @Test
+    public void testInputDropEndsTick() {
+        game = new Game(new SequenceGenerator(Tetromino.TShape));
+        Block first = game.getCurBlock();
+        game.input(Moves.Drop);
+        game.input(Moves.Right);
+        game.tick();
+
+        assertTrue(first != game.getCurBlock());
+        assertEquals(1, game.getInputs().size());
+        game.tick();
+        assertEquals(5, game.getCurBlock().getCentrePosOnBoard().getX());
+    }
+
+    @Test
+    public void testInputQueueFull() {
+        for (int i = 0; i < INPUT_CAPACITY; i++) {
+            assertTrue(game.input(Moves.CW, i));
+        }
+        assertFalse(game.input(Moves.CW, INPUT_CAPACITY));
+        assertEquals(1, game.getInputs().getDropped());
+    }
+
+    @Test
+    public void testSeededGamesMatch() {
+        Game other = new Game(42);
+        game = new Game(42);
+
+        for (int i = 0; i < 20; i++) {
+            assertEquals(game.getCurBlock().getShape(), other.getCurBlock().getShape());
+            game.input(Moves.Drop);
+            other.input(Moves.Drop);
+            game.tick();
+            other.tick();
+        }
+
+        assertEquals(game.getPiecesLocked(), other.getPiecesLocked());
+        assertEquals(game.getTicks(), other.getTicks());
+    }
+
+    @Test
+    public void testPreview() {
+        game = new Game(new SequenceGenerator(Tetromino.LineShape, Tetromino.TShape, Tetromino.ZShape));
+        assertEquals(Tetromino.LineShape, game.getCurBlock().getShape());
+        assertEquals(Tetromino.TShape, game.getPreview(0));
+        assertEquals(Tetromino.ZShape, game.getPreview(1));
+
+        game.input(Moves.Drop);
+        game.tick();
+
+        assertEquals(Tetromino.TShape, game.getCurBlock().getShape());
+        assertEquals(Tetromino.ZShape, game.getPreview(0));
+        assertEquals(Tetromino.LineShape, game.getPreview(1));
+    }
+
+    @Test
+    public void testBagGame() {
+        game = new Game(5, GeneratorType.Bag);
+        assertEquals(5, game.getSeed());
+        assertEquals(GeneratorType.Bag, game.getGeneratorType());
+        Set<Tetromino> firstBag = EnumSet.of(game.getCurBlock().getShape());
+        for (int i = 0; i < PREVIEW_SIZE; i++) {
+            firstBag.add(game.getPreview(i));
+        }
+        assertEquals(PREVIEW_SIZE + 1, firstBag.size());
+    }
+
+    @Test
+    public void testObserverNotifiedOnLock() {
+        String[] received = new String[1];
+        game.addObserver((g, event) -> received[0] = event);
+        game.input(Moves.Drop);
+        game.tick();
+
+        assertEquals(EVENT_LINE_CLEARED, received[0]);
+        assertEquals(1, game.getPiecesLocked());
+        assertEquals(1, game.getTicks());
+    }
+
+    @Test
+    public void testDropDistance() {
+        int maxY = 0;
+        for (Position pos : game.getCurBlock().getRelativePos()) {
+            maxY = Math.max(maxY, pos.getY());
+        }
+        assertEquals(BOARD_HEIGHT - 2 - maxY, game.getDropDistance());
+
+        for (int i = 0; i < BOARD_WIDTH; i++) {
+            game.getBoard().set(i, 10, Tetromino.LineShape);
+        }
+        assertEquals(8 - maxY, game.getDropDistance());
+    }
+
+    @Test
+    public void testHash() {
+        Game same = new Game(1);
+        Game other = new Game(1);
+        assertEquals(same.getHash(), other.getHash());
+
+        long hash = other.getHash();
+        other.input(Moves.Drop);
+        other.tick();
+        assertNotEquals(hash, other.getHash());
+
+        same.input(Moves.Drop);
+        same.tick();
+        assertEquals(same.getHash(), other.getHash());
     }
 
     @Test
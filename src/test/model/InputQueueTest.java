@@ -0,0 +1,89 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A testing class for InputQueue
+ */
+class InputQueueTest {
+    private InputQueue queue;
+
+    @BeforeEach
+    void runBefore() {
+        queue = new InputQueue(4);
+    }
+
+    @Test
+    public void testCapacity() {
+        assertEquals(4, queue.capacity());
+        assertThrows(IllegalArgumentException.class, () -> new InputQueue(0));
+        assertThrows(IllegalArgumentException.class, () -> new InputQueue(6));
+    }
+
+    @Test
+    public void testFifo() {
+        assertNull(queue.poll());
+        assertTrue(queue.offer(Moves.Left, 10));
+        assertTrue(queue.offer(Moves.CW, 20));
+        assertEquals(2, queue.size());
+
+        assertEquals(Moves.Left, queue.poll());
+        assertEquals(10, queue.getLastTimestamp());
+        assertEquals(Moves.CW, queue.poll());
+        assertEquals(20, queue.getLastTimestamp());
+        assertNull(queue.poll());
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    public void testFullAndWrapAround() {
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 4; i++) {
+                assertTrue(queue.offer(Moves.values()[i], i));
+            }
+            assertFalse(queue.offer(Moves.Drop, 99));
+
+            for (int i = 0; i < 4; i++) {
+                assertEquals(Moves.values()[i], queue.poll());
+            }
+        }
+        assertEquals(3, queue.getDropped());
+    }
+
+    @Test
+    public void testClear() {
+        queue.offer(Moves.Down, 1);
+        queue.offer(Moves.Down, 2);
+        queue.clear();
+        assertEquals(0, queue.size());
+        assertNull(queue.poll());
+    }
+
+    @Test
+    public void testConcurrentProducer() throws InterruptedException {
+        int count = 200000;
+        InputQueue big = new InputQueue(64);
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < count; i++) {
+                while (!big.offer(Moves.values()[i % 7], i)) {
+                    Thread.yield();
+                }
+            }
+        });
+        producer.start();
+
+        for (int i = 0; i < count; i++) {
+            Moves move;
+            while ((move = big.poll()) == null) {
+                Thread.yield();
+            }
+            assertEquals(Moves.values()[i % 7], move);
+            assertEquals(i, big.getLastTimestamp());
+        }
+        producer.join();
+        assertNull(big.poll());
+    }
+}
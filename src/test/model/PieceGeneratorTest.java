@@ -0,0 +1,74 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A testing class for the piece generators
+ */
+class PieceGeneratorTest {
+
+    @Test
+    public void testSplitMixRandomSeeded() {
+        SplitMixRandom a = new SplitMixRandom(7);
+        SplitMixRandom b = new SplitMixRandom(7);
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(a.nextLong(), b.nextLong());
+            int n = a.nextInt(7);
+            assertEquals(n, b.nextInt(7));
+            assertTrue(n >= 0 && n < 7);
+        }
+    }
+
+    @Test
+    public void testUniformNeverEmpty() {
+        PieceGenerator generator = new UniformGenerator(3);
+        Set<Tetromino> seen = EnumSet.noneOf(Tetromino.class);
+
+        for (int i = 0; i < 1000; i++) {
+            Tetromino t = generator.next();
+            assertNotEquals(Tetromino.Empty, t);
+            seen.add(t);
+        }
+
+        assertEquals(7, seen.size());
+    }
+
+    @Test
+    public void testBagDealsEveryShapeOncePerBag() {
+        PieceGenerator generator = new BagGenerator(11);
+
+        for (int bag = 0; bag < 20; bag++) {
+            Set<Tetromino> seen = EnumSet.noneOf(Tetromino.class);
+            for (int i = 0; i < 7; i++) {
+                seen.add(generator.next());
+            }
+            assertEquals(7, seen.size());
+            assertFalse(seen.contains(Tetromino.Empty));
+        }
+    }
+
+    @Test
+    public void testSameSeedSameSequence() {
+        for (GeneratorType type : GeneratorType.values()) {
+            PieceGenerator a = type.create(99);
+            PieceGenerator b = type.create(99);
+            for (int i = 0; i < 50; i++) {
+                assertEquals(a.next(), b.next());
+            }
+        }
+    }
+
+    @Test
+    public void testSequenceRepeats() {
+        PieceGenerator generator = new SequenceGenerator(Tetromino.LineShape, Tetromino.TShape);
+        assertEquals(Tetromino.LineShape, generator.next());
+        assertEquals(Tetromino.TShape, generator.next());
+        assertEquals(Tetromino.LineShape, generator.next());
+    }
+}
@@ -0,0 +1,40 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * A testing class for PieceQueue
+ */
+class PieceQueueTest {
+    private static final Tetromino[] SEQUENCE = {
+        Tetromino.LineShape, Tetromino.SquareShape, Tetromino.TShape, Tetromino.LShape, Tetromino.ZShape
+    };
+
+    private PieceQueue queue;
+
+    @BeforeEach
+    void runBefore() {
+        queue = new PieceQueue(new SequenceGenerator(SEQUENCE), 3);
+    }
+
+    @Test
+    public void testPeek() {
+        assertEquals(3, queue.size());
+        assertEquals(Tetromino.LineShape, queue.peek(0));
+        assertEquals(Tetromino.SquareShape, queue.peek(1));
+        assertEquals(Tetromino.TShape, queue.peek(2));
+    }
+
+    @Test
+    public void testNextRefills() {
+        for (int i = 0; i < 12; i++) {
+            assertEquals(SEQUENCE[i % SEQUENCE.length], queue.next());
+            for (int j = 0; j < queue.size(); j++) {
+                assertEquals(SEQUENCE[(i + 1 + j) % SEQUENCE.length], queue.peek(j));
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A testing class for ReplayRecorder, Replay and ReplayPlayer
+ */
+class ReplayTest {
+    private static final Moves[] MOVES = Moves.values();
+
+    private Game game;
+    private ReplayRecorder recorder;
+
+    @BeforeEach
+    void runBefore() {
+        game = new Game(1234, GeneratorType.Bag);
+        recorder = game.startRecording();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: plays game with occasional random inputs until it ends or reaches maxTicks
+    private void playRandomly(long inputSeed, int maxTicks) {
+        Random random = new Random(inputSeed);
+        while (!game.isEnded() && game.getTicks() < maxTicks) {
+            if (random.nextInt(4) == 0) {
+                game.input(MOVES[random.nextInt(MOVES.length)]);
+            }
+            game.tick();
+        }
+    }
+
+    @Test
+    public void testRecordOnlyAppliedMoves() {
+        game.tick();
+        game.input(Moves.Left);
+        game.tick();
+        game.tick();
+        game.input(Moves.Right);
+        game.tick();
+
+        assertEquals(2, recorder.getInputCount());
+    }
+
+    @Test
+    public void testReplayMatches() {
+        playRandomly(1, 20000);
+        Replay replay = recorder.finish(game);
+
+        Game replayed = new ReplayPlayer(replay).play();
+        assertEquals(game.getTicks(), replayed.getTicks());
+        assertEquals(game.getScore(), replayed.getScore());
+        assertEquals(game.getBoard().fingerprint(), replayed.getBoard().fingerprint());
+        assertEquals(game.isEnded(), replayed.isEnded());
+        assertTrue(new ReplayPlayer(replay).verify());
+    }
+
+    @Test
+    public void testReplayBytesRoundTrip() {
+        playRandomly(2, 5000);
+        Replay replay = Replay.fromBytes(recorder.finish(game).toBytes());
+
+        assertEquals(GeneratorType.Bag, replay.getGeneratorType());
+        assertEquals(1234, replay.getSeed());
+        assertEquals(recorder.getInputCount(), replay.getInputCount());
+        assertEquals(game.getTicks(), replay.getFinalTicks());
+        assertTrue(new ReplayPlayer(replay).verify());
+    }
+
+    @Test
+    public void testVerifyDetectsMismatch() {
+        playRandomly(3, 5000);
+        Replay replay = recorder.finish(game);
+        Replay tampered = new Replay(replay.getGeneratorType(), replay.getSeed(), replay.getInputs(),
+                replay.getInputCount(), replay.getFinalTicks(), replay.getFinalScore() + 1,
+                replay.getFinalFingerprint());
+
+        assertFalse(new ReplayPlayer(tampered).verify());
+    }
+
+    @Test
+    public void testFromBytesInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> Replay.fromBytes(new byte[]{1, 2, 3}));
+        byte[] truncated = new byte[10];
+        System.arraycopy(recorder.finish(game).toBytes(), 0, truncated, 0, 10);
+        assertThrows(IllegalArgumentException.class, () -> Replay.fromBytes(truncated));
+    }
+
+    @Test
+    public void testFromBytesCorruptInputs() {
+        playRandomly(4, 2000);
+        Replay replay = recorder.finish(game);
+        byte[] bytes = replay.toBytes();
+        int header = bytes.length - replay.getInputs().length;
+
+        byte[] hugeLength = bytes.clone();
+        ByteBuffer.wrap(hugeLength).putInt(header - 4, Integer.MAX_VALUE);
+        assertThrows(IllegalArgumentException.class, () -> Replay.fromBytes(hugeLength));
+
+        byte[] tooManyInputs = bytes.clone();
+        ByteBuffer.wrap(tooManyInputs).putInt(12, replay.getInputCount() + 1);
+        assertThrows(IllegalArgumentException.class, () -> Replay.fromBytes(tooManyInputs));
+
+        byte[] badMove = bytes.clone();
+        badMove[header] = 0x07;
+        assertThrows(IllegalArgumentException.class, () -> Replay.fromBytes(badMove));
+    }
+
+    @Test
+    public void testStartRecordingTooLate() {
+        Game other = new Game(1);
+        other.tick();
+        assertThrows(IllegalStateException.class, other::startRecording);
+        Game unseeded = new Game(new SequenceGenerator(Tetromino.TShape));
+        assertThrows(IllegalStateException.class, unseeded::startRecording);
+    }
+}
@@ -0,0 +1,136 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static model.Game.BOARD_HEIGHT;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A testing class for UndoHistory
+ */
+class UndoHistoryTest {
+    private Game game;
+    private UndoHistory history;
+
+    @BeforeEach
+    void runBefore() {
+        game = new Game(7, GeneratorType.Bag);
+        history = game.keepHistory(3);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: moves the current block left by the given number of columns, drops it and ticks until
+    //          it locks
+    private void place(int left) {
+        for (int i = 0; i < left; i++) {
+            game.input(Moves.Left);
+        }
+        game.input(Moves.Drop);
+        int locked = game.getPiecesLocked();
+        while (game.getPiecesLocked() == locked) {
+            game.tick();
+        }
+    }
+
+    // EFFECTS: asserts that game is in exactly the state written to expected by pack
+    private void assertState(long[] expected) {
+        long[] actual = new long[Game.PACKED_WORDS];
+        game.pack(actual, 0);
+        assertArrayEquals(expected, actual);
+    }
+
+    // EFFECTS: returns the state of game packed into a new array
+    private long[] state() {
+        long[] state = new long[Game.PACKED_WORDS];
+        game.pack(state, 0);
+        return state;
+    }
+
+    @Test
+    public void testNothingToUndo() {
+        assertEquals(0, history.getUndoCount());
+        assertFalse(history.undo());
+        assertFalse(history.redo());
+    }
+
+    @Test
+    public void testUndoRedo() {
+        long[] start = state();
+        long hash = game.getHash();
+        Tetromino first = game.getCurBlock().getShape();
+        place(0);
+        long[] afterFirst = state();
+        place(3);
+
+        assertEquals(2, history.getUndoCount());
+        assertTrue(history.undo());
+        assertState(afterFirst);
+        assertTrue(history.undo());
+        assertState(start);
+        assertEquals(hash, game.getHash());
+        assertEquals(first, game.getCurBlock().getShape());
+        assertEquals(0, game.getPiecesLocked());
+        assertEquals(0, game.getTicks());
+        for (int j = 0; j < BOARD_HEIGHT; j++) {
+            assertEquals(0, game.getBoard().getRow(j));
+        }
+
+        assertEquals(2, history.getRedoCount());
+        assertTrue(history.redo());
+        assertState(afterFirst);
+        assertEquals(1, history.getRedoCount());
+    }
+
+    @Test
+    public void testLockDiscardsRedo() {
+        place(0);
+        place(0);
+        assertTrue(history.undo());
+        place(2);
+
+        assertEquals(0, history.getRedoCount());
+        assertFalse(history.redo());
+        assertEquals(2, history.getUndoCount());
+    }
+
+    @Test
+    public void testCapacity() {
+        for (int i = 0; i < 5; i++) {
+            place(i % 4);
+        }
+
+        assertEquals(3, history.getUndoCount());
+        assertTrue(history.undo());
+        assertTrue(history.undo());
+        assertTrue(history.undo());
+        assertFalse(history.undo());
+        assertEquals(2, game.getPiecesLocked());
+    }
+
+    @Test
+    public void testRestoreNotifiesObservers() {
+        String[] received = new String[1];
+        place(0);
+        game.addObserver((g, event) -> received[0] = event);
+        game.input(Moves.Right);
+        history.undo();
+
+        assertEquals(Game.EVENT_RESTORED, received[0]);
+        assertEquals(0, game.getInputs().size());
+    }
+
+    @Test
+    public void testUndoAfterGameOver() {
+        while (!game.isEnded()) {
+            place(0);
+        }
+        int score = game.getScore();
+
+        assertTrue(history.undo());
+        assertFalse(game.isEnded());
+        assertEquals(score, game.getScore());
+        game.tick();
+        assertFalse(game.isEnded());
+    }
+}
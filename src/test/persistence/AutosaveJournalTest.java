@@ -0,0 +1,170 @@
+package persistence;
+
+import model.Game;
+import model.GeneratorType;
+import model.Moves;
+import model.UndoHistory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static model.Game.BOARD_HEIGHT;
+import static model.Game.BOARD_WIDTH;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A test class for AutosaveJournal
+ */
+class AutosaveJournalTest {
+    private static final long CAPACITY = 4096;
+
+    @TempDir
+    Path directory;
+
+    private String file;
+    private Game game;
+
+    @BeforeEach
+    void runBefore() {
+        file = directory.resolve("autosave.journal").toString();
+        game = new Game(11, GeneratorType.Bag);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: drops count blocks, alternating between the left wall, the middle and the right wall
+    private void place(int count) {
+        for (int n = 0; n < count && !game.isEnded(); n++) {
+            Moves side = n % 3 == 0 ? Moves.Left : Moves.Right;
+            for (int i = 0; i < (n % 3 == 1 ? 0 : BOARD_WIDTH / 2); i++) {
+                game.input(side);
+            }
+            game.input(Moves.Drop);
+            int locked = game.getPiecesLocked();
+            while (game.getPiecesLocked() == locked) {
+                game.tick();
+            }
+        }
+    }
+
+    // EFFECTS: asserts that recovered holds the same board, block and score as game
+    private void checkRecovered(Game recovered) {
+        assertNotNull(recovered);
+        assertEquals(game.getBoard().fingerprint(), recovered.getBoard().fingerprint());
+        for (int y = 0; y < BOARD_HEIGHT; y++) {
+            assertEquals(game.getBoard().getRow(y), recovered.getBoard().getRow(y));
+        }
+        assertEquals(game.getCurBlock().getShape(), recovered.getCurBlock().getShape());
+        assertEquals(game.getScore(), recovered.getScore());
+        assertEquals(game.isEnded(), recovered.isEnded());
+        assertEquals(game.getTicksUntilFall(), recovered.getTicksUntilFall());
+    }
+
+    @Test
+    public void testRecoverMissingFile() throws IOException {
+        assertNull(AutosaveJournal.recover(file));
+    }
+
+    @Test
+    public void testRecoverNotJournal() throws IOException {
+        Files.write(Path.of(file), new byte[]{1, 2, 3, 4, 5, 6});
+        assertThrows(IOException.class, () -> AutosaveJournal.recover(file));
+    }
+
+    @Test
+    public void testRecoverFromDeltas() throws IOException {
+        AutosaveJournal journal = new AutosaveJournal(file, CAPACITY, 100);
+        journal.attach(game);
+        place(12);
+
+        assertEquals(1, journal.getCheckpoints());
+        assertEquals(game.getPiecesLocked(), journal.getDeltas());
+        assertEquals(CAPACITY, Files.size(Path.of(file)));
+        checkRecovered(AutosaveJournal.recover(file));
+        journal.close();
+        assertFalse(Files.exists(Path.of(file + AutosaveJournal.SPARE_SUFFIX)));
+        checkRecovered(AutosaveJournal.recover(file));
+    }
+
+    @Test
+    public void testCheckpointInterval() throws IOException {
+        try (AutosaveJournal journal = new AutosaveJournal(file, CAPACITY, 5)) {
+            journal.attach(game);
+            place(12);
+
+            assertEquals(3, journal.getCheckpoints());
+            assertEquals(10, journal.getDeltas());
+            checkRecovered(AutosaveJournal.recover(file));
+        }
+    }
+
+    @Test
+    public void testCompaction() throws IOException {
+        try (AutosaveJournal journal = new AutosaveJournal(file, 512, 4)) {
+            journal.attach(game);
+            place(60);
+            journal.sync();
+
+            assertTrue(journal.getCompactions() > 1);
+            assertTrue(journal.getPosition() <= 512);
+            assertEquals(512, Files.size(Path.of(file)));
+            checkRecovered(AutosaveJournal.recover(file));
+        }
+    }
+
+    @Test
+    public void testTornRecordIgnored() throws IOException {
+        AutosaveJournal journal = new AutosaveJournal(file, CAPACITY, 100);
+        journal.attach(game);
+        place(3);
+        Game before = AutosaveJournal.recover(file);
+        long end = journal.getPosition();
+        place(1);
+        journal.close();
+
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(end + 3);
+            int b = raf.read();
+            raf.seek(end + 3);
+            raf.write(b ^ 0xFF);
+        }
+        Game recovered = AutosaveJournal.recover(file);
+        assertEquals(before.getBoard().fingerprint(), recovered.getBoard().fingerprint());
+        assertEquals(before.getCurBlock().getShape(), recovered.getCurBlock().getShape());
+    }
+
+    @Test
+    public void testCheckpointOnRestore() throws IOException {
+        UndoHistory history = game.keepHistory(8);
+        try (AutosaveJournal journal = new AutosaveJournal(file, CAPACITY, 100)) {
+            journal.attach(game);
+            place(4);
+            assertTrue(history.undo());
+
+            assertEquals(2, journal.getCheckpoints());
+            checkRecovered(AutosaveJournal.recover(file));
+        }
+    }
+
+    @Test
+    public void testAttachNewGame() throws IOException {
+        try (AutosaveJournal journal = new AutosaveJournal(file, CAPACITY, 100)) {
+            journal.attach(game);
+            place(4);
+            Game old = game;
+            game = new Game(12, GeneratorType.Bag);
+            journal.attach(game);
+            place(2);
+            long deltas = journal.getDeltas();
+            old.input(Moves.Drop);
+            old.tick();
+
+            assertEquals(deltas, journal.getDeltas());
+            checkRecovered(AutosaveJournal.recover(file));
+        }
+    }
+}
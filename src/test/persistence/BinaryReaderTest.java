@@ -0,0 +1,96 @@
+package persistence;
+
+import model.Game;
+import model.Moves;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * A test class for BinaryReader
+ */
+class BinaryReaderTest extends JsonTest {
+    private Game game;
+
+    @BeforeEach
+    void runBefore() {
+        game = new Game();
+    }
+
+    @Test
+    void testReaderNonExistentFile() {
+        BinaryReader reader = new BinaryReader("./data/noSuchFile.sav");
+        try {
+            reader.read();
+            fail("IOException expected");
+        } catch (IOException e) {
+            // pass
+        }
+    }
+
+    @Test
+    void testReaderEmptyFile() {
+        BinaryReader reader = new BinaryReader("./data/testReaderEmptyFile.json");
+        try {
+            assertNull(reader.read());
+        } catch (IOException e) {
+            fail("Unexpected IOException thrown");
+        }
+    }
+
+    @Test
+    void testReaderNotASave() {
+        BinaryReader reader = new BinaryReader("./data/testReaderGeneralGame.json");
+        try {
+            reader.read();
+            fail("IOException expected");
+        } catch (IOException e) {
+            // pass
+        }
+    }
+
+    @Test
+    void testReaderCorruptSave() throws IOException {
+        Path path = Paths.get("./data/testBinaryReaderCorrupt.sav");
+        BinaryWriter writer = new BinaryWriter(path.toString());
+        writer.open();
+        writer.write(game);
+        writer.close();
+
+        byte[] bytes = Files.readAllBytes(path);
+        bytes[20] ^= 1;
+        Files.write(path, bytes);
+
+        try {
+            new BinaryReader(path.toString()).read();
+            fail("IOException expected");
+        } catch (IOException e) {
+            // pass
+        }
+    }
+
+    @Test
+    void testReaderGeneralGame() throws IOException {
+        game.setScore(3);
+        game.getCurBlock().setNextMove(Moves.Drop);
+        game.tick();
+        game.getCurBlock().setNextMove(Moves.CW);
+        BinaryWriter writer = new BinaryWriter("./data/testBinaryReaderGeneralGame.sav");
+        writer.open();
+        writer.write(game);
+        writer.close();
+        BinaryReader reader = new BinaryReader("./data/testBinaryReaderGeneralGame.sav");
+        try {
+            checkGame(game, reader.read());
+        } catch (IOException e) {
+            fail("Unexpected IOException thrown");
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package persistence;
+
+import model.Game;
+import model.Moves;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * A test class for BinaryWriter
+ */
+class BinaryWriterTest extends JsonTest {
+    private Game game;
+
+    @BeforeEach
+    void runBefore() {
+        game = new Game();
+    }
+
+    @Test
+    void testWriterInvalidFile() {
+        try {
+            BinaryWriter writer = new BinaryWriter("./data/no/such/dir/game.sav");
+            writer.open();
+            fail("IOException was expected");
+        } catch (IOException e) {
+            // pass
+        }
+    }
+
+    @Test
+    void testWriterNewGame() {
+        try {
+            BinaryWriter writer = new BinaryWriter("./data/testBinaryWriterNewGame.sav");
+            writer.open();
+            writer.write(game);
+            writer.close();
+
+            assertEquals(124, new File("./data/testBinaryWriterNewGame.sav").length());
+            BinaryReader reader = new BinaryReader("./data/testBinaryWriterNewGame.sav");
+            checkGame(game, reader.read());
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testWriterGeneralGame() {
+        try {
+            game.setScore(2);
+            for (int i = 0; i < 3; i++) {
+                game.getCurBlock().setNextMove(Moves.Drop);
+                game.tick();
+            }
+            game.getCurBlock().setNextMove(Moves.CCW);
+            game.tick();
+            game.getCurBlock().setNextMove(Moves.Right);
+            BinaryWriter writer = new BinaryWriter("./data/testBinaryWriterGeneralGame.sav");
+            writer.open();
+            writer.write(game);
+            writer.close();
+
+            BinaryReader reader = new BinaryReader("./data/testBinaryWriterGeneralGame.sav");
+            checkGame(game, reader.read());
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package persistence;
+
+import model.Event;
+import model.EventLog;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A test class for EventJournal
+ */
+class EventJournalTest {
+    @TempDir
+    Path directory;
+
+    private EventLog log;
+    private long base;
+
+    @BeforeEach
+    void runBefore() {
+        log = EventLog.getInstance();
+        log.clear();
+        // later than the clear event, so that events stay in time order
+        base = System.currentTimeMillis() + 60_000;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: logs count events at base, base + 10, base + 20, ... described by their index
+    private void logEvents(int count) {
+        logEvents(0, count);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: logs the events with indices first..first + count - 1, as logEvents does
+    private void logEvents(int first, int count) {
+        for (int i = first; i < first + count; i++) {
+            log.logEvent(new Event(new Date(base + 10 * i), "event " + i));
+        }
+    }
+
+    // EFFECTS: asserts that events are exactly those logged by logEvents with indices first..last
+    private void checkRange(List<Event> events, int first, int last) {
+        assertEquals(last - first + 1, events.size());
+        for (int i = first; i <= last; i++) {
+            Event event = events.get(i - first);
+            assertEquals(base + 10 * i, event.getDate().getTime());
+            assertEquals("event " + i, event.getDescription());
+        }
+    }
+
+    @Test
+    void testDrainAndQuery() throws IOException {
+        EventJournal journal = new EventJournal(directory.toString(), 1 << 20, 4, log);
+        logEvents(20);
+        assertTrue(journal.drain());
+
+        assertEquals(21, journal.getWritten());
+        assertEquals(0, journal.getSkipped());
+        checkRange(journal.query(base, base + 190), 0, 19);
+        checkRange(journal.query(base + 55, base + 120), 6, 12);
+        assertTrue(journal.query(base + 1000, base + 2000).isEmpty());
+        journal.close();
+    }
+
+    @Test
+    void testRotation() throws IOException {
+        EventJournal journal = new EventJournal(directory.toString(), 200, 3, log);
+        logEvents(25);
+        journal.drain();
+        logEvents(25, 25);
+        journal.close();
+
+        assertTrue(journal.getSegmentCount() > 1);
+        checkRange(journal.query(base + 95, base + 405), 10, 40);
+    }
+
+    @Test
+    void testRetention() throws IOException {
+        EventJournal journal = new EventJournal(directory.toString(), 200, 3, 3, log);
+        logEvents(25);
+        journal.drain();
+        logEvents(25, 25);
+        journal.close();
+
+        assertEquals(3, journal.getSegmentCount());
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(6, files.count());
+        }
+        List<Event> events = journal.query(base, base + 490);
+        assertTrue(events.size() < 50);
+        checkRange(events, 50 - events.size(), 49);
+    }
+
+    @Test
+    void testReopen() throws IOException {
+        EventJournal journal = new EventJournal(directory.toString(), 300, 2, log);
+        logEvents(30);
+        journal.close();
+
+        EventJournal reopened = new EventJournal(directory.toString(), 300, 2, log);
+        assertEquals(journal.getSegmentCount(), reopened.getSegmentCount());
+        checkRange(reopened.query(base + 10, base + 250), 1, 25);
+        reopened.close();
+    }
+
+    @Test
+    void testTornLastLine() throws IOException {
+        EventJournal journal = new EventJournal(directory.toString(), 1 << 20, 4, log);
+        logEvents(20);
+        journal.close();
+
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.filter(f -> f.toString().endsWith(EventJournal.SEGMENT_SUFFIX)).findFirst().get();
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(segment.toFile(), "rw")) {
+            raf.setLength(raf.length() - 6);
+        }
+
+        EventJournal reopened = new EventJournal(directory.toString(), 1 << 20, 4, log);
+        checkRange(reopened.query(base, base + 1000), 0, 18);
+        reopened.close();
+    }
+
+    @Test
+    void testBackgroundThread() throws IOException {
+        EventJournal journal = new EventJournal(directory.toString(), 1 << 20, 8, log);
+        journal.start();
+        logEvents(100);
+        journal.close();
+
+        checkRange(journal.query(base, base + 990), 0, 99);
+    }
+
+    @Test
+    void testSkipsOverwrittenEvents() throws IOException {
+        EventJournal journal = new EventJournal(directory.toString(), 1 << 20, 8, log);
+        logEvents(EventLog.CAPACITY + 5);
+        journal.close();
+
+        assertEquals(EventLog.CAPACITY, journal.getWritten());
+        assertEquals(6, journal.getSkipped());
+    }
+}
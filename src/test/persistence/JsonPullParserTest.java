@@ -0,0 +1,124 @@
+package persistence;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A test class for JsonPullParser
+ */
+class JsonPullParserTest {
+    private static final String[] NAMES = {"Empty", "LineShape", "TShape"};
+
+    // EFFECTS: returns a parser over json
+    private JsonPullParser parser(String json) {
+        return new JsonPullParser(new StringReader(json));
+    }
+
+    @Test
+    void testEmptyDocument() throws IOException {
+        assertEquals(JsonPullParser.Token.END_DOCUMENT, parser("").peek());
+        assertEquals(JsonPullParser.Token.END_DOCUMENT, parser(" \r\n").peek());
+    }
+
+    @Test
+    void testNestedDocument() throws IOException {
+        JsonPullParser json = parser("{\"a\": 12, \"b\": [true, false], \"c\": {\"d\": -3}, \"e\": \"x\"}");
+        json.beginObject();
+        assertEquals("a", json.nextName());
+        assertEquals(12, json.nextInt());
+        assertEquals("b", json.nextName());
+        json.beginArray();
+        assertTrue(json.nextBoolean());
+        assertFalse(json.nextBoolean());
+        assertFalse(json.hasNext());
+        json.endArray();
+        assertEquals("c", json.nextName());
+        json.beginObject();
+        assertEquals("d", json.nextName());
+        assertEquals(-3, json.nextInt());
+        json.endObject();
+        assertEquals("e", json.nextName());
+        assertEquals(JsonPullParser.Token.STRING, json.peek());
+        assertEquals("x", json.nextString());
+        json.endObject();
+        assertEquals(JsonPullParser.Token.END_DOCUMENT, json.peek());
+    }
+
+    @Test
+    void testEscapes() throws IOException {
+        assertEquals("q\"b\\n\n/A", parser("\"q\\\"b\\\\n\\u000a\\/\\u0041\"").nextString());
+    }
+
+    @Test
+    void testNextStringIndex() throws IOException {
+        JsonPullParser json = parser("[\"TShape\", \"Empty\", \"T\", \"SShape\"]");
+        json.beginArray();
+        assertEquals(2, json.nextStringIndex(NAMES));
+        assertEquals(0, json.nextStringIndex(NAMES));
+        assertEquals(-1, json.nextStringIndex(NAMES));
+        assertEquals(-1, json.nextStringIndex(NAMES));
+        json.endArray();
+    }
+
+    @Test
+    void testSkipValue() throws IOException {
+        JsonPullParser json = parser("{\"a\": {\"b\": [1, 2.5e3, null, \"s\"], \"c\": {}}, \"d\": 4}");
+        json.beginObject();
+        assertEquals("a", json.nextName());
+        json.skipValue();
+        assertEquals("d", json.nextName());
+        assertEquals(4, json.nextInt());
+        json.endObject();
+    }
+
+    @Test
+    void testLongInput() throws IOException {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < 5000; i++) {
+            sb.append(i == 0 ? "" : ", ").append(i);
+        }
+        JsonPullParser json = parser(sb.append("]").toString());
+        json.beginArray();
+        for (int i = 0; i < 5000; i++) {
+            assertEquals(i, json.nextInt());
+        }
+        json.endArray();
+    }
+
+    @Test
+    void testNextDouble() throws IOException {
+        JsonPullParser json = parser("[-0.510066, 1.0E-9, 3, 2.5e+2]");
+        json.beginArray();
+        assertEquals(-0.510066, json.nextDouble());
+        assertEquals(1e-9, json.nextDouble());
+        assertEquals(3, json.nextDouble());
+        assertEquals(250, json.nextDouble());
+        json.endArray();
+        assertThrows(IOException.class, () -> parser("1.2.3").nextDouble());
+    }
+
+    @Test
+    void testWrongToken() {
+        assertThrows(IOException.class, () -> parser("[1]").beginObject());
+        assertThrows(IOException.class, () -> parser("1.5").nextInt());
+        assertThrows(IOException.class, () -> parser("99999999999").nextInt());
+    }
+
+    @Test
+    void testMalformed() {
+        assertThrows(IOException.class, () -> parser("{\"a\" 1}").skipValue());
+        assertThrows(IOException.class, () -> parser("[1 2]").skipValue());
+        assertThrows(IOException.class, () -> parser("\"abc").nextString());
+        assertThrows(IOException.class, () -> parser("tru").nextBoolean());
+        assertThrows(IOException.class, () -> parser("{\"a\": [1, 2").skipValue());
+        assertThrows(IOException.class, () -> {
+            JsonPullParser json = parser("1 2");
+            json.nextInt();
+            json.peek();
+        });
+    }
+}
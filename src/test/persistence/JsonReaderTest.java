@@ -1,15 +1,16 @@
 package persistence;
 
+import model.Block;
 import model.Game;
 import model.Moves;
+import model.Tetromino;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
 
-import static org.junit.jupiter.api.Assertions.assertNull;
-import static org.junit.jupiter.api.Assertions.fail;
+import static org.junit.jupiter.api.Assertions.*;
 
 /**
  * Test class for JsonReader
@@ -77,4 +78,47 @@ class JsonReaderTest extends JsonTest {
             fail("Unexpected IOException thrown");
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    void testReaderLegacyMemberOrder() {
+        JsonReader reader = new JsonReader("./data/testReaderLegacyGame.json");
+        try {
+            Game newGame = reader.read();
+            assertEquals(0, newGame.getScore());
+            assertEquals(27, newGame.getTicksUntilFall());
+            assertFalse(newGame.isEnded());
+            assertEquals(Tetromino.SquareShape, newGame.getCurBlock().getShape());
+            assertEquals(8, newGame.getCurBlock().getCentrePosOnBoard().getX());
+            assertEquals(Tetromino.LineShape, newGame.getBoard().get(0, Game.BOARD_HEIGHT - 1));
+        } catch (IOException e) {
+            fail("Unexpected IOException thrown");
+        }
+    }
+
+    @Test
+    void testReaderRotatedBlockShapeLast() {
+        JsonReader reader = new JsonReader("./data/testReaderRotatedBlock.json");
+        try {
+            Block block = reader.read().getCurBlock();
+            assertEquals(Tetromino.LineShape, block.getShape());
+            assertEquals(3, block.getCentrePosOnBoard().getX());
+            for (int i = 0; i < 4; i++) {
+                assertEquals(0, block.getRelativePos()[i].getX());
+                assertEquals(i - 1, block.getRelativePos()[i].getY());
+            }
+        } catch (IOException e) {
+            fail("Unexpected IOException thrown");
+        }
+    }
+
+    @Test
+    void testReaderMalformedFile() {
+        JsonReader reader = new JsonReader("./data/testReaderMalformedFile.json");
+        try {
+            reader.read();
+            fail("IOException expected");
+        } catch (IOException e) {
+            // pass
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package persistence;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * A test class for JsonStreamWriter
+ */
+class JsonStreamWriterTest {
+    private StringWriter out;
+
+    @BeforeEach
+    void runBefore() {
+        out = new StringWriter();
+    }
+
+    // EFFECTS: writes a small document with nested objects and arrays to json
+    private void writeDocument(JsonStreamWriter json) throws IOException {
+        json.beginObject();
+        json.name("a").value(1);
+        json.name("b").beginArray().value("x").value(true).endArray();
+        json.name("c").beginObject().endObject();
+        json.name("d").beginArray().endArray();
+        json.endObject();
+    }
+
+    @Test
+    void testCompact() throws IOException {
+        writeDocument(new JsonStreamWriter(out, true));
+        assertEquals("{\"a\":1,\"b\":[\"x\",true],\"c\":{},\"d\":[]}", out.toString());
+    }
+
+    @Test
+    void testIndented() throws IOException {
+        writeDocument(new JsonStreamWriter(out, false));
+        String expected = "{\n"
+                + "    \"a\": 1,\n"
+                + "    \"b\": [\n"
+                + "        \"x\",\n"
+                + "        true\n"
+                + "    ],\n"
+                + "    \"c\": {},\n"
+                + "    \"d\": []\n"
+                + "}";
+        assertEquals(expected, out.toString());
+    }
+
+    @Test
+    void testEscaping() throws IOException {
+        new JsonStreamWriter(out, true).value("q\"b\\n\n");
+        assertEquals("\"q\\\"b\\\\n\\u000a\"", out.toString());
+    }
+
+    @Test
+    void testDouble() throws IOException {
+        new JsonStreamWriter(out, true).beginArray().value(-0.510066).value(1e-9).value(2.0).endArray();
+        assertEquals("[-0.510066,1.0E-9,2.0]", out.toString());
+    }
+}
@@ -30,10 +30,10 @@ public class JsonTest {
         assertEquals(pos.getY(), newPos.getY());
     }
 
-    protected void checkBoard(Tetromino[][] board, Tetromino[][] newBoard) {
+    protected void checkBoard(Board board, Board newBoard) {
         for (int i = 0; i < Game.BOARD_WIDTH; i++) {
             for (int j = 0; j < Game.BOARD_HEIGHT; j++) {
-                assertEquals(board[i][j], newBoard[i][j]);
+                assertEquals(board.get(i, j), newBoard.get(i, j));
             }
         }
     }
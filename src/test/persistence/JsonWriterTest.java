@@ -5,8 +5,12 @@ import model.Moves;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.File;
 import java.io.IOException;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 /**
@@ -67,4 +71,41 @@ class JsonWriterTest extends JsonTest {
             fail("Exception should not have been thrown");
         }
     }
+
+    @Test
+    void testWriterCompact() {
+        try {
+            game.getCurBlock().setNextMove(Moves.Drop);
+            game.tick();
+            JsonWriter writer = new JsonWriter("./data/testWriterCompactGame.json", true);
+            writer.open();
+            writer.write(game);
+            writer.close();
+
+            File file = new File("./data/testWriterCompactGame.json");
+            assertTrue(file.length() < new File("./data/testWriterGeneralGame.json").length());
+            assertFalse(new File("./data/testWriterCompactGame.json.tmp").exists());
+
+            JsonReader reader = new JsonReader("./data/testWriterCompactGame.json");
+            checkGame(game, reader.read());
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testWriterReplacesOnlyOnClose() {
+        try {
+            JsonWriter writer = new JsonWriter("./data/testWriterGeneralGame.json");
+            long before = new File("./data/testWriterGeneralGame.json").length();
+            writer.open();
+            writer.write(game);
+            assertEquals(before, new File("./data/testWriterGeneralGame.json").length());
+            writer.close();
+
+            checkGame(game, new JsonReader("./data/testWriterGeneralGame.json").read());
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
 }
\ No newline at end of file
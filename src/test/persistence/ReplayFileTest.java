@@ -0,0 +1,62 @@
+package persistence;
+
+import model.Game;
+import model.GeneratorType;
+import model.Moves;
+import model.Replay;
+import model.ReplayPlayer;
+import model.ReplayRecorder;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A testing class for ReplayFile
+ */
+class ReplayFileTest {
+
+    @Test
+    void testReadNonExistentFile() {
+        ReplayFile file = new ReplayFile("./data/noSuchFile.replay");
+        try {
+            file.read();
+            fail("IOException expected");
+        } catch (IOException e) {
+            // pass
+        }
+    }
+
+    @Test
+    void testReadInvalidFile() {
+        ReplayFile file = new ReplayFile("./data/testReaderEmptyFile.json");
+        try {
+            file.read();
+            fail("IOException expected");
+        } catch (IOException e) {
+            // pass
+        }
+    }
+
+    @Test
+    void testWriteRead() {
+        Game game = new Game(77, GeneratorType.Uniform);
+        ReplayRecorder recorder = game.startRecording();
+        for (int i = 0; i < 300; i++) {
+            game.input(i % 40 == 0 ? Moves.Drop : Moves.values()[i % 4]);
+            game.tick();
+        }
+
+        try {
+            ReplayFile file = new ReplayFile("./data/testReplayFile.replay");
+            file.write(recorder.finish(game));
+            Replay replay = file.read();
+            assertEquals(77, replay.getSeed());
+            assertEquals(game.getScore(), replay.getFinalScore());
+            assertTrue(new ReplayPlayer(replay).verify());
+        } catch (IOException e) {
+            fail("Unexpected IOException thrown");
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package persistence;
+
+import model.Game;
+import model.GeneratorType;
+import model.Moves;
+import model.Tetromino;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static model.Game.BOARD_HEIGHT;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A test class for SaveArchive
+ */
+class SaveArchiveTest {
+    private static final int CAPACITY = 16;
+
+    @TempDir
+    Path directory;
+
+    private String file;
+    private Game game;
+
+    @BeforeEach
+    void runBefore() {
+        file = directory.resolve("saves.archive").toString();
+        game = new Game(3, GeneratorType.Bag);
+        for (int n = 0; n < 6; n++) {
+            game.input(n % 2 == 0 ? Moves.Left : Moves.Right);
+            game.input(Moves.Drop);
+            game.tick();
+        }
+        game.setScore(7);
+    }
+
+    // EFFECTS: asserts that loaded holds the same board, block and score as game
+    private void checkLoaded(Game loaded) {
+        assertNotNull(loaded);
+        assertEquals(game.getBoard().fingerprint(), loaded.getBoard().fingerprint());
+        for (int y = 0; y < BOARD_HEIGHT; y++) {
+            assertEquals(game.getBoard().getRow(y), loaded.getBoard().getRow(y));
+        }
+        assertEquals(game.getCurBlock().getShape(), loaded.getCurBlock().getShape());
+        assertEquals(game.getScore(), loaded.getScore());
+        assertEquals(game.getTicksUntilFall(), loaded.getTicksUntilFall());
+    }
+
+    @Test
+    public void testNewArchive() throws IOException {
+        try (SaveArchive archive = new SaveArchive(file, CAPACITY)) {
+            assertEquals(0, archive.size());
+            assertEquals(CAPACITY, archive.capacity());
+            assertNull(archive.load("missing"));
+            assertNull(archive.describe("missing"));
+            assertTrue(archive.list().isEmpty());
+        }
+        assertEquals(SaveArchive.HEADER_SIZE + CAPACITY * (SaveArchive.ENTRY_SIZE + 2 * SaveArchive.RECORD_SIZE),
+                Files.size(Path.of(file)));
+    }
+
+    @Test
+    public void testSaveLoad() throws IOException {
+        long before = System.currentTimeMillis();
+        try (SaveArchive archive = new SaveArchive(file, CAPACITY)) {
+            archive.save("practice", game);
+            archive.save("empty", new Game());
+
+            assertEquals(2, archive.size());
+            checkLoaded(archive.load("practice"));
+            SaveArchive.Slot slot = archive.describe("practice");
+            assertEquals("practice", slot.getName());
+            assertEquals(7, slot.getScore());
+            assertTrue(slot.getTimestamp() >= before);
+        }
+
+        try (SaveArchive archive = new SaveArchive(file, 2 * CAPACITY)) {
+            assertEquals(CAPACITY, archive.capacity());
+            assertEquals(2, archive.size());
+            checkLoaded(archive.load("practice"));
+            assertEquals(Tetromino.Empty, archive.load("empty").getBoard().get(0, BOARD_HEIGHT - 1));
+        }
+    }
+
+    @Test
+    public void testOverwriteAndDelete() throws IOException {
+        try (SaveArchive archive = new SaveArchive(file, CAPACITY)) {
+            archive.save("slot", new Game());
+            archive.save("slot", game);
+            assertEquals(1, archive.size());
+            checkLoaded(archive.load("slot"));
+
+            assertTrue(archive.delete("slot"));
+            assertFalse(archive.delete("slot"));
+            assertEquals(0, archive.size());
+            assertNull(archive.load("slot"));
+
+            archive.save("slot", game);
+            checkLoaded(archive.load("slot"));
+        }
+    }
+
+    @Test
+    public void testOverwriteKeepsPreviousRecord() throws IOException {
+        try (SaveArchive archive = new SaveArchive(file, CAPACITY)) {
+            archive.save("slot", new Game());
+            archive.save("slot", game);
+        }
+
+        // the first record of every slot is either unused or holds the save that was overwritten
+        long records = SaveArchive.HEADER_SIZE + CAPACITY * SaveArchive.ENTRY_SIZE;
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            for (int i = 0; i < CAPACITY; i++) {
+                raf.seek(records + 2L * i * SaveArchive.RECORD_SIZE);
+                raf.write(0xFF);
+            }
+        }
+
+        try (SaveArchive archive = new SaveArchive(file, CAPACITY)) {
+            checkLoaded(archive.load("slot"));
+            archive.save("slot", new Game());
+            assertEquals(Tetromino.Empty, archive.load("slot").getBoard().get(0, BOARD_HEIGHT - 1));
+        }
+    }
+
+    @Test
+    public void testFull() throws IOException {
+        try (SaveArchive archive = new SaveArchive(file, CAPACITY)) {
+            for (int i = 0; i < CAPACITY; i++) {
+                archive.save("user" + i, game);
+            }
+            assertThrows(IOException.class, () -> archive.save("one more", game));
+
+            List<SaveArchive.Slot> slots = archive.list();
+            assertEquals(CAPACITY, slots.size());
+            for (int i = 0; i < CAPACITY; i++) {
+                assertNotNull(archive.describe("user" + i));
+            }
+
+            assertTrue(archive.delete("user3"));
+            archive.save("one more", game);
+            checkLoaded(archive.load("one more"));
+            assertNull(archive.load("user3"));
+        }
+    }
+
+    @Test
+    public void testBadNames() throws IOException {
+        try (SaveArchive archive = new SaveArchive(file, CAPACITY)) {
+            assertThrows(IllegalArgumentException.class, () -> archive.save("", game));
+            assertThrows(IllegalArgumentException.class, () -> archive.load("x".repeat(37)));
+            archive.save("x".repeat(SaveArchive.MAX_NAME_BYTES), game);
+            assertNotNull(archive.load("x".repeat(SaveArchive.MAX_NAME_BYTES)));
+        }
+    }
+
+    @Test
+    public void testCorruptRecord() throws IOException {
+        try (SaveArchive archive = new SaveArchive(file, CAPACITY)) {
+            archive.save("slot", game);
+        }
+
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            for (long at = SaveArchive.HEADER_SIZE + CAPACITY * SaveArchive.ENTRY_SIZE; at < raf.length(); at++) {
+                raf.seek(at);
+                int b = raf.read();
+                raf.seek(at);
+                raf.write(b ^ 0x01);
+            }
+        }
+
+        try (SaveArchive archive = new SaveArchive(file, CAPACITY)) {
+            assertNotNull(archive.describe("slot"));
+            assertThrows(IOException.class, () -> archive.load("slot"));
+        }
+    }
+
+    @Test
+    public void testNotArchive() throws IOException {
+        Files.write(Path.of(file), new byte[]{1, 2, 3});
+        assertThrows(IOException.class, () -> new SaveArchive(file, CAPACITY));
+    }
+}